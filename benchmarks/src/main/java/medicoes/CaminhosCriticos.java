@@ -0,0 +1,57 @@
+package medicoes;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Medições JMH dos caminhos críticos (Fila, Pilha, Pedido e carga do catálogo), por caso e tamanho,
+ * com o produtos.txt real.
+ * Os casos são definidos no Benchmarks do projeto e preparados por Benchmarks.prepararCaso: o JMH não aceita
+ * medições no pacote padrão, e classes do pacote padrão não podem ser importadas daqui, por isso o caso é
+ * obtido uma vez por reflexão, na preparação, e chamado como LongSupplier (sem reflexão na medição).
+ * Qualquer outro caso do Benchmarks pode ser medido com -p caso=Nome (ex.: -p caso=FilaCircular.filtrar);
+ * um nome desconhecido falha na preparação com a lista dos casos existentes.
+ * Propriedade: -Dbench.arquivo=produtos.txt (relativo à raiz do projeto).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CaminhosCriticos {
+
+	@Param({ "Fila.inserir/remover", "Fila.calcularValorMedio", "Fila.filtrar", "Pilha.empilhar/desempilhar",
+			"Pilha.subPilha", "Pedido.valorFinal", "Pedido.toString", "Produto.criarDoTexto", "App.lerProdutos" })
+	public String caso;
+
+	@Param({ "1000", "100000" })
+	public int tamanho;
+
+	private LongSupplier operacao;
+
+	@Setup
+	public void preparar() throws Exception {
+		String arquivo = System.getProperty("bench.arquivo", "produtos.txt");
+		operacao = (LongSupplier) Class.forName("Benchmarks")
+				.getMethod("prepararCaso", String.class, String.class, int.class)
+				.invoke(null, arquivo, caso, tamanho);
+	}
+
+	@Benchmark
+	public long executar() {
+		return operacao.getAsLong();
+	}
+}
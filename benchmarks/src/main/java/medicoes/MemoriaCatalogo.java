@@ -0,0 +1,22 @@
+package medicoes;
+
+/**
+ * Exibe, para cada tamanho de catálogo, a memória do CatalogoColunar comparada à do vetor de produtos
+ * (Benchmarks.relatorioMemoria, obtido por reflexão pelo mesmo motivo do {@link CaminhosCriticos}).
+ * Uso: ./gradlew :benchmarks:memoria [-Pmemoria="1000 100000"]
+ * Propriedade: -Dbench.arquivo=produtos.txt (relativo à raiz do projeto).
+ */
+public class MemoriaCatalogo {
+
+	public static void main(String[] args) throws Exception {
+		String arquivo = System.getProperty("bench.arquivo", "produtos.txt");
+		String[] tamanhos = (args.length > 0) ? args : new String[] { "1000", "100000" };
+		for (String tamanho : tamanhos) {
+			Object relatorio = Class.forName("Benchmarks")
+					.getMethod("relatorioMemoria", String.class, int.class)
+					.invoke(null, arquivo, Integer.parseInt(tamanho));
+			System.out.println(relatorio);
+			System.out.println();
+		}
+	}
+}
@@ -0,0 +1,795 @@
+import java.nio.charset.Charset;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Scanner;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.util.function.Function;
+
+/**
+ * Tarefas (App):
+ * - Tarefa 1 (Pilha): finalizarPedido empilha o pedido finalizado (mais recente no topo).
+ * - Tarefa 3 (Pilha): listarProdutosPedidosRecentes exibe itens dos pedidos mais novos.
+ * - Tarefa 1 (Fila): Fila<Pedido> para registrar pedidos na ordem de finalização.
+ * - Tarefa 2 (Fila): exibirValorMedioPrimeirosPedidos usa calcularValorMedio.
+ * - Tarefa 3 (Fila): exibirPedidosAcimaDeValor e exibirPedidosComProduto usam filtrar.
+ * - Tarefa 4 (App): opções 7-9 no menu, chamando os métodos acima.
+ * - Opção 10: busca de produtos por termos da descrição, pelo índice textual do catálogo.
+ * - Opção 11: pedidos de maior valor, pelo índice de pedidos por valor.
+ * - Pedidos finalizados são gravados no diário de pedidos e recuperados ao reiniciar.
+ * - Com -Dmetricas=arquivo, grava periodicamente as métricas de filas, pilhas e pedidos; ver {@link Metricas}.
+ */
+public class App {
+
+	/** Nome do arquivo de dados. O arquivo deve estar localizado na raiz do projeto */
+    static String nomeArquivoDados;
+    
+    /** Scanner para leitura de dados do teclado */
+    static Scanner teclado;
+
+    /** Vetor de produtos cadastrados */
+    static Produto[] produtosCadastrados;
+
+    /** Quantidade de produtos cadastrados atualmente no vetor */
+    static int quantosProdutos = 0;
+
+    /** Catálogo indexado (por código e por descrição) dos produtos cadastrados */
+    static Catalogo catalogo = new Catalogo();
+
+    /** Pilha de pedidos (mais recentes no topo), sem bloqueio para finalização em vários terminais */
+    static IPilha<Pedido> pilhaPedidos = new PilhaConcorrente<>();
+    
+    /** Índice reverso produto -> pedidos finalizados, na ordem da fila de pedidos */
+    static IndicePedidosPorProduto pedidosPorProduto = new IndicePedidosPorProduto();
+    
+    /** Índice dos pedidos finalizados ordenado pelo valor total */
+    static IndicePedidosPorValor pedidosPorValor = new IndicePedidosPorValor();
+    
+    /** Extrator do valor total dos pedidos, registrado na fila de pedidos para as médias em O(1) */
+    static final Function<Pedido, Double> VALOR_FINAL = Pedido::valorFinal;
+    
+    /** Fila de pedidos (ordem que foram finalizados), com somas de prefixo do valor total e sincronizada */
+    static IFila<Pedido> filaPedidos = new FilaAgregada<>(VALOR_FINAL);
+    
+    /** Renderizador das listagens de produtos e pedidos, com saída em blocos */
+    static Renderizador tela = new Renderizador(System.out);
+    
+    /** Diário dos pedidos finalizados, para recuperá-los ao reiniciar (null se desativado) */
+    static DiarioPedidos diarioPedidos;
+    
+    /** Latência do armazenamento de cada pedido finalizado, incluindo a espera pela gravação no diário */
+    private static final Metricas.Histograma LATENCIA_ARMAZENAR = Metricas.histograma("App.armazenarPedidoFinalizado");
+    
+    /** Latência da finalização de cada lote de pedidos */
+    private static final Metricas.Histograma LATENCIA_LOTE = Metricas.histograma("App.finalizarPedidos");
+    
+    /** Pedidos finalizados, um a um ou em lotes */
+    private static final Metricas.Contador PEDIDOS_FINALIZADOS = Metricas.contador("App.pedidosFinalizados");
+    
+    /**
+     * Pedidos armazenados na pilha e na fila de pedidos do sistema (finalizados ou recuperados do diário).
+     * Contados aqui, e não nas classes de fila e pilha, para não somar as estruturas temporárias (filtros, cópias).
+     */
+    private static final Metricas.Contador PEDIDOS_REGISTRADOS = Metricas.contador("App.pedidosRegistrados");
+        
+    static void limparTela() {
+        System.out.print("\033[H\033[2J");
+        System.out.flush();
+    }
+
+    /** Gera um efeito de pausa na CLI. Espera por um enter para continuar */
+    static void pausa() {
+        System.out.println("Digite enter para continuar...");
+        teclado.nextLine();
+    }
+
+    /** Cabeçalho principal da CLI do sistema */
+    static void cabecalho() {
+        System.out.println("AEDs II COMÉRCIO DE COISINHAS");
+        System.out.println("=============================");
+    }
+   
+    static <T extends Number> T lerOpcao(String mensagem, Class<T> classe) {
+        
+    	T valor;
+        
+    	System.out.println(mensagem);
+    	try {
+            valor = classe.getConstructor(String.class).newInstance(teclado.nextLine());
+        } catch (InstantiationException | IllegalAccessException | IllegalArgumentException 
+        		| InvocationTargetException | NoSuchMethodException | SecurityException e) {
+            return null;
+        }
+        return valor;
+    }
+    
+    /** Imprime o menu principal, lê a opção do usuário e a retorna (int).
+     * @return Um inteiro com a opção do usuário.
+     */
+    static int menu() {
+        cabecalho();
+        System.out.println("1 - Listar todos os produtos");
+        System.out.println("2 - Procurar por um produto, por código");
+        System.out.println("3 - Procurar por um produto, por nome");
+        System.out.println("4 - Iniciar novo pedido");
+        System.out.println("5 - Fechar pedido");
+        System.out.println("6 - Listar produtos dos pedidos mais recentes");
+        System.out.println("7 - Exibir valor total médio dos N primeiros pedidos");
+        System.out.println("8 - Exibir primeiros pedidos com valor total acima de X");
+        System.out.println("9 - Exibir primeiros pedidos que contêm um produto");
+        System.out.println("10 - Buscar produtos por termos da descrição");
+        System.out.println("11 - Exibir os pedidos de maior valor");
+        System.out.println("0 - Sair");
+        System.out.print("Digite sua opção: ");
+        return Integer.parseInt(teclado.nextLine());
+    }
+    
+    /**
+     * Lê os dados de um arquivo-texto e retorna um vetor de produtos. Arquivo-texto no formato
+     * N  (quantidade de produtos) <br/>
+     * tipo;descrição;preçoDeCusto;margemDeLucro;[dataDeValidade] <br/>
+     * Deve haver uma linha para cada um dos produtos. Retorna um vetor vazio em caso de problemas com o arquivo.
+     * @param nomeArquivoDados Nome do arquivo de dados a ser aberto.
+     * @return Um vetor com os produtos carregados, ou vazio em caso de problemas de leitura.
+     */
+    static Produto[] lerProdutos(String nomeArquivoDados) {
+    	
+    	Scanner arquivo = null;
+    	int numProdutos;
+    	String linha;
+    	Produto produto;
+    	Produto[] produtosCadastrados;
+    	
+    	try {
+    		arquivo = new Scanner(new File(nomeArquivoDados), Charset.forName("UTF-8"));
+    		
+    		numProdutos = Integer.parseInt(arquivo.nextLine());
+    		produtosCadastrados = new Produto[numProdutos];
+    		
+    		for (int i = 0; i < numProdutos; i++) {
+    			linha = arquivo.nextLine();
+    			produto = Produto.criarDoTexto(linha);
+    			produtosCadastrados[i] = produto;
+    		}
+    		quantosProdutos = numProdutos;
+    		
+    	} catch (IOException excecaoArquivo) {
+    		produtosCadastrados = null;
+    	} finally {
+    		arquivo.close();
+    	}
+    	
+    	return produtosCadastrados;
+    }
+    
+    /**
+     * Carrega os produtos com o carregador paralelo sobre o arquivo mapeado em memória (CarregadorProdutos).
+     * Produz o mesmo vetor que {@link #lerProdutos(String)}, com os mesmos identificadores na ordem do arquivo.
+     * @param nomeArquivoDados Nome do arquivo de dados a ser aberto.
+     * @return Um vetor com os produtos carregados, ou null em caso de problemas de leitura.
+     */
+    static Produto[] lerProdutosMapeado(String nomeArquivoDados) {
+    	
+    	Produto[] produtosCadastrados;
+    	
+    	try {
+    		produtosCadastrados = new CarregadorProdutos().carregar(nomeArquivoDados);
+    		quantosProdutos = produtosCadastrados.length;
+    	} catch (IOException excecaoArquivo) {
+    		produtosCadastrados = null;
+    	}
+    	
+    	return produtosCadastrados;
+    }
+    
+    /**
+     * Reinício rápido: carrega os produtos do snapshot binário (nomeArquivoDados + ".snap"), se ele existir e
+     * for mais recente que o arquivo-texto. Caso contrário, lê o arquivo-texto e grava um novo snapshot.
+     * @param nomeArquivoDados Nome do arquivo-texto de dados.
+     * @return Um vetor com os produtos carregados, ou null em caso de problemas de leitura.
+     */
+    static Produto[] lerProdutosSnapshot(String nomeArquivoDados) {
+    	
+    	File texto = new File(nomeArquivoDados);
+    	File snapshot = new File(nomeArquivoDados + ".snap");
+    	Produto[] produtosCadastrados;
+    	
+    	if (snapshot.exists() && snapshot.lastModified() >= texto.lastModified()) {
+    		try {
+    			produtosCadastrados = SnapshotCatalogo.ler(snapshot.getPath());
+    			quantosProdutos = produtosCadastrados.length;
+    			return produtosCadastrados;
+    		} catch (IOException excecaoArquivo) {
+    			// snapshot inválido ou de outra versão: recria a partir do texto
+    		}
+    	}
+    	
+    	produtosCadastrados = lerProdutosMapeado(nomeArquivoDados);
+    	if (produtosCadastrados != null) {
+    		try {
+    			SnapshotCatalogo.gravar(produtosCadastrados, quantosProdutos, snapshot.getPath());
+    		} catch (IOException excecaoArquivo) {
+    			System.out.println("Não foi possível gravar o snapshot do catálogo.");
+    		}
+    	}
+    	
+    	return produtosCadastrados;
+    }
+    
+    /**
+     * Carrega os produtos conforme o modo escolhido na propriedade de sistema "carregamento":
+     * "texto" (padrão, Scanner linha a linha), "mapeado" (carga paralela sobre o arquivo mapeado)
+     * ou "snapshot" (snapshot binário do catálogo, recriado a partir do texto quando necessário).
+     * @param nomeArquivoDados Nome do arquivo de dados a ser aberto.
+     * @return Um vetor com os produtos carregados, ou null em caso de problemas de leitura.
+     */
+    static Produto[] carregarProdutos(String nomeArquivoDados) {
+    	
+    	String modo = System.getProperty("carregamento", "texto");
+    	
+    	return switch (modo) {
+    		case "mapeado" -> lerProdutosMapeado(nomeArquivoDados);
+    		case "snapshot" -> lerProdutosSnapshot(nomeArquivoDados);
+    		default -> lerProdutos(nomeArquivoDados);
+    	};
+    }
+    
+    /**
+     * Recupera os pedidos finalizados gravados no diário, reconstruindo a pilha, a fila e os índices de pedidos,
+     * e abre o diário para os próximos pedidos.
+     * Propriedades de sistema: "diario" (nome do arquivo, padrão "pedidos.wal"; vazio desativa o diário),
+     * "diario.lote" (bytes que disparam a gravação do lote, padrão 65536) e
+     * "diario.latencia" (espera máxima, em microssegundos, para juntar mais pedidos ao lote; padrão 0: o lote
+     * grava assim que a gravação anterior termina, com os pedidos que chegaram durante ela).
+     * O diário só é recuperado e reaberto com o mesmo catálogo com que foi gravado (ver
+     * {@link DiarioPedidos#impressaoDigital}); caso contrário, nenhum pedido é recuperado, o arquivo é mantido
+     * como está e o sistema segue sem diário, com o aviso do motivo.
+     */
+    static void abrirDiarioPedidos() {
+    	
+    	String nomeDiario = System.getProperty("diario", "pedidos.wal");
+    	if (nomeDiario.isEmpty()) {
+    		return;
+    	}
+    	int tamanhoLote = Integer.getInteger("diario.lote", 1 << 16);
+    	long latencia = Long.getLong("diario.latencia", 0L);
+    	long impressaoCatalogo = DiarioPedidos.impressaoDigital(produtosCadastrados, quantosProdutos);
+    	
+    	try {
+    		List<Pedido> recuperados = new ArrayList<>();
+    		DiarioPedidos.recuperar(nomeDiario, impressaoCatalogo, catalogo::localizar, recuperados::add);
+    		registrarPedidosFinalizados(recuperados);
+    		if (!recuperados.isEmpty()) {
+    			System.out.println(String.format("%d pedido(s) recuperado(s) do diário.", recuperados.size()));
+    		}
+    		diarioPedidos = new DiarioPedidos(nomeDiario, tamanhoLote, latencia, impressaoCatalogo);
+    	} catch (IOException excecaoArquivo) {
+    		System.out.println("Não foi possível abrir o diário de pedidos: " + excecaoArquivo.getMessage());
+    		System.out.println("ATENÇÃO: os pedidos finalizados nesta execução não serão gravados no diário.");
+    		diarioPedidos = null;
+    	}
+    }
+    
+    /** Grava os pedidos pendentes e fecha o diário */
+    static void fecharDiarioPedidos() {
+    	
+    	if (diarioPedidos == null) {
+    		return;
+    	}
+    	try {
+    		diarioPedidos.close();
+    	} catch (IOException excecaoArquivo) {
+    		System.out.println("Não foi possível gravar o diário de pedidos: " + excecaoArquivo.getMessage());
+    	}
+    	diarioPedidos = null;
+    }
+    
+    /** Localiza um produto no catálogo, a partir do código de produto informado pelo usuário, e o retorna. 
+     *  A busca usa o índice por código do catálogo (O(1)). Em caso de não encontrar o produto, retorna null 
+     */
+    static Produto localizarProduto() {
+        
+    	cabecalho();
+    	System.out.println("Localizando um produto...");
+        int idProduto = lerOpcao("Digite o código identificador do produto desejado: ", Integer.class);
+        
+        return catalogo.localizar(idProduto);
+    }
+    
+    /** Localiza um produto no catálogo, a partir do nome de produto informado pelo usuário, e o retorna. 
+     *  A busca usa o índice por descrição normalizada (O(1)) e não é sensível ao caso. Em caso de não encontrar o produto, retorna null
+     *  @return O produto encontrado ou null, caso o produto não tenha sido localizado no catálogo.
+     */
+    static Produto localizarProdutoDescricao() {
+        
+    	String descricao;
+    	
+    	cabecalho();
+    	System.out.println("Localizando um produto...");
+    	System.out.println("Digite o nome ou a descrição do produto desejado:");
+        descricao = teclado.nextLine();
+        
+        return catalogo.localizarDescricao(descricao);
+    }
+    
+    /**
+     * Busca produtos por termos (ou início de termos) da descrição, informados pelo usuário, e lista os encontrados.
+     * A busca usa o índice textual do catálogo e não é sensível ao caso nem a acentos.
+     */
+    static void buscarProdutosPorTermos() {
+    	
+    	cabecalho();
+    	System.out.println("Digite os termos a procurar (ex.: fita branco):");
+    	String consulta = teclado.nextLine();
+    	Produto[] encontrados = catalogo.buscar(consulta);
+    	
+    	System.out.println(String.format("\n%d produto(s) encontrado(s):", encontrados.length));
+    	try {
+    		for (Produto produto : encontrados) {
+    			tela.inteiro(produto.idProduto).texto(" - ").produto(produto).linha();
+    		}
+    	} finally {
+    		tela.descarregar();
+    	}
+    }
+    
+    private static void mostrarProduto(Produto produto) {
+    	
+        cabecalho();
+        String mensagem = "Dados inválidos para o produto!";
+        
+        if (produto != null){
+            mensagem = String.format("Dados do produto:\n%s", produto);
+        }
+        
+        System.out.println(mensagem);
+    }
+    
+    /** Lista todos os produtos cadastrados, numerados, um por linha, pelo renderizador (saída em blocos) */
+    static void listarTodosOsProdutos() {
+    	
+        cabecalho();
+        System.out.println("\nPRODUTOS CADASTRADOS:");
+        try {
+        	for (int i = 0; i < quantosProdutos; i++) {
+        		tela.numero2(i + 1).texto(" - ").produto(produtosCadastrados[i]).linha();
+        	}
+        } finally {
+        	tela.descarregar();
+        }
+    }
+    
+    /** 
+     * Inicia um novo pedido.
+     * Permite ao usuário escolher e incluir produtos no pedido.
+     * @return O novo pedido
+     */
+    public static Pedido iniciarPedido() {
+    	
+    	int formaPagamento = lerOpcao("Digite a forma de pagamento do pedido, sendo 1 para pagamento à vista e 2 para pagamento a prazo", Integer.class);
+    	Pedido pedido = new Pedido(LocalDate.now(), formaPagamento);
+    	Produto produto;
+    	int numProdutos;
+    	
+    	listarTodosOsProdutos();
+    	System.out.println("Incluindo produtos no pedido...");
+    	numProdutos = lerOpcao("Quantos produtos serão incluídos no pedido?", Integer.class);
+        for (int i = 0; i < numProdutos; i++) {
+        	produto = localizarProdutoDescricao();
+        	if (produto == null) {
+        		System.out.println("Produto não encontrado");
+        		i--;
+        	} else {
+        		pedido.incluirProduto(produto);
+        	}
+        }
+    	
+    	return pedido;
+    }
+    
+    /**
+     * Armazena o pedido finalizado na pilha (recentes), na fila (ordem) e nos índices de pedidos por produto e por valor.
+     * A fila e os índices são atualizados sob o mesmo bloqueio, para que a posição do pedido nos índices
+     * seja a mesma posição dele na fila, mesmo com finalizações simultâneas.
+     * O valor final do pedido é congelado antes de entrar nas estruturas, para que a fila (somas de prefixo),
+     * o índice por valor e o toString usem o mesmo valor, mesmo depois da virada do dia.
+     */
+    static void registrarPedidoFinalizado(Pedido pedido) {
+    	
+    	long centavos = pedido.congelarValorFinal();
+    	// Empilha o pedido finalizado na pilha de pedidos recentes
+    	pilhaPedidos.empilhar(pedido);
+    	synchronized (filaPedidos) {
+    		// Enfileira o pedido finalizado para consultas em ordem de chegada
+    		filaPedidos.inserir(pedido);
+    		int posicao = pedidosPorProduto.registrar(pedido);
+    		pedidosPorValor.registrar(pedido, centavos, posicao);
+    	}
+    	PEDIDOS_REGISTRADOS.incrementar();
+    }
+    
+    /**
+     * Armazena um lote de pedidos finalizados na pilha, na fila e nos índices de pedidos, como
+     * {@link #registrarPedidoFinalizado(Pedido)} faria para cada um, mas com uma única operação por estrutura:
+     * o lote é encadeado de uma vez na pilha e na fila, e os índices reservam as posições do lote de uma só vez.
+     * @param lote Pedidos finalizados, na ordem de finalização.
+     */
+    static void registrarPedidosFinalizados(List<Pedido> lote) {
+    	
+    	if (lote.isEmpty()) {
+    		return;
+    	}
+    	long[] centavos = new long[lote.size()];
+    	for (int i = 0; i < centavos.length; i++) {
+    		centavos[i] = lote.get(i).congelarValorFinal();
+    	}
+    	pilhaPedidos.empilharTodos(lote);
+    	synchronized (filaPedidos) {
+    		filaPedidos.inserirTodos(lote);
+    		int primeiraPosicao = pedidosPorProduto.registrarTodos(lote);
+    		pedidosPorValor.registrarTodos(lote, centavos, primeiraPosicao);
+    	}
+    	PEDIDOS_REGISTRADOS.somar(lote.size());
+    }
+    
+    /**
+     * Finaliza um lote de pedidos (ex.: recebidos de outros pontos de venda) e, com as métricas ativadas,
+     * informa a vazão do lote.
+     * O lote é anexado ao diário de uma vez e confirmado após uma única espera pela gravação.
+     * Como em {@link #armazenarPedidoFinalizado(Pedido)}, se a gravação falhar os pedidos do lote continuam
+     * em memória, mas não são duráveis, e a mensagem exibida informa isso.
+     * @param pedidos Pedidos a finalizar, na ordem de finalização.
+     * @return Quantidade de pedidos finalizados e gravados (0 se o lote não puder ser gravado).
+     */
+    public static int finalizarPedidos(Collection<Pedido> pedidos) {
+    	
+    	List<Pedido> lote = new ArrayList<>(pedidos);
+    	if (lote.isEmpty()) {
+    		System.out.println("Não há pedidos para finalizar.");
+    		return 0;
+    	}
+    	if (lote.contains(null)) {
+    		throw new IllegalArgumentException("O lote não pode conter pedidos nulos.");
+    	}
+    	
+    	long inicio = Metricas.inicio();
+    	try {
+    		long sequencia = 0;
+    		synchronized (filaPedidos) {
+    			if (diarioPedidos != null) {
+    				sequencia = diarioPedidos.anexarTodos(lote);
+    			}
+    			registrarPedidosFinalizados(lote);
+    		}
+    		if (diarioPedidos != null) {
+    			try {
+    				diarioPedidos.aguardarGravacao(sequencia);
+    			} catch (IOException excecaoArquivo) {
+    				throw naoDuravel("o lote de " + lote.size() + " pedido(s) foi mantido", excecaoArquivo);
+    			}
+    		}
+    	} catch (IOException excecaoArquivo) {
+    		System.out.println("Não foi possível gravar o lote no diário: " + excecaoArquivo.getMessage());
+    		return 0;
+    	}
+    	PEDIDOS_FINALIZADOS.somar(lote.size());
+    	
+    	if (Metricas.ATIVAS) {
+    		long nanos = Math.max(System.nanoTime() - inicio, 1);
+    		LATENCIA_LOTE.registrar(nanos);
+    		System.out.println(String.format("Lote de %d pedido(s) finalizado em %.3f ms (%.0f pedidos/s).",
+    				lote.size(), nanos / 1e6, lote.size() * 1e9 / nanos));
+    	} else {
+    		System.out.println(String.format("Lote de %d pedido(s) finalizado.", lote.size()));
+    	}
+    	return lote.size();
+    }
+    
+    /**
+     * Anexa o pedido ao diário e o armazena na pilha, na fila e nos índices, na mesma ordem em que entra na fila.
+     * Retorna depois que o lote do diário que contém o pedido é gravado no disco.
+     * O pedido entra nas estruturas antes da gravação do lote (para manter a ordem do diário igual à da fila);
+     * se a gravação falhar, ele continua nelas, visível às consultas, mas não é durável: não será recuperado
+     * ao reiniciar, e a exceção informa isso. Se o diário já estava com erro, o pedido não é armazenado.
+     * @throws PedidoNaoDuravelException se o pedido foi armazenado, mas a gravação do lote falhou.
+     * @throws IOException se o diário estava com erro e o pedido não foi armazenado.
+     */
+    static void armazenarPedidoFinalizado(Pedido pedido) throws IOException {
+    	
+    	long inicio = Metricas.inicio();
+    	long sequencia = 0;
+    	synchronized (filaPedidos) {
+    		if (diarioPedidos != null) {
+    			sequencia = diarioPedidos.anexar(pedido);
+    		}
+    		registrarPedidoFinalizado(pedido);
+    	}
+    	if (diarioPedidos != null) {
+    		try {
+    			diarioPedidos.aguardarGravacao(sequencia);
+    		} catch (IOException excecaoArquivo) {
+    			throw naoDuravel("o pedido " + pedido.getIdPedido() + " foi mantido", excecaoArquivo);
+    		}
+    	}
+    	LATENCIA_ARMAZENAR.registrarDesde(inicio);
+    	PEDIDOS_FINALIZADOS.incrementar();
+    }
+    
+    /** Falha de gravação de pedidos que já estão na pilha, na fila e nos índices, mas não no disco */
+    private static PedidoNaoDuravelException naoDuravel(String quais, IOException causa) {
+    	return new PedidoNaoDuravelException(quais + " em memória (pilha, fila e índices), mas não está no disco e será perdido "
+    			+ "ao reiniciar (" + causa.getMessage() + ")", causa);
+    }
+    
+    /**
+     * Tarefa 1 (Pilha/Fila): Ao finalizar, armazena em pilha (recentes) e fila (ordem).
+     * A finalização só é confirmada depois que o pedido é gravado no diário.
+     */
+    public static void finalizarPedido(Pedido pedido) {
+    	
+    	if (pedido == null) {
+    		System.out.println("Não há pedido em aberto para finalizar.");
+    		return;
+    	}
+    	
+    	try {
+    		armazenarPedidoFinalizado(pedido);
+    	} catch (IOException excecaoArquivo) {
+    		System.out.println("Não foi possível gravar o pedido no diário: " + excecaoArquivo.getMessage());
+    		return;
+    	}
+    	System.out.println("Pedido finalizado e armazenado com sucesso.\n");
+    	System.out.println(pedido.toString());
+    }
+    
+    /**
+     * Tarefa 3 (Pilha): Lista produtos dos pedidos mais recentes sem alterar a pilha original.
+     */
+    public static void listarProdutosPedidosRecentes() {
+    	
+    	if (pilhaPedidos.vazia()) {
+    		cabecalho();
+    		System.out.println("Não há pedidos finalizados.");
+    		return;
+    	}
+    	
+    	Integer quantos = lerOpcao("Quantos pedidos recentes deseja listar?", Integer.class);
+    	if (quantos == null || quantos <= 0) {
+    		System.out.println("Quantidade inválida.");
+    		return;
+    	}
+    	
+    	cabecalho();
+    	System.out.println("Produtos dos pedidos mais recentes:\n");
+    	
+    	// Percorre os 'quantos' pedidos do topo (ou todos, se houver menos) sem copiar nem alterar a pilha
+    	try {
+    		for (Pedido p : pilhaPedidos.visao().limitar(quantos)) {
+    			tela.texto("Pedido ").numero2(p.getIdPedido()).texto(" de ").linha(p.getDataPedido().toString());
+    			Produto[] prods = p.getProdutos();
+    			for (int i = 0; i < p.getQuantosProdutos(); i++) {
+    				tela.produto(prods[i]).linha();
+    			}
+    			tela.linha();
+    		}
+    	} finally {
+    		tela.descarregar();
+    	}
+    }
+
+	/**
+	 * Tarefa 2 (Fila): Calcula e exibe a média do valor total de N primeiros pedidos.
+	 */
+	public static void exibirValorMedioPrimeirosPedidos() {
+		if (filaPedidos.vazia()) {
+			cabecalho();
+			System.out.println("Não há pedidos finalizados.");
+			return;
+		}
+		Integer n = lerOpcao("Calcular média dos primeiros quantos pedidos?", Integer.class);
+		if (n == null || n <= 0) {
+			System.out.println("Quantidade inválida.");
+			return;
+		}
+		double media = filaPedidos.calcularValorMedio(VALOR_FINAL, n);
+		cabecalho();
+		System.out.println(String.format("Valor total médio dos %d primeiros pedidos: R$ %.2f", n, media));
+	}
+
+	/**
+	 * Menor valor em centavos cujo valor em reais (centavos / 100.0) é maior que o limite,
+	 * ou seja, o mesmo critério de p.valorFinal() > limite.
+	 * Retorna Long.MAX_VALUE (nenhum pedido) se o limite não for um número ou não couber em centavos (long).
+	 */
+	static long menorCentavosAcimaDe(double limite) {
+		if (Double.isNaN(limite) || Double.isInfinite(limite) || limite * 100 >= Long.MAX_VALUE) {
+			return Long.MAX_VALUE;
+		}
+		if (limite < 0) {
+			return 0;
+		}
+		long centavos = (long) Math.floor(limite * 100);
+		while (centavos > 0 && (centavos - 1) / 100.0 > limite) {
+			centavos--;
+		}
+		while (centavos < Long.MAX_VALUE && centavos / 100.0 <= limite) {
+			centavos++;
+		}
+		return centavos;
+	}
+
+	/**
+	 * Tarefa 3 (Fila): Exibe, dentre os N primeiros pedidos, os que têm valor total acima de um limite.
+	 * Consulta o índice de pedidos por valor em vez de filtrar a fila.
+	 */
+	public static void exibirPedidosAcimaDeValor() {
+		if (filaPedidos.vazia()) {
+			cabecalho();
+			System.out.println("Não há pedidos finalizados.");
+			return;
+		}
+		Integer n = lerOpcao("Considerar os primeiros quantos pedidos?", Integer.class);
+		if (n == null || n <= 0) {
+			System.out.println("Quantidade inválida.");
+			return;
+		}
+		System.out.println("Informe o valor mínimo (use ponto ou vírgula):");
+		String linha = teclado.nextLine().replace(",", ".");
+		double limite;
+		try {
+			limite = Double.parseDouble(linha);
+		} catch (NumberFormatException e) {
+			System.out.println("Valor inválido.");
+			return;
+		}
+		List<Pedido> filtrados = pedidosPorValor.pedidosAPartirDe(menorCentavosAcimaDe(limite), n);
+		cabecalho();
+		System.out.println(String.format("Pedidos com valor acima de R$ %.2f (dentre os %d primeiros):\n", limite, n));
+		int count = 0;
+		try {
+			for (Pedido p : filtrados) {
+				tela.pedido(p).linha().linha();
+				count++;
+			}
+		} finally {
+			tela.descarregar();
+		}
+		if (count == 0) {
+			System.out.println("Nenhum pedido encontrado.");
+		}
+	}
+
+	/**
+	 * Tarefa 3 (Fila): Exibe, dentre os N primeiros pedidos, os que contêm um produto informado.
+	 * Consulta o índice reverso produto -> pedidos em vez de filtrar a fila.
+	 */
+	public static void exibirPedidosComProduto() {
+		if (filaPedidos.vazia()) {
+			cabecalho();
+			System.out.println("Não há pedidos finalizados.");
+			return;
+		}
+		Integer n = lerOpcao("Considerar os primeiros quantos pedidos?", Integer.class);
+		if (n == null || n <= 0) {
+			System.out.println("Quantidade inválida.");
+			return;
+		}
+		System.out.println("Digite o nome/descrição do produto a procurar:");
+		String alvo = teclado.nextLine();
+		// Lê, no índice reverso, só as postagens dos produtos com essa descrição
+		int[] idsProdutos = catalogo.localizarCodigosDescricao(alvo);
+		List<Pedido> filtrados = pedidosPorProduto.pedidosCom(idsProdutos, n);
+		cabecalho();
+		System.out.println(String.format("Pedidos que contêm o produto '%s' (dentre os %d primeiros):\n", alvo, n));
+		int count = 0;
+		try {
+			for (Pedido p : filtrados) {
+				tela.pedido(p).linha().linha();
+				count++;
+			}
+		} finally {
+			tela.descarregar();
+		}
+		if (count == 0) {
+			System.out.println("Nenhum pedido encontrado.");
+		}
+	}
+
+	/**
+	 * Exibe os K pedidos finalizados de maior valor total, do maior para o menor, pelo índice de pedidos por valor.
+	 */
+	public static void exibirPedidosDeMaiorValor() {
+		if (filaPedidos.vazia()) {
+			cabecalho();
+			System.out.println("Não há pedidos finalizados.");
+			return;
+		}
+		Integer k = lerOpcao("Exibir quantos pedidos de maior valor?", Integer.class);
+		if (k == null || k <= 0) {
+			System.out.println("Quantidade inválida.");
+			return;
+		}
+		cabecalho();
+		System.out.println(String.format("Os %d pedidos de maior valor:\n", k));
+		try {
+			for (Pedido p : pedidosPorValor.maioresValores(k)) {
+				tela.pedido(p).linha().linha();
+			}
+		} finally {
+			tela.descarregar();
+		}
+	}
+    
+	/**
+	 * Sem argumentos, executa o menu interativo.
+	 * Com "--comandos [arquivo]", executa os comandos do arquivo (ou da entrada padrão, se omitido ou "-")
+	 * sem interação; ver {@link ModoComandos}.
+	 * Com "--carga [sessões...]", mede a vazão e a latência do {@link ServicoPedidos} com as quantidades
+	 * de sessões simultâneas informadas (padrão: 1, 10, 100 e 1000); ver {@link GeradorCarga}.
+	 */
+	public static void main(String[] args) {
+		
+		nomeArquivoDados = "produtos.txt";
+        produtosCadastrados = carregarProdutos(nomeArquivoDados);
+        catalogo = new Catalogo(produtosCadastrados, quantosProdutos);
+        RelogioPrecos.registrarCatalogo(produtosCadastrados, quantosProdutos);
+        RelogioPrecos.reprecificar(produtosCadastrados, quantosProdutos);
+        abrirDiarioPedidos();
+        Metricas.medidor("App.filaPedidos.tamanho", filaPedidos::tamanho);
+        Metricas.medidor("App.pilhaPedidos.tamanho", pilhaPedidos::tamanho);
+        Metricas.iniciarRelatorio();
+        
+        if (args.length > 0 && args[0].equals("--comandos")) {
+        	try {
+        		ModoComandos.executar(args.length > 1 ? args[1] : "-");
+        	} catch (IOException excecaoArquivo) {
+        		System.out.println("Não foi possível ler os comandos: " + excecaoArquivo.getMessage());
+        	}
+        	fecharDiarioPedidos();
+        	Metricas.encerrarRelatorio();
+        	return;
+        }
+        
+        if (args.length > 0 && args[0].equals("--carga")) {
+        	try {
+        		GeradorCarga.executar(GeradorCarga.etapas(args, 1));
+        	} catch (IllegalArgumentException | IllegalStateException excecao) {
+        		System.out.println("Não foi possível gerar a carga: " + excecao.getMessage());
+        	}
+        	fecharDiarioPedidos();
+        	Metricas.encerrarRelatorio();
+        	return;
+        }
+        
+		teclado = new Scanner(System.in, Charset.forName("UTF-8"));
+        
+        Pedido pedido = null;
+        
+        int opcao = -1;
+      
+        do{
+            opcao = menu();
+            switch (opcao) {
+                case 1 -> listarTodosOsProdutos();
+                case 2 -> mostrarProduto(localizarProduto());
+                case 3 -> mostrarProduto(localizarProdutoDescricao());
+                case 4 -> pedido = iniciarPedido();
+                case 5 -> finalizarPedido(pedido);
+                case 6 -> listarProdutosPedidosRecentes();
+                case 7 -> exibirValorMedioPrimeirosPedidos();
+                case 8 -> exibirPedidosAcimaDeValor();
+                case 9 -> exibirPedidosComProduto();
+                case 10 -> buscarProdutosPorTermos();
+                case 11 -> exibirPedidosDeMaiorValor();
+            }
+            pausa();
+        }while(opcao != 0);       
+
+        fecharDiarioPedidos();
+        Metricas.encerrarRelatorio();
+        teclado.close();    
+    }
+}
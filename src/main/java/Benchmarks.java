@@ -0,0 +1,353 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Casos de medição dos caminhos críticos (Fila, Pilha, Pedido e carga do catálogo), medidos pelo JMH no módulo
+ * benchmarks/ (./gradlew :benchmarks:jmh), que obtém cada caso por {@link #prepararCaso(String, String, int)}.
+ * Cada caso é preparado para um tamanho e devolve a operação a medir.
+ * Os dados de produtos vêm do produtos.txt real; para os tamanhos maiores que o arquivo, as linhas são repetidas.
+ */
+public class Benchmarks {
+
+	/** Operação medida; o valor devolvido é consumido para não ser eliminado pelo compilador */
+	interface Operacao {
+		long executar() throws Exception;
+	}
+
+	/** Caso de medição: prepara o estado para um tamanho e devolve a operação a medir */
+	interface Caso {
+		Operacao preparar(int tamanho) throws Exception;
+	}
+
+	private static final class Registro {
+		final String nome;
+		final Caso caso;
+
+		Registro(String nome, Caso caso) {
+			this.nome = nome;
+			this.caso = caso;
+		}
+	}
+
+	private final List<Registro> casos = new ArrayList<>();
+
+	/** Linhas de produtos do arquivo real (sem o cabeçalho) */
+	private final String[] linhas;
+	/** Produtos carregados do arquivo real */
+	private final Produto[] produtos;
+
+	Benchmarks(String arquivo) throws IOException {
+		List<String> todas = Files.readAllLines(Path.of(arquivo), StandardCharsets.UTF_8);
+		this.linhas = todas.subList(1, todas.size()).toArray(new String[0]);
+		this.produtos = App.lerProdutos(arquivo);
+		registrarCasos();
+	}
+
+	void registrar(String nome, Caso caso) {
+		casos.add(new Registro(nome, caso));
+	}
+
+	private void registrarCasos() {
+
+		registrarFila("Fila", Fila::new);
+		registrarFila("FilaCircular", FilaCircular::new);
+		registrarFila("FilaConcorrente", FilaConcorrente::new);
+		registrarFila("FilaAgregada", () -> new FilaAgregada<>(App.VALOR_FINAL));
+		Catalogo catalogo = new Catalogo(produtos, produtos.length);
+		registrarFila("HistoricoPedidos", () -> new HistoricoPedidos(catalogo::localizar));
+
+		registrarPilha("Pilha", Pilha::new);
+		registrarPilha("PilhaVetor", PilhaVetor::new);
+		registrarPilha("PilhaConcorrente", PilhaConcorrente::new);
+
+		registrar("FilaCircular<Integer>.inserir/remover", tamanho -> {
+			FilaCircular<Integer> fila = new FilaCircular<>();
+			return () -> {
+				for (int i = 0; i < tamanho; i++) {
+					fila.inserir(i);
+				}
+				long soma = 0;
+				while (!fila.vazia()) {
+					soma += fila.remover();
+				}
+				return soma;
+			};
+		});
+		registrar("FilaInt.inserir/remover", tamanho -> {
+			FilaInt fila = new FilaInt();
+			return () -> {
+				for (int i = 0; i < tamanho; i++) {
+					fila.inserir(i);
+				}
+				long soma = 0;
+				while (!fila.vazia()) {
+					soma += fila.remover();
+				}
+				return soma;
+			};
+		});
+		registrar("FilaDouble.calcularValorMedio", tamanho -> {
+			FilaDouble fila = new FilaDouble();
+			for (Pedido pedido : criarPedidos(tamanho)) {
+				fila.inserir(pedido.valorFinal());
+			}
+			return () -> (long) fila.calcularValorMedio(valor -> valor * 100.0, tamanho);
+		});
+		registrar("PilhaInt.empilhar/desempilhar", tamanho -> {
+			PilhaInt pilha = new PilhaInt();
+			return () -> {
+				for (int i = 0; i < tamanho; i++) {
+					pilha.empilhar(i);
+				}
+				long soma = 0;
+				while (!pilha.vazia()) {
+					soma += pilha.desempilhar();
+				}
+				return soma;
+			};
+		});
+
+		registrar("Pedido.valorFinal", tamanho -> {
+			Pedido[] pedidos = criarPedidos(tamanho);
+			return () -> {
+				long soma = 0;
+				for (Pedido pedido : pedidos) {
+					// descarta o valor memorizado, para medir o cálculo e não só a consulta à memória
+					pedido.descartarValorMemorizado();
+					soma += (long) (pedido.valorFinal() * 100);
+				}
+				return soma;
+			};
+		});
+		registrar("Pedido.valorFinal(memorizado)", tamanho -> {
+			Pedido[] pedidos = criarPedidos(tamanho);
+			return () -> {
+				long soma = 0;
+				for (Pedido pedido : pedidos) {
+					soma += (long) (pedido.valorFinal() * 100);
+				}
+				return soma;
+			};
+		});
+		registrar("Pedido.toString", tamanho -> {
+			Pedido[] pedidos = criarPedidos(Math.min(tamanho, 10_000));
+			return () -> {
+				long total = 0;
+				for (Pedido pedido : pedidos) {
+					total += pedido.toString().length();
+				}
+				return total;
+			};
+		});
+		registrar("Produto[].valorDeVenda", tamanho -> {
+			Produto[] carregados = App.lerProdutos(gerarArquivo(tamanho));
+			return () -> {
+				double soma = 0;
+				for (Produto produto : carregados) {
+					soma += produto.valorDeVenda();
+				}
+				return (long) soma;
+			};
+		});
+		registrar("CatalogoColunar.precificar", tamanho -> {
+			Produto[] carregados = App.lerProdutos(gerarArquivo(tamanho));
+			CatalogoColunar colunar = CatalogoColunar.de(carregados, carregados.length);
+			double[] valores = new double[colunar.tamanho()];
+			return () -> {
+				colunar.precificar(valores);
+				double soma = 0;
+				for (double valor : valores) {
+					soma += valor;
+				}
+				return (long) soma;
+			};
+		});
+		registrar("Produto.criarDoTexto", tamanho -> () -> {
+			long soma = 0;
+			for (int i = 0; i < tamanho; i++) {
+				soma += Produto.criarDoTexto(linhas[i % linhas.length]).descricao.length();
+			}
+			return soma;
+		});
+		registrar("App.lerProdutos", tamanho -> {
+			String arquivo = gerarArquivo(tamanho);
+			return () -> App.lerProdutos(arquivo).length;
+		});
+		registrar("App.lerProdutosMapeado", tamanho -> {
+			String arquivo = gerarArquivo(tamanho);
+			return () -> App.lerProdutosMapeado(arquivo).length;
+		});
+		registrar("SnapshotCatalogo.ler", tamanho -> {
+			String arquivo = gerarArquivo(tamanho);
+			Produto[] carregados = App.lerProdutosMapeado(arquivo);
+			String snapshot = arquivo + ".snap";
+			SnapshotCatalogo.gravar(carregados, carregados.length, snapshot);
+			return () -> SnapshotCatalogo.ler(snapshot).length;
+		});
+	}
+
+	private void registrarFila(String nome, Supplier<IFila<Pedido>> fabrica) {
+
+		registrar(nome + ".inserir/remover", tamanho -> {
+			Pedido[] pedidos = criarPedidos(tamanho);
+			IFila<Pedido> fila = fabrica.get();
+			return () -> {
+				for (Pedido pedido : pedidos) {
+					fila.inserir(pedido);
+				}
+				long soma = 0;
+				while (!fila.vazia()) {
+					soma += fila.remover().getIdPedido();
+				}
+				return soma;
+			};
+		});
+		registrar(nome + ".inserirTodos/remover", tamanho -> {
+			List<Pedido> lote = Arrays.asList(criarPedidos(tamanho));
+			IFila<Pedido> fila = fabrica.get();
+			return () -> {
+				fila.inserirTodos(lote);
+				long soma = 0;
+				while (!fila.vazia()) {
+					soma += fila.remover().getIdPedido();
+				}
+				return soma;
+			};
+		});
+		registrar(nome + ".calcularValorMedio", tamanho -> {
+			IFila<Pedido> fila = preencher(fabrica.get(), criarPedidos(tamanho));
+			return () -> (long) fila.calcularValorMedio(App.VALOR_FINAL, tamanho);
+		});
+		registrar(nome + ".filtrar", tamanho -> {
+			IFila<Pedido> fila = preencher(fabrica.get(), criarPedidos(tamanho));
+			return () -> fila.filtrar(p -> p.valorFinal() > 50.0, tamanho).vazia() ? 0 : 1;
+		});
+		registrar(nome + ".calcularValorMedioParalelo", tamanho -> {
+			IFila<Pedido> fila = preencher(fabrica.get(), criarPedidos(tamanho));
+			return () -> (long) fila.calcularValorMedioParalelo(App.VALOR_FINAL, tamanho);
+		});
+		registrar(nome + ".filtrarParalelo", tamanho -> {
+			IFila<Pedido> fila = preencher(fabrica.get(), criarPedidos(tamanho));
+			return () -> fila.filtrarParalelo(p -> p.valorFinal() > 50.0, tamanho).vazia() ? 0 : 1;
+		});
+	}
+
+	private void registrarPilha(String nome, Supplier<IPilha<Pedido>> fabrica) {
+
+		registrar(nome + ".empilhar/desempilhar", tamanho -> {
+			Pedido[] pedidos = criarPedidos(tamanho);
+			IPilha<Pedido> pilha = fabrica.get();
+			return () -> {
+				for (Pedido pedido : pedidos) {
+					pilha.empilhar(pedido);
+				}
+				long soma = 0;
+				while (!pilha.vazia()) {
+					soma += pilha.desempilhar().getIdPedido();
+				}
+				return soma;
+			};
+		});
+		registrar(nome + ".empilharTodos/desempilhar", tamanho -> {
+			List<Pedido> lote = Arrays.asList(criarPedidos(tamanho));
+			IPilha<Pedido> pilha = fabrica.get();
+			return () -> {
+				pilha.empilharTodos(lote);
+				long soma = 0;
+				while (!pilha.vazia()) {
+					soma += pilha.desempilhar().getIdPedido();
+				}
+				return soma;
+			};
+		});
+		registrar(nome + ".subPilha", tamanho -> {
+			IPilha<Pedido> pilha = fabrica.get();
+			for (Pedido pedido : criarPedidos(tamanho)) {
+				pilha.empilhar(pedido);
+			}
+			return () -> pilha.subPilha(tamanho / 2).consultarTopo().getIdPedido();
+		});
+	}
+
+	private static IFila<Pedido> preencher(IFila<Pedido> fila, Pedido[] pedidos) {
+		for (Pedido pedido : pedidos) {
+			fila.inserir(pedido);
+		}
+		return fila;
+	}
+
+	/** Cria pedidos com 1 a 10 produtos reais, alternando as formas de pagamento */
+	Pedido[] criarPedidos(int quantos) {
+		Pedido[] pedidos = new Pedido[quantos];
+		LocalDate hoje = LocalDate.now();
+		int proximo = 0;
+		for (int i = 0; i < quantos; i++) {
+			pedidos[i] = new Pedido(hoje, 1 + (i % 2));
+			int itens = 1 + (i % 10);
+			for (int j = 0; j < itens; j++) {
+				pedidos[i].incluirProduto(produtos[proximo]);
+				proximo = (proximo + 7) % produtos.length;
+			}
+		}
+		return pedidos;
+	}
+
+	/** Gera um arquivo de produtos com 'quantos' linhas, repetindo as linhas do arquivo real */
+	String gerarArquivo(int quantos) throws IOException {
+		Path arquivo = Files.createTempFile("produtos-" + quantos + "-", ".txt");
+		arquivo.toFile().deleteOnExit();
+		Path.of(arquivo + ".snap").toFile().deleteOnExit();
+		StringBuilder conteudo = new StringBuilder(quantos * 40);
+		conteudo.append(quantos).append('\n');
+		for (int i = 0; i < quantos; i++) {
+			conteudo.append(linhas[i % linhas.length]).append('\n');
+		}
+		Files.writeString(arquivo, conteudo, StandardCharsets.UTF_8);
+		return arquivo.toString();
+	}
+
+	/**
+	 * Memória do catálogo colunar comparada à do vetor de produtos, para um catálogo de 'tamanho' produtos
+	 * (não é uma medição de tempo; exibida pelo medicoes.MemoriaCatalogo do módulo JMH).
+	 */
+	public static String relatorioMemoria(String arquivo, int tamanho) throws IOException {
+		Produto[] carregados = App.lerProdutos(new Benchmarks(arquivo).gerarArquivo(tamanho));
+		CatalogoColunar colunar = CatalogoColunar.de(carregados, carregados.length);
+		return colunar.relatorioMemoria(carregados, carregados.length);
+	}
+
+	/**
+	 * Prepara o caso com o nome informado e devolve a operação, que executa o caso uma vez a cada chamada.
+	 * Usado pelo módulo JMH (benchmarks/), que mede os mesmos casos: como as classes do projeto estão no pacote
+	 * padrão, que não pode ser importado de outros pacotes, o JMH obtém o caso por reflexão, como LongSupplier.
+	 * @throws IllegalArgumentException se não houver caso com esse nome (a mensagem lista os casos existentes).
+	 */
+	public static LongSupplier prepararCaso(String arquivo, String nome, int tamanho) throws Exception {
+		Benchmarks benchmarks = new Benchmarks(arquivo);
+		List<String> nomes = new ArrayList<>();
+		for (Registro registro : benchmarks.casos) {
+			nomes.add(registro.nome);
+			if (registro.nome.equals(nome)) {
+				Operacao operacao = registro.caso.preparar(tamanho);
+				return () -> {
+					try {
+						return operacao.executar();
+					} catch (RuntimeException e) {
+						throw e;
+					} catch (Exception e) {
+						throw new IllegalStateException(e);
+					}
+				};
+			}
+		}
+		throw new IllegalArgumentException("Caso desconhecido: " + nome + ". Casos: " + String.join(", ", nomes));
+	}
+}
@@ -0,0 +1,418 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Carregador paralelo do arquivo de produtos, no mesmo formato lido por App.lerProdutos:
+ * N  (quantidade de produtos) <br/>
+ * tipo;descrição;preçoDeCusto;margemDeLucro;[dataDeValidade] <br/>
+ * O arquivo é mapeado em memória (FileChannel.map) e dividido em blocos alinhados em fim de linha.
+ * Uma primeira passada paralela conta as linhas de cada bloco, para que cada bloco saiba a posição
+ * da sua primeira linha no vetor final; a segunda passada interpreta os blocos em paralelo, com um
+ * tokenizador sobre bytes (sem split, replace ou DateTimeFormatter por linha).
+ * O vetor resultante tem os produtos na ordem do arquivo, com identificadores sequenciais nessa mesma ordem.
+ */
+public class CarregadorProdutos {
+
+	/** Limites do tamanho de cada bloco interpretado por uma tarefa */
+	private static final long TAMANHO_MINIMO_BLOCO = 1L << 16;
+	private static final long TAMANHO_MAXIMO_BLOCO = 1L << 24;
+
+	/** Formato usado apenas quando a data não é reconhecida pelo caminho rápido */
+	private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+	/** Potências de 10 representáveis exatamente em double */
+	private static final double[] POTENCIAS_10 = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+	private final ForkJoinPool pool;
+
+	public CarregadorProdutos() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	public CarregadorProdutos(ForkJoinPool pool) {
+		if (pool == null) {
+			throw new IllegalArgumentException("O pool de execução não pode ser nulo.");
+		}
+		this.pool = pool;
+	}
+
+	/**
+	 * Carrega os produtos do arquivo informado.
+	 * @param nomeArquivoDados Nome do arquivo de dados a ser aberto.
+	 * @return Um vetor com os produtos, na ordem do arquivo.
+	 * @throws IOException em caso de erro de leitura ou de arquivo com menos linhas que o informado no cabeçalho.
+	 */
+	public Produto[] carregar(String nomeArquivoDados) throws IOException {
+
+		try (FileChannel canal = FileChannel.open(Path.of(nomeArquivoDados), StandardOpenOption.READ)) {
+
+			long tamanho = canal.size();
+			long inicioDados = proximoInicioDeLinha(canal, 0, tamanho);
+			int numProdutos = lerCabecalho(canal, inicioDados);
+
+			long[] limites = dividirEmBlocos(canal, inicioDados, tamanho);
+			int numBlocos = limites.length - 1;
+			MappedByteBuffer[] blocos = new MappedByteBuffer[numBlocos];
+			int[] linhasPorBloco = new int[numBlocos];
+
+			try {
+				pool.invoke(new Contagem(canal, limites, blocos, linhasPorBloco, 0, numBlocos));
+			} catch (UncheckedIOException e) {
+				throw e.getCause();
+			}
+
+			int[] primeiraLinha = new int[numBlocos];
+			long totalLinhas = 0;
+			for (int i = 0; i < numBlocos; i++) {
+				primeiraLinha[i] = (int) Math.min(totalLinhas, Integer.MAX_VALUE);
+				totalLinhas += linhasPorBloco[i];
+			}
+			if (totalLinhas < numProdutos) {
+				throw new IOException("O arquivo contém menos produtos que o informado no cabeçalho.");
+			}
+
+			Produto[] produtos = new Produto[numProdutos];
+			int primeiroId = Produto.reservarIds(numProdutos);
+			pool.invoke(new Interpretacao(blocos, primeiraLinha, produtos, primeiroId, 0, numBlocos));
+
+			return produtos;
+		}
+	}
+
+	/** Lê a primeira linha do arquivo (quantidade de produtos) */
+	private static int lerCabecalho(FileChannel canal, long fimCabecalho) throws IOException {
+		ByteBuffer cabecalho = ByteBuffer.allocate((int) fimCabecalho);
+		while (cabecalho.hasRemaining() && canal.read(cabecalho, cabecalho.position()) > 0) {
+			// lê até completar a primeira linha
+		}
+		String texto = new String(cabecalho.array(), 0, cabecalho.position(), StandardCharsets.UTF_8);
+		return Integer.parseInt(texto.trim());
+	}
+
+	/**
+	 * Divide [inicio, tamanho) em blocos que começam sempre no início de uma linha.
+	 * @return Vetor de limites; o bloco i é [limites[i], limites[i + 1]).
+	 */
+	private long[] dividirEmBlocos(FileChannel canal, long inicio, long tamanho) throws IOException {
+		long restante = tamanho - inicio;
+		long alvo = restante / (pool.getParallelism() * 4L);
+		alvo = Math.max(TAMANHO_MINIMO_BLOCO, Math.min(TAMANHO_MAXIMO_BLOCO, alvo));
+		int maximoBlocos = (int) Math.max(1, (restante + alvo - 1) / alvo);
+
+		long[] limites = new long[maximoBlocos + 1];
+		int quantos = 0;
+		limites[quantos++] = inicio;
+		long atual = inicio;
+		while (atual < tamanho) {
+			long proximo = (tamanho - atual <= alvo) ? tamanho : proximoInicioDeLinha(canal, atual + alvo, tamanho);
+			if (quantos == limites.length) {
+				limites = Arrays.copyOf(limites, limites.length * 2);
+			}
+			limites[quantos++] = proximo;
+			atual = proximo;
+		}
+		if (quantos == 1) {
+			limites[quantos++] = tamanho;
+		}
+		return Arrays.copyOf(limites, quantos);
+	}
+
+	/** Devolve a posição logo após o primeiro '\n' a partir de 'posicao', ou o fim do arquivo */
+	private static long proximoInicioDeLinha(FileChannel canal, long posicao, long tamanho) throws IOException {
+		ByteBuffer leitura = ByteBuffer.allocate(4096);
+		while (posicao < tamanho) {
+			leitura.clear();
+			int lidos = canal.read(leitura, posicao);
+			if (lidos <= 0) {
+				break;
+			}
+			for (int i = 0; i < lidos; i++) {
+				if (leitura.get(i) == '\n') {
+					return posicao + i + 1;
+				}
+			}
+			posicao += lidos;
+		}
+		return tamanho;
+	}
+
+	/** Primeira passada: mapeia cada bloco e conta as suas linhas */
+	private static final class Contagem extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final FileChannel canal;
+		private final long[] limites;
+		private final MappedByteBuffer[] blocos;
+		private final int[] linhasPorBloco;
+		private final int de, ate;
+
+		Contagem(FileChannel canal, long[] limites, MappedByteBuffer[] blocos, int[] linhasPorBloco, int de, int ate) {
+			this.canal = canal;
+			this.limites = limites;
+			this.blocos = blocos;
+			this.linhasPorBloco = linhasPorBloco;
+			this.de = de;
+			this.ate = ate;
+		}
+
+		@Override
+		protected void compute() {
+			if (ate - de > 1) {
+				int meio = (de + ate) >>> 1;
+				invokeAll(new Contagem(canal, limites, blocos, linhasPorBloco, de, meio),
+						new Contagem(canal, limites, blocos, linhasPorBloco, meio, ate));
+				return;
+			}
+			try {
+				long inicio = limites[de];
+				int tamanho = (int) (limites[de + 1] - inicio);
+				MappedByteBuffer bloco = canal.map(FileChannel.MapMode.READ_ONLY, inicio, tamanho);
+				int linhas = 0;
+				for (int i = 0; i < tamanho; i++) {
+					if (bloco.get(i) == '\n') {
+						linhas++;
+					}
+				}
+				if (tamanho > 0 && bloco.get(tamanho - 1) != '\n') {
+					linhas++;
+				}
+				blocos[de] = bloco;
+				linhasPorBloco[de] = linhas;
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	/** Segunda passada: interpreta as linhas de cada bloco e grava os produtos na posição final */
+	private static final class Interpretacao extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final MappedByteBuffer[] blocos;
+		private final int[] primeiraLinha;
+		private final Produto[] produtos;
+		private final int primeiroId;
+		private final int de, ate;
+
+		Interpretacao(MappedByteBuffer[] blocos, int[] primeiraLinha, Produto[] produtos, int primeiroId, int de, int ate) {
+			this.blocos = blocos;
+			this.primeiraLinha = primeiraLinha;
+			this.produtos = produtos;
+			this.primeiroId = primeiroId;
+			this.de = de;
+			this.ate = ate;
+		}
+
+		@Override
+		protected void compute() {
+			if (ate - de > 1) {
+				int meio = (de + ate) >>> 1;
+				invokeAll(new Interpretacao(blocos, primeiraLinha, produtos, primeiroId, de, meio),
+						new Interpretacao(blocos, primeiraLinha, produtos, primeiroId, meio, ate));
+				return;
+			}
+			int linha = primeiraLinha[de];
+			if (linha >= produtos.length) {
+				return;
+			}
+			MappedByteBuffer bloco = blocos[de];
+			int tamanho = bloco.capacity();
+			Tokenizador campos = new Tokenizador(bloco);
+
+			int inicio = 0;
+			while (inicio < tamanho && linha < produtos.length) {
+				int fim = inicio;
+				while (fim < tamanho && bloco.get(fim) != '\n') {
+					fim++;
+				}
+				campos.linha(inicio, fim);
+				produtos[linha] = campos.produto(primeiroId + linha);
+				linha++;
+				inicio = fim + 1;
+			}
+		}
+	}
+
+	/**
+	 * Tokenizador de campos separados por ';' sobre os bytes UTF-8 do bloco mapeado, lidos direto do
+	 * MappedByteBuffer (leituras absolutas, sem copiar o bloco para o heap).
+	 * Reaproveitado para todas as linhas de um bloco; só copia os bytes dos campos que viram String
+	 * (a descrição e os campos que caem no caminho lento), num vetor reaproveitado.
+	 */
+	private static final class Tokenizador {
+
+		private final ByteBuffer dados;
+		private byte[] texto = new byte[64];
+		private int pos;
+		private int fim;
+
+		Tokenizador(ByteBuffer dados) {
+			this.dados = dados;
+		}
+
+		void linha(int inicio, int fim) {
+			if (fim > inicio && dados.get(fim - 1) == '\r') {
+				fim--;
+			}
+			this.pos = inicio;
+			this.fim = fim;
+		}
+
+		Produto produto(int idProduto) {
+			int tipo = proximoInteiro();
+			String descricao = proximoTexto();
+			double precoCusto = proximoDecimal();
+			double margemLucro = proximoDecimal();
+			if (tipo == 2) {
+				return new ProdutoPerecivel(idProduto, descricao, precoCusto, margemLucro, proximaData());
+			}
+			return new ProdutoNaoPerecivel(idProduto, descricao, precoCusto, margemLucro);
+		}
+
+		/** Posição do fim do campo atual (próximo ';' ou fim da linha) */
+		private int fimDoCampo() {
+			int i = pos;
+			while (i < fim && dados.get(i) != ';') {
+				i++;
+			}
+			return i;
+		}
+
+		private void avancar(int fimCampo) {
+			pos = fimCampo + 1;
+		}
+
+		private String textoDoCampo(int fimCampo) {
+			int tamanho = fimCampo - pos;
+			if (tamanho > texto.length) {
+				texto = new byte[Math.max(tamanho, texto.length * 2)];
+			}
+			dados.get(pos, texto, 0, tamanho);
+			return new String(texto, 0, tamanho, StandardCharsets.UTF_8);
+		}
+
+		int proximoInteiro() {
+			int fimCampo = fimDoCampo();
+			int i = pos;
+			boolean negativo = i < fimCampo && dados.get(i) == '-';
+			if (negativo) {
+				i++;
+			}
+			if (i == fimCampo) {
+				throw new NumberFormatException("Campo numérico vazio.");
+			}
+			int valor = 0;
+			for (; i < fimCampo; i++) {
+				int digito = dados.get(i) - '0';
+				if (digito < 0 || digito > 9) {
+					throw new NumberFormatException("Número inválido: " + textoDoCampo(fimCampo));
+				}
+				valor = valor * 10 + digito;
+			}
+			avancar(fimCampo);
+			return negativo ? -valor : valor;
+		}
+
+		String proximoTexto() {
+			int fimCampo = fimDoCampo();
+			String texto = textoDoCampo(fimCampo);
+			avancar(fimCampo);
+			return texto;
+		}
+
+		/**
+		 * Lê um decimal com '.' ou ',' como separador. Com até 15 dígitos significativos, a divisão
+		 * mantissa / 10^casas é exata no arredondamento e dá o mesmo double que Double.parseDouble;
+		 * fora disso, recorre a Double.parseDouble.
+		 */
+		double proximoDecimal() {
+			int fimCampo = fimDoCampo();
+			int i = pos;
+			boolean negativo = i < fimCampo && dados.get(i) == '-';
+			if (negativo) {
+				i++;
+			}
+			long mantissa = 0;
+			int digitos = 0;
+			int casas = -1;
+			boolean valido = i < fimCampo;
+			for (; i < fimCampo && valido; i++) {
+				byte b = dados.get(i);
+				if (b >= '0' && b <= '9') {
+					mantissa = mantissa * 10 + (b - '0');
+					if (mantissa != 0) {
+						digitos++;
+					}
+					if (casas >= 0) {
+						casas++;
+					}
+				} else if ((b == '.' || b == ',') && casas < 0) {
+					casas = 0;
+				} else {
+					valido = false;
+				}
+			}
+			double valor;
+			if (valido && digitos <= 15 && casas < POTENCIAS_10.length) {
+				valor = (casas <= 0) ? mantissa : mantissa / POTENCIAS_10[casas];
+				valor = negativo ? -valor : valor;
+			} else {
+				valor = Double.parseDouble(textoDoCampo(fimCampo).replace(",", "."));
+			}
+			avancar(fimCampo);
+			return valor;
+		}
+
+		/** Lê uma data dd/MM/yyyy */
+		LocalDate proximaData() {
+			int fimCampo = fimDoCampo();
+			LocalDate data = null;
+			if (fimCampo - pos == 10 && dados.get(pos + 2) == '/' && dados.get(pos + 5) == '/') {
+				int dia = digitos(pos, 2);
+				int mes = digitos(pos + 3, 2);
+				int ano = digitos(pos + 6, 4);
+				if (dia >= 0 && mes >= 0 && ano >= 0) {
+					try {
+						data = LocalDate.of(ano, mes, dia);
+					} catch (DateTimeException e) {
+						data = null;
+					}
+				}
+			}
+			if (data == null) {
+				data = LocalDate.parse(textoDoCampo(fimCampo), FORMATO_DATA);
+			}
+			avancar(fimCampo);
+			return data;
+		}
+
+		private int digitos(int inicio, int quantos) {
+			int valor = 0;
+			for (int i = inicio; i < inicio + quantos; i++) {
+				int digito = dados.get(i) - '0';
+				if (digito < 0 || digito > 9) {
+					return -1;
+				}
+				valor = valor * 10 + digito;
+			}
+			return valor;
+		}
+	}
+}
@@ -0,0 +1,222 @@
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Catálogo de produtos indexado para buscas em O(1).
+ * - Índice por código: {@link MapaInt} (endereçamento aberto, chave primitiva idProduto).
+ * - Índice por descrição: descrição normalizada (sem espaços nas pontas, minúsculas) para os produtos.
+ *   Descrições repetidas ficam encadeadas em células, na ordem de inclusão, e a busca devolve a primeira.
+ * - Índice textual: {@link IndiceTextual}, para buscas por termos e prefixos das descrições.
+ * Os índices são montados no carregamento e atualizados a cada inclusão ou remoção de produto.
+ * Seguro para várias threads: as consultas compartilham um bloqueio de leitura e podem ocorrer ao mesmo tempo
+ * (ex.: sessões do {@link ServicoPedidos}); inclusões e remoções esperam as consultas em andamento.
+ */
+public class Catalogo {
+
+	private final MapaInt<Produto> porCodigo;
+	private final HashMap<String, Celula<Produto>> porDescricao;
+	private final IndiceTextual porTermos = new IndiceTextual();
+
+	private final ReentrantReadWriteLock bloqueio = new ReentrantReadWriteLock();
+	private final Lock leitura = bloqueio.readLock();
+	private final Lock escrita = bloqueio.writeLock();
+
+	/** Consultas por código e por descrição, e latência das buscas por termos (com as métricas ativadas) */
+	private static final Metricas.Contador CONSULTAS_CODIGO = Metricas.contador("Catalogo.localizar");
+	private static final Metricas.Contador CONSULTAS_DESCRICAO = Metricas.contador("Catalogo.localizarDescricao");
+	private static final Metricas.Histograma LATENCIA_BUSCA = Metricas.histograma("Catalogo.buscar");
+
+	public Catalogo() {
+		this(null, 0);
+	}
+
+	/**
+	 * Monta o catálogo a partir do vetor de produtos carregado do arquivo.
+	 * @param produtos Vetor de produtos (pode ser null).
+	 * @param quantos Quantidade de posições válidas no vetor.
+	 */
+	public Catalogo(Produto[] produtos, int quantos) {
+		porCodigo = new MapaInt<>(Math.max(quantos, 16));
+		porDescricao = new HashMap<>(Math.max(quantos * 4 / 3 + 1, 16));
+		for (int i = 0; i < quantos; i++) {
+			adicionar(produtos[i]);
+		}
+	}
+
+	/** Normaliza a descrição para a chave do índice: sem espaços nas pontas e sem diferença de caixa */
+	static String normalizar(String descricao) {
+		return descricao.trim().toLowerCase(Locale.ROOT);
+	}
+
+	public int tamanho() {
+		leitura.lock();
+		try {
+			return porCodigo.tamanho();
+		} finally {
+			leitura.unlock();
+		}
+	}
+
+	/**
+	 * Inclui um produto nos índices. Um produto com o mesmo código substitui o anterior.
+	 * @param produto Produto a ser incluído (não nulo).
+	 */
+	public void adicionar(Produto produto) {
+		if (produto == null) {
+			throw new IllegalArgumentException("O produto não pode ser nulo.");
+		}
+		escrita.lock();
+		try {
+			Produto anterior = porCodigo.inserir(produto.idProduto, produto);
+			if (anterior != null) {
+				removerDescricao(anterior);
+				porTermos.remover(anterior);
+			}
+			porTermos.adicionar(produto);
+			String chave = normalizar(produto.descricao);
+			Celula<Produto> primeira = porDescricao.get(chave);
+			if (primeira == null) {
+				porDescricao.put(chave, new Celula<>(produto));
+			} else {
+				Celula<Produto> ultima = primeira;
+				while (ultima.getProximo() != null) {
+					ultima = ultima.getProximo();
+				}
+				ultima.setProximo(new Celula<>(produto));
+			}
+		} finally {
+			escrita.unlock();
+		}
+	}
+
+	/**
+	 * Remove dos índices o produto com o código informado.
+	 * @return O produto removido, ou null se não havia produto com esse código.
+	 */
+	public Produto remover(int idProduto) {
+		escrita.lock();
+		try {
+			Produto removido = porCodigo.remover(idProduto);
+			if (removido != null) {
+				removerDescricao(removido);
+				porTermos.remover(removido);
+			}
+			return removido;
+		} finally {
+			escrita.unlock();
+		}
+	}
+
+	private void removerDescricao(Produto produto) {
+		String chave = normalizar(produto.descricao);
+		Celula<Produto> primeira = porDescricao.get(chave);
+		if (primeira == null) {
+			return;
+		}
+		if (primeira.getItem() == produto) {
+			if (primeira.getProximo() == null) {
+				porDescricao.remove(chave);
+			} else {
+				porDescricao.put(chave, primeira.getProximo());
+			}
+			return;
+		}
+		Celula<Produto> anterior = primeira;
+		while (anterior.getProximo() != null && anterior.getProximo().getItem() != produto) {
+			anterior = anterior.getProximo();
+		}
+		if (anterior.getProximo() != null) {
+			anterior.setProximo(anterior.getProximo().getProximo());
+		}
+	}
+
+	/**
+	 * Localiza um produto pelo código identificador.
+	 * @return O produto, ou null se não houver produto com esse código.
+	 */
+	public Produto localizar(int idProduto) {
+		CONSULTAS_CODIGO.incrementar();
+		if (idProduto == MapaInt.VAZIO) {
+			return null;
+		}
+		leitura.lock();
+		try {
+			return porCodigo.obter(idProduto);
+		} finally {
+			leitura.unlock();
+		}
+	}
+
+	/**
+	 * Localiza um produto pela descrição. A busca não é sensível ao caso nem a espaços nas pontas.
+	 * @return O primeiro produto incluído com essa descrição, ou null se não houver.
+	 */
+	public Produto localizarDescricao(String descricao) {
+		CONSULTAS_DESCRICAO.incrementar();
+		if (descricao == null) {
+			return null;
+		}
+		String chave = normalizar(descricao);
+		leitura.lock();
+		try {
+			Celula<Produto> primeira = porDescricao.get(chave);
+			return primeira == null ? null : primeira.getItem();
+		} finally {
+			leitura.unlock();
+		}
+	}
+
+	/**
+	 * Códigos de todos os produtos com a descrição informada (sem diferença de caixa nem espaços nas pontas).
+	 * @return Os códigos, na ordem de inclusão; vazio se não houver.
+	 */
+	public int[] localizarCodigosDescricao(String descricao) {
+		if (descricao == null) {
+			return new int[0];
+		}
+		String chave = normalizar(descricao);
+		leitura.lock();
+		try {
+			int quantos = 0;
+			Celula<Produto> primeira = porDescricao.get(chave);
+			for (Celula<Produto> cursor = primeira; cursor != null; cursor = cursor.getProximo()) {
+				quantos++;
+			}
+			int[] codigos = new int[quantos];
+			int i = 0;
+			for (Celula<Produto> cursor = primeira; cursor != null; cursor = cursor.getProximo()) {
+				codigos[i++] = cursor.getItem().idProduto;
+			}
+			return codigos;
+		} finally {
+			leitura.unlock();
+		}
+	}
+
+	/**
+	 * Busca produtos por termos da descrição, sem diferença de caixa ou acentos. Cada termo da consulta vale
+	 * como prefixo e todos precisam estar presentes (ex.: "fita bran").
+	 * @return Os produtos encontrados, em ordem crescente de código.
+	 */
+	public Produto[] buscar(String consulta) {
+		if (consulta == null) {
+			return new Produto[0];
+		}
+		long inicio = Metricas.inicio();
+		Produto[] encontrados;
+		leitura.lock();
+		try {
+			int[] ids = porTermos.buscar(consulta);
+			encontrados = new Produto[ids.length];
+			for (int i = 0; i < ids.length; i++) {
+				encontrados[i] = porCodigo.obter(ids[i]);
+			}
+		} finally {
+			leitura.unlock();
+		}
+		LATENCIA_BUSCA.registrarDesde(inicio);
+		return encontrados;
+	}
+}
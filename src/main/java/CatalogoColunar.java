@@ -0,0 +1,358 @@
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+
+/**
+ * Catálogo de produtos em colunas (estrutura de vetores): cada atributo fica em um vetor primitivo próprio,
+ * na mesma posição para o mesmo produto, em vez de um objeto Produto por item.
+ * - idProduto em int[], preço de custo e margem em double[], tipo em byte[] (1, não perecível; 2, perecível,
+ *   como no arquivo de dados) e validade em int[] (dias desde 01/01/1970);
+ * - as descrições ficam concatenadas, em UTF-8, em um único byte[], com o início de cada uma em um int[].
+ * Sem cabeçalhos de objeto, referências, Strings e datas por produto, o catálogo ocupa uma fração da memória
+ * do vetor de produtos (ver relatorioMemoria), e os percursos de preços leem vetores contíguos.
+ * precificar calcula os preços de venda de todos os produtos em um laço simples sobre os vetores, que o
+ * compilador JIT pode vetorizar: o desconto por validade entra como um fator por produto (1.0 ou 0.75),
+ * calculado uma vez por dia do {@link RelogioPrecos}. Os valores são idênticos aos de valorDeVenda().
+ * Para usar um item onde se espera um Produto, produto(i) cria uma cópia independente e visor(i) devolve
+ * um Produto reaproveitável (flyweight), reposicionado com posicionar(i), que lê os dados das colunas.
+ * Inclusões não são seguras para várias threads; leituras e preços podem ser feitos por várias threads
+ * depois da carga.
+ */
+public class CatalogoColunar {
+
+	private static final int CAPACIDADE_INICIAL = 16;
+
+	private static final byte NAO_PERECIVEL = 1;
+	private static final byte PERECIVEL = 2;
+
+	private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+	private int quantidade;
+	private int[] ids;
+	private double[] custos;
+	private double[] margens;
+	private byte[] tipos;
+	private int[] validades;
+
+	/** Descrições em UTF-8; a descrição da posição i ocupa [iniciosDescricao[i], iniciosDescricao[i + 1]) */
+	private byte[] descricoes;
+	private int[] iniciosDescricao;
+
+	/** Fatores de desconto de cada produto para um dia (em dias desde 01/01/1970) */
+	private static final class FatoresDoDia {
+
+		final long dia;
+		final double[] fatores;
+
+		FatoresDoDia(long dia, double[] fatores) {
+			this.dia = dia;
+			this.fatores = fatores;
+		}
+	}
+
+	/** Últimos fatores calculados; valem enquanto o dia do relógio de preços for o mesmo e não houver inclusões */
+	private volatile FatoresDoDia fatoresDoDia;
+
+	public CatalogoColunar() {
+		this(CAPACIDADE_INICIAL);
+	}
+
+	public CatalogoColunar(int capacidadeInicial) {
+		if (capacidadeInicial < 1) {
+			throw new IllegalArgumentException("A capacidade inicial deve ser positiva.");
+		}
+		ids = new int[capacidadeInicial];
+		custos = new double[capacidadeInicial];
+		margens = new double[capacidadeInicial];
+		tipos = new byte[capacidadeInicial];
+		validades = new int[capacidadeInicial];
+		iniciosDescricao = new int[capacidadeInicial + 1];
+		descricoes = new byte[capacidadeInicial * 32];
+	}
+
+	/**
+	 * Monta o catálogo em colunas a partir do vetor de produtos carregado do arquivo, com os vetores
+	 * ajustados ao tamanho final.
+	 * @param produtos Vetor de produtos.
+	 * @param quantos Quantidade de posições válidas no vetor.
+	 */
+	public static CatalogoColunar de(Produto[] produtos, int quantos) {
+		CatalogoColunar catalogo = new CatalogoColunar(Math.max(quantos, 1));
+		for (int i = 0; i < quantos; i++) {
+			catalogo.adicionar(produtos[i]);
+		}
+		catalogo.compactar();
+		return catalogo;
+	}
+
+	public int tamanho() {
+		return quantidade;
+	}
+
+	/**
+	 * Inclui no final do catálogo uma cópia dos dados do produto.
+	 * @param produto Produto a ser incluído (não nulo).
+	 * @return A posição do produto no catálogo.
+	 */
+	public int adicionar(Produto produto) {
+		if (produto == null) {
+			throw new IllegalArgumentException("O produto não pode ser nulo.");
+		}
+		if (quantidade == ids.length) {
+			redimensionar(ids.length * 2);
+		}
+		int posicao = quantidade;
+		ids[posicao] = produto.idProduto;
+		custos[posicao] = produto.precoCusto;
+		margens[posicao] = produto.margemLucro;
+		if (produto instanceof ProdutoPerecivel perecivel) {
+			tipos[posicao] = PERECIVEL;
+			validades[posicao] = (int) perecivel.getDataDeValidade().toEpochDay();
+		} else if (produto instanceof Visor visor && visor.catalogo().tipos[visor.posicao] == PERECIVEL) {
+			tipos[posicao] = PERECIVEL;
+			validades[posicao] = visor.catalogo().validades[visor.posicao];
+		} else {
+			tipos[posicao] = NAO_PERECIVEL;
+		}
+
+		byte[] descricao = produto.descricao.getBytes(StandardCharsets.UTF_8);
+		int inicio = iniciosDescricao[posicao];
+		if (inicio + descricao.length > descricoes.length) {
+			descricoes = Arrays.copyOf(descricoes, Math.max(descricoes.length * 2, inicio + descricao.length));
+		}
+		System.arraycopy(descricao, 0, descricoes, inicio, descricao.length);
+		iniciosDescricao[posicao + 1] = inicio + descricao.length;
+
+		quantidade++;
+		fatoresDoDia = null;
+		return posicao;
+	}
+
+	private void redimensionar(int novaCapacidade) {
+		ids = Arrays.copyOf(ids, novaCapacidade);
+		custos = Arrays.copyOf(custos, novaCapacidade);
+		margens = Arrays.copyOf(margens, novaCapacidade);
+		tipos = Arrays.copyOf(tipos, novaCapacidade);
+		validades = Arrays.copyOf(validades, novaCapacidade);
+		iniciosDescricao = Arrays.copyOf(iniciosDescricao, novaCapacidade + 1);
+	}
+
+	/** Reduz os vetores ao espaço ocupado, liberando a folga deixada pelos redimensionamentos */
+	public void compactar() {
+		redimensionar(Math.max(quantidade, 1));
+		descricoes = Arrays.copyOf(descricoes, iniciosDescricao[quantidade]);
+	}
+
+	private void validarPosicao(int posicao) {
+		if (posicao < 0 || posicao >= quantidade) {
+			throw new IllegalArgumentException("Posição inválida: " + posicao);
+		}
+	}
+
+	public int idProduto(int posicao) {
+		validarPosicao(posicao);
+		return ids[posicao];
+	}
+
+	/** Descrição do produto, decodificada da área de descrições (cria uma nova String a cada chamada) */
+	public String descricao(int posicao) {
+		validarPosicao(posicao);
+		int inicio = iniciosDescricao[posicao];
+		return new String(descricoes, inicio, iniciosDescricao[posicao + 1] - inicio, StandardCharsets.UTF_8);
+	}
+
+	public boolean perecivel(int posicao) {
+		validarPosicao(posicao);
+		return tipos[posicao] == PERECIVEL;
+	}
+
+	/** Data de validade do produto, ou null se ele não for perecível */
+	public LocalDate dataDeValidade(int posicao) {
+		return perecivel(posicao) ? LocalDate.ofEpochDay(validades[posicao]) : null;
+	}
+
+	/**
+	 * Valor de venda do produto, com a mesma regra (e o mesmo resultado) de valorDeVenda() do produto original.
+	 * @throws IllegalArgumentException se o produto for perecível e estiver vencido.
+	 */
+	public double valorDeVenda(int posicao) {
+		validarPosicao(posicao);
+		double fator = fatoresDoDia().fatores[posicao];
+		if (Double.isNaN(fator)) {
+			throw new IllegalArgumentException("Data de validade do produto é anterior ao dia de hoje!");
+		}
+		return custos[posicao] * (1.0 + margens[posicao]) * fator;
+	}
+
+	/**
+	 * Calcula os valores de venda de todos os produtos, na ordem do catálogo, em um único laço sobre as colunas.
+	 * Produtos vencidos recebem NaN (em vez da exceção de valorDeVenda).
+	 * @param destino Vetor para os valores; se for nulo ou menor que o catálogo, um novo vetor é criado.
+	 * @return O vetor com os valores de venda nas posições [0, tamanho()).
+	 */
+	public double[] precificar(double[] destino) {
+		double[] fatores = fatoresDoDia().fatores;
+		int n = quantidade;
+		double[] valores = (destino == null || destino.length < n) ? new double[n] : destino;
+		double[] custos = this.custos;
+		double[] margens = this.margens;
+		for (int i = 0; i < n; i++) {
+			valores[i] = custos[i] * (1.0 + margens[i]) * fatores[i];
+		}
+		return valores;
+	}
+
+	/** Fatores de desconto do dia corrente; recalculados quando o dia muda ou há inclusões */
+	private FatoresDoDia fatoresDoDia() {
+		LocalDate hoje = RelogioPrecos.hoje();
+		long dia = hoje.toEpochDay();
+		FatoresDoDia atuais = fatoresDoDia;
+		if (atuais == null || atuais.dia != dia || atuais.fatores.length != quantidade) {
+			double[] fatores = new double[quantidade];
+			for (int i = 0; i < quantidade; i++) {
+				if (tipos[i] != PERECIVEL) {
+					fatores[i] = 1.0;
+				} else if (validades[i] < dia) {
+					fatores[i] = Double.NaN;
+				} else {
+					LocalDate validade = LocalDate.ofEpochDay(validades[i]);
+					fatores[i] = ProdutoPerecivel.comDesconto(validade, hoje) ? 1.0 - ProdutoPerecivel.DESCONTO : 1.0;
+				}
+			}
+			atuais = new FatoresDoDia(dia, fatores);
+			fatoresDoDia = atuais;
+		}
+		return atuais;
+	}
+
+	/**
+	 * Cria um produto independente com os dados da posição (mesmo identificador, descrição, preços e validade).
+	 * @throws IllegalArgumentException se o produto for perecível e estiver vencido, como na carga do arquivo.
+	 */
+	public Produto produto(int posicao) {
+		validarPosicao(posicao);
+		if (tipos[posicao] == PERECIVEL) {
+			return new ProdutoPerecivel(ids[posicao], descricao(posicao), custos[posicao], margens[posicao],
+					LocalDate.ofEpochDay(validades[posicao]));
+		}
+		return new ProdutoNaoPerecivel(ids[posicao], descricao(posicao), custos[posicao], margens[posicao]);
+	}
+
+	/** Cria um visor (Produto reaproveitável) posicionado no produto da posição informada */
+	public Visor visor(int posicao) {
+		validarPosicao(posicao);
+		return new Visor(posicao);
+	}
+
+	/**
+	 * Produto que mostra os dados de uma posição do catálogo colunar e pode ser reposicionado, para percorrer
+	 * o catálogo com um único objeto. Como o identificador muda ao reposicionar, o visor não deve ser guardado
+	 * em coleções ou pedidos; para isso, use {@link CatalogoColunar#produto(int)}.
+	 */
+	public final class Visor extends Produto {
+
+		private int posicao;
+
+		private Visor(int posicao) {
+			super(ids[posicao], descricao(posicao), custos[posicao], margens[posicao]);
+			this.posicao = posicao;
+		}
+
+		/** Reposiciona o visor no produto da posição informada */
+		public Visor posicionar(int posicao) {
+			validarPosicao(posicao);
+			this.posicao = posicao;
+			idProduto = ids[posicao];
+			descricao = descricao(posicao);
+			precoCusto = custos[posicao];
+			margemLucro = margens[posicao];
+			return this;
+		}
+
+		public int getPosicao() {
+			return posicao;
+		}
+
+		private CatalogoColunar catalogo() {
+			return CatalogoColunar.this;
+		}
+
+		@Override
+		public double valorDeVenda() {
+			return CatalogoColunar.this.valorDeVenda(posicao);
+		}
+
+		/** Mesmo texto do toString() de ProdutoNaoPerecivel ou ProdutoPerecivel */
+		@Override
+		public String toString() {
+			LocalDate validade = dataDeValidade(posicao);
+			if (validade == null) {
+				return super.toString();
+			}
+			return super.toString() + "\nVálido até " + FORMATO_DATA.format(validade);
+		}
+
+		@Override
+		public String gerarDadosTexto() {
+			return produto(posicao).gerarDadosTexto();
+		}
+	}
+
+	/** Bytes ocupados pelas colunas, contando os cabeçalhos dos vetores (JVM de 64 bits com referências comprimidas) */
+	public long bytesOcupados() {
+		return bytesVetor(ids.length, 4) + bytesVetor(custos.length, 8) + bytesVetor(margens.length, 8)
+				+ bytesVetor(tipos.length, 1) + bytesVetor(validades.length, 4)
+				+ bytesVetor(iniciosDescricao.length, 4) + bytesVetor(descricoes.length, 1);
+	}
+
+	/**
+	 * Estimativa dos bytes ocupados por um vetor de produtos e pelos objetos que ele referencia
+	 * (produtos, descrições, datas de validade e preços do dia memorizados), em uma JVM de 64 bits com
+	 * referências comprimidas e alinhamento de 8 bytes.
+	 */
+	public static long estimarBytesObjetos(Produto[] produtos, int quantos) {
+		long total = bytesVetor(produtos.length, 4);
+		for (int i = 0; i < quantos; i++) {
+			Produto produto = produtos[i];
+			// cabeçalho (12) + idProduto (4) + descricao (4) + precoCusto (8) + margemLucro (8)
+			long campos = 12 + 4 + 4 + 8 + 8;
+			if (produto instanceof ProdutoPerecivel) {
+				// dataDeValidade e precoDoDia (4 + 4), LocalDate (24) e PrecoDoDia memorizado (32)
+				total += alinhar(campos + 8) + 24 + 32;
+			} else {
+				total += alinhar(campos);
+			}
+			String descricao = produto.descricao;
+			boolean latin1 = descricao.chars().allMatch(c -> c < 256);
+			// String: cabeçalho, value, hash, coder e hashIsZero (24) + byte[] com os caracteres
+			total += 24 + bytesVetor(descricao.length(), latin1 ? 1 : 2);
+		}
+		return total;
+	}
+
+	/**
+	 * Relatório da memória do catálogo colunar comparada à do vetor de produtos de origem.
+	 * @param produtos Vetor de produtos de que o catálogo foi montado.
+	 * @param quantos Quantidade de posições válidas no vetor.
+	 */
+	public String relatorioMemoria(Produto[] produtos, int quantos) {
+		long objetos = estimarBytesObjetos(produtos, quantos);
+		long colunas = bytesOcupados();
+		return String.format("Catálogo com %d produtos:%n", quantidade)
+				+ String.format("  vetor de objetos Produto: %,d bytes (%.1f por produto)%n",
+						objetos, (double) objetos / Math.max(quantos, 1))
+				+ String.format("  catálogo colunar:         %,d bytes (%.1f por produto)%n",
+						colunas, (double) colunas / Math.max(quantidade, 1))
+				+ String.format("  economia:                 %,d bytes (%.1f%%)",
+						objetos - colunas, 100.0 * (objetos - colunas) / Math.max(objetos, 1));
+	}
+
+	private static long bytesVetor(long elementos, int tamanhoElemento) {
+		return alinhar(16 + elementos * tamanhoElemento);
+	}
+
+	private static long alinhar(long bytes) {
+		return (bytes + 7) & ~7L;
+	}
+}
@@ -0,0 +1,502 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.zip.CRC32;
+
+/**
+ * Diário (write-ahead log) dos pedidos finalizados: arquivo binário só de acréscimos, com soma de verificação
+ * em cada registro, para reconstruir a pilha e a fila de pedidos ao reiniciar.
+ * Formato (little-endian):
+ * - Cabeçalho (16 bytes): assinatura "PEDW", versão e a impressão digital do catálogo de produtos
+ *   ({@link #impressaoDigital}; 0 nos diários gravados antes dela).
+ * - Registros: tamanho do conteúdo (int), CRC32 do conteúdo (int) e o conteúdo: idPedido (int),
+ *   data do pedido em dias desde a época (int), forma de pagamento (byte), quantidade de produtos (byte)
+ *   e os códigos dos produtos (int cada).
+ * Gravação em grupo (group commit): os pedidos anexados são acumulados em memória e uma thread gravadora
+ * os grava e sincroniza com o disco (fsync) de uma só vez, quando o lote atinge o tamanho configurado
+ * ou quando o pedido mais antigo do lote espera a latência máxima configurada. Cada pedido anexado recebe
+ * um número de sequência, e {@link #aguardarGravacao(long)} espera até que ele esteja no disco.
+ * Se a gravação de um lote falhar, quem aguarda os pedidos do lote recebe a exceção, o arquivo é truncado no fim
+ * do último lote gravado e o diário continua aceitando pedidos; só se nem o truncamento for possível o diário fica
+ * com erro (e recusa novos pedidos) até ser reaberto.
+ * Os registros guardam só os códigos dos produtos, atribuídos na ordem do arquivo de produtos; por isso o diário
+ * só é recuperado e reaberto com o mesmo catálogo com que foi gravado (mesma impressão digital).
+ */
+public class DiarioPedidos implements Closeable {
+
+	/** Assinatura do arquivo: "PEDW" */
+	private static final int ASSINATURA = 0x57444550;
+
+	static final int VERSAO = 1;
+
+	private static final int TAMANHO_CABECALHO = 16;
+
+	/** Impressão digital dos diários gravados antes de ela existir no cabeçalho */
+	private static final long SEM_IMPRESSAO = 0L;
+
+	/** Tamanho e CRC32 que antecedem o conteúdo de cada registro */
+	private static final int TAMANHO_PREFIXO = 8;
+
+	/** Conteúdo de um registro sem os códigos dos produtos */
+	private static final int TAMANHO_FIXO = 10;
+
+	/** Maior conteúdo aceito na recuperação; acima disso o registro é considerado corrompido */
+	private static final int TAMANHO_MAXIMO = TAMANHO_FIXO + 4 * 255;
+
+	/** Lotes cuja gravação falhou, descartados do arquivo (com as métricas ativadas) */
+	private static final Metricas.Contador LOTES_DESCARTADOS = Metricas.contador("DiarioPedidos.lotesDescartados");
+
+	/** Pedidos de um lote cuja gravação falhou, do número de sequência 'primeira' ao 'ultima' */
+	private static final class Falha {
+
+		final long primeira;
+		final long ultima;
+		final IOException causa;
+
+		Falha(long primeira, long ultima, IOException causa) {
+			this.primeira = primeira;
+			this.ultima = ultima;
+			this.causa = causa;
+		}
+	}
+
+	private final FileChannel canal;
+	private final int tamanhoLote;
+	private final long latenciaMaximaNanos;
+	private final Thread gravadora;
+
+	/** Lote em formação e lote em gravação; trocados a cada gravação */
+	private ByteBuffer pendente;
+	private ByteBuffer gravando;
+
+	/** Instante em que o primeiro registro do lote em formação foi anexado */
+	private long inicioLoteNanos;
+	private long ultimaSequencia;
+
+	/** Última sequência cujo lote já foi processado: gravado e sincronizado, ou descartado por falha */
+	private long sequenciaGravada;
+
+	/** Lotes descartados por falha de gravação; falhas são raras, e a lista só é consultada por quem aguarda */
+	private final List<Falha> falhas = new ArrayList<>();
+
+	/** Tamanho do arquivo ao fim do último lote gravado e sincronizado (apenas a thread gravadora o altera) */
+	private long tamanhoGravado;
+
+	/** Erro permanente (o arquivo não pôde ser restaurado depois de uma falha); recusa novos pedidos */
+	private IOException erro;
+	private boolean fechando;
+
+	/**
+	 * Abre o diário para acréscimos, criando o arquivo se necessário.
+	 * O arquivo já existente deve ter sido recuperado antes com {@link #recuperar}, que descarta registros incompletos do fim.
+	 * Um diário sem impressão digital (gravado antes dela) passa a ter a do catálogo informado.
+	 * @param nomeArquivo Nome do arquivo do diário.
+	 * @param tamanhoLote Quantidade de bytes que dispara a gravação do lote sem esperar a latência máxima.
+	 * @param latenciaMaximaMicros Tempo máximo, em microssegundos, que um pedido espera pela gravação do seu lote.
+	 * @param impressaoCatalogo Impressão digital do catálogo em uso ({@link #impressaoDigital}).
+	 * @throws IOException em caso de erro de abertura, de um cabeçalho inválido ou de um diário gravado com outro catálogo.
+	 */
+	public DiarioPedidos(String nomeArquivo, int tamanhoLote, long latenciaMaximaMicros, long impressaoCatalogo)
+			throws IOException {
+
+		if (tamanhoLote <= 0 || latenciaMaximaMicros < 0) {
+			throw new IllegalArgumentException("Valores inválidos para o lote do diário.");
+		}
+		this.tamanhoLote = tamanhoLote;
+		this.latenciaMaximaNanos = TimeUnit.MICROSECONDS.toNanos(latenciaMaximaMicros);
+
+		canal = FileChannel.open(Path.of(nomeArquivo), StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		try {
+			if (canal.size() < TAMANHO_CABECALHO) {
+				canal.truncate(0);
+				gravarCabecalho(impressaoCatalogo);
+			} else {
+				ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO).order(ByteOrder.LITTLE_ENDIAN);
+				canal.read(cabecalho, 0);
+				long gravada = validarCabecalho(cabecalho.flip(), impressaoCatalogo);
+				if (gravada == SEM_IMPRESSAO) {
+					gravarCabecalho(impressaoCatalogo);
+				}
+			}
+			tamanhoGravado = canal.size();
+			canal.position(tamanhoGravado);
+		} catch (IOException | RuntimeException e) {
+			canal.close();
+			throw e;
+		}
+
+		int capacidade = Math.max(tamanhoLote, 4096) + TAMANHO_PREFIXO + TAMANHO_MAXIMO;
+		pendente = ByteBuffer.allocate(capacidade).order(ByteOrder.LITTLE_ENDIAN);
+		gravando = ByteBuffer.allocate(capacidade).order(ByteOrder.LITTLE_ENDIAN);
+
+		gravadora = new Thread(this::gravarLotes, "diario-pedidos");
+		gravadora.setDaemon(true);
+		gravadora.start();
+	}
+
+	private void gravarCabecalho(long impressaoCatalogo) throws IOException {
+		ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO).order(ByteOrder.LITTLE_ENDIAN);
+		cabecalho.putInt(ASSINATURA).putInt(VERSAO).putLong(impressaoCatalogo).flip();
+		while (cabecalho.hasRemaining()) {
+			canal.write(cabecalho, TAMANHO_CABECALHO - cabecalho.remaining());
+		}
+		canal.force(true);
+	}
+
+	/**
+	 * Confere a assinatura, a versão e a impressão digital do catálogo.
+	 * @return Impressão digital gravada (SEM_IMPRESSAO nos diários gravados antes dela).
+	 * @throws IOException se o cabeçalho for inválido ou o diário tiver sido gravado com outro catálogo.
+	 */
+	private static long validarCabecalho(ByteBuffer cabecalho, long impressaoCatalogo) throws IOException {
+		if (cabecalho.remaining() < TAMANHO_CABECALHO || cabecalho.getInt() != ASSINATURA) {
+			throw new IOException("Arquivo não é um diário de pedidos.");
+		}
+		int versao = cabecalho.getInt();
+		if (versao != VERSAO) {
+			throw new IOException("Versão de diário não suportada: " + versao);
+		}
+		long gravada = cabecalho.getLong();
+		if (gravada != SEM_IMPRESSAO && gravada != impressaoCatalogo) {
+			throw new IOException(String.format("O diário foi gravado com outro catálogo de produtos (impressão %016x, "
+					+ "catálogo atual %016x): os códigos dos produtos dos pedidos não correspondem mais aos mesmos "
+					+ "produtos. Restaure o arquivo de produtos usado na gravação ou mova o diário.",
+					gravada, impressaoCatalogo));
+		}
+		return gravada;
+	}
+
+	/**
+	 * Impressão digital do catálogo: resumo de 64 bits do código, da descrição, do preço de custo, da margem e da
+	 * validade de cada produto, na ordem do vetor. Qualquer mudança no arquivo de produtos que altere um desses
+	 * dados ou a ordem (e, portanto, os códigos atribuídos) muda a impressão. Nunca é SEM_IMPRESSAO.
+	 * @param produtos Vetor de produtos (pode ser null).
+	 * @param quantos Quantidade de posições válidas no vetor.
+	 */
+	public static long impressaoDigital(Produto[] produtos, int quantos) {
+
+		long resumo = misturar(0x9E3779B97F4A7C15L, produtos == null ? 0 : quantos);
+		for (int i = 0; produtos != null && i < quantos; i++) {
+			Produto produto = produtos[i];
+			resumo = misturar(resumo, produto.idProduto);
+			resumo = misturar(resumo, produto.descricao.hashCode());
+			resumo = misturar(resumo, Double.doubleToLongBits(produto.precoCusto));
+			resumo = misturar(resumo, Double.doubleToLongBits(produto.margemLucro));
+			if (produto instanceof ProdutoPerecivel perecivel) {
+				resumo = misturar(resumo, perecivel.getDataDeValidade().toEpochDay());
+			}
+		}
+		return resumo == SEM_IMPRESSAO ? 1 : resumo;
+	}
+
+	/** Acrescenta o valor ao resumo (mistura do SplitMix64) */
+	private static long misturar(long resumo, long valor) {
+		long h = (resumo ^ valor) * 0xBF58476D1CE4E5B9L;
+		h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+		return h ^ (h >>> 31);
+	}
+
+	/**
+	 * Anexa o pedido ao lote em formação, sem esperar a gravação.
+	 * @return Número de sequência do pedido, para {@link #aguardarGravacao(long)}.
+	 * @throws IOException se o diário está com erro permanente (ver a descrição da classe) ou foi fechado.
+	 */
+	public synchronized long anexar(Pedido pedido) throws IOException {
+
+		verificarAberto();
+		return acrescentar(pedido);
+	}
+
+	/**
+	 * Anexa um lote de pedidos ao lote em formação, sob um único bloqueio e sem esperar a gravação.
+	 * @return Número de sequência do último pedido do lote (o lote está no disco quando ele estiver).
+	 * @throws IOException se o diário está com erro permanente (ver a descrição da classe) ou foi fechado.
+	 */
+	public synchronized long anexarTodos(Collection<Pedido> lote) throws IOException {
+
+		verificarAberto();
+		long sequencia = ultimaSequencia;
+		for (Pedido pedido : lote) {
+			sequencia = acrescentar(pedido);
+		}
+		return sequencia;
+	}
+
+	private long acrescentar(Pedido pedido) {
+
+		int quantos = pedido.getQuantosProdutos();
+		int tamanho = TAMANHO_FIXO + 4 * quantos;
+		if (pendente.remaining() < TAMANHO_PREFIXO + tamanho) {
+			ByteBuffer maior = ByteBuffer.allocate(pendente.capacity() * 2).order(ByteOrder.LITTLE_ENDIAN);
+			pendente = maior.put(pendente.flip());
+		}
+
+		int inicio = pendente.position();
+		pendente.putInt(tamanho);
+		pendente.putInt(0);
+		pendente.putInt(pedido.getIdPedido());
+		pendente.putInt((int) pedido.getDataPedido().toEpochDay());
+		pendente.put((byte) pedido.getFormaDePagamento());
+		pendente.put((byte) quantos);
+		Produto[] produtos = pedido.getProdutos();
+		for (int i = 0; i < quantos; i++) {
+			pendente.putInt(produtos[i].idProduto);
+		}
+		CRC32 crc = new CRC32();
+		crc.update(pendente.array(), inicio + TAMANHO_PREFIXO, tamanho);
+		pendente.putInt(inicio + 4, (int) crc.getValue());
+
+		if (inicio == 0) {
+			inicioLoteNanos = System.nanoTime();
+			notifyAll();
+		} else if (pendente.position() >= tamanhoLote) {
+			notifyAll();
+		}
+		return ++ultimaSequencia;
+	}
+
+	/**
+	 * Espera até que o pedido com o número de sequência informado esteja gravado e sincronizado com o disco.
+	 * @throws IOException se a gravação do lote falhou (o lote foi descartado do arquivo).
+	 */
+	public synchronized void aguardarGravacao(long sequencia) throws IOException {
+
+		boolean interrompida = false;
+		while (sequenciaGravada < sequencia && erro == null) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				interrompida = true;
+			}
+		}
+		if (interrompida) {
+			Thread.currentThread().interrupt();
+		}
+		for (Falha falha : falhas) {
+			if (sequencia >= falha.primeira && sequencia <= falha.ultima) {
+				throw falha.causa;
+			}
+		}
+		if (sequenciaGravada < sequencia) {
+			throw erro;
+		}
+	}
+
+	/** Anexa o pedido e espera até que ele esteja no disco */
+	public void registrar(Pedido pedido) throws IOException {
+		aguardarGravacao(anexar(pedido));
+	}
+
+	private void verificarAberto() throws IOException {
+		if (erro != null) {
+			throw new IOException("O diário de pedidos está com erro desde uma falha de gravação que não pôde ser "
+					+ "desfeita; reinicie o sistema para recuperá-lo (" + erro.getMessage() + ")", erro);
+		}
+		if (fechando) {
+			throw new IOException("O diário de pedidos está fechado.");
+		}
+	}
+
+	/**
+	 * Grava o lote no fim do arquivo e o sincroniza com o disco.
+	 * Ponto de extensão das verificações, que simulam gravações interrompidas.
+	 */
+	void gravarNoDisco(FileChannel canal, ByteBuffer lote) throws IOException {
+		while (lote.hasRemaining()) {
+			canal.write(lote);
+		}
+		canal.force(false);
+	}
+
+	/**
+	 * Laço da thread gravadora: espera a janela do lote, grava, sincroniza e libera quem aguarda.
+	 * Se a gravação falhar, trunca o arquivo no fim do último lote gravado, para que o próximo lote seja gravado
+	 * logo depois do último registro válido, e informa a falha a quem aguarda os pedidos do lote.
+	 */
+	private void gravarLotes() {
+
+		while (true) {
+			long sequenciaLote;
+			synchronized (this) {
+				try {
+					while (pendente.position() == 0 && !fechando) {
+						wait();
+					}
+					while (pendente.position() > 0 && pendente.position() < tamanhoLote && !fechando) {
+						long restante = inicioLoteNanos + latenciaMaximaNanos - System.nanoTime();
+						if (restante <= 0) {
+							break;
+						}
+						TimeUnit.NANOSECONDS.timedWait(this, restante);
+					}
+				} catch (InterruptedException e) {
+					fechando = true;
+				}
+				if (pendente.position() == 0) {
+					notifyAll();
+					return;
+				}
+				ByteBuffer lote = pendente;
+				pendente = gravando;
+				gravando = lote;
+				sequenciaLote = ultimaSequencia;
+			}
+
+			IOException falha = null;
+			IOException permanente = null;
+			try {
+				gravando.flip();
+				gravarNoDisco(canal, gravando);
+				tamanhoGravado = canal.position();
+			} catch (IOException e) {
+				falha = e;
+				LOTES_DESCARTADOS.incrementar();
+				try {
+					canal.truncate(tamanhoGravado);
+					canal.position(tamanhoGravado);
+				} catch (IOException excecaoTruncamento) {
+					excecaoTruncamento.addSuppressed(e);
+					permanente = excecaoTruncamento;
+				}
+			}
+			gravando.clear();
+
+			synchronized (this) {
+				if (falha != null) {
+					falhas.add(new Falha(sequenciaGravada + 1, sequenciaLote, falha));
+					erro = permanente;
+				}
+				sequenciaGravada = sequenciaLote;
+				notifyAll();
+				if (erro != null) {
+					return;
+				}
+			}
+		}
+	}
+
+	/** Grava o que estiver pendente e fecha o arquivo */
+	@Override
+	public void close() throws IOException {
+		synchronized (this) {
+			fechando = true;
+			notifyAll();
+		}
+		try {
+			gravadora.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		canal.close();
+		if (erro != null) {
+			throw erro;
+		}
+	}
+
+	/**
+	 * Lê o diário e entrega cada pedido registrado, na ordem de gravação, ao destino.
+	 * A leitura para no primeiro registro incompleto ou com soma de verificação inválida (gravação interrompida),
+	 * e o arquivo é truncado nesse ponto para que os próximos registros sejam anexados após o último válido.
+	 * Os identificadores dos próximos pedidos passam a ser maiores que os recuperados.
+	 * Nada é recuperado (e o arquivo não é alterado) se o diário foi gravado com outro catálogo ou se algum pedido
+	 * se refere a um produto que não existe no catálogo: em vez de montar pedidos com outros produtos ou com
+	 * menos produtos, a recuperação falha informando o pedido e o produto.
+	 * @param nomeArquivo Nome do arquivo do diário (se não existir, nada é recuperado).
+	 * @param impressaoCatalogo Impressão digital do catálogo em uso ({@link #impressaoDigital}).
+	 * @param produtos Localiza um produto pelo código (null se não existir).
+	 * @param destino Recebe os pedidos recuperados, depois que o diário inteiro é lido e conferido.
+	 * @return Quantidade de pedidos recuperados.
+	 * @throws IOException em caso de erro de leitura, de um cabeçalho inválido, de um diário gravado com outro
+	 * catálogo ou de um produto que não existe no catálogo.
+	 */
+	public static int recuperar(String nomeArquivo, long impressaoCatalogo, IntFunction<Produto> produtos,
+			Consumer<Pedido> destino) throws IOException {
+
+		Path caminho = Path.of(nomeArquivo);
+		if (!Files.exists(caminho)) {
+			return 0;
+		}
+
+		try (FileChannel canal = FileChannel.open(caminho, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+
+			long tamanhoArquivo = canal.size();
+			if (tamanhoArquivo < TAMANHO_CABECALHO) {
+				return 0;
+			}
+			ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+			canal.read(buffer, 0);
+			buffer.flip();
+			validarCabecalho(buffer, impressaoCatalogo);
+			buffer.position(TAMANHO_CABECALHO);
+
+			long posicaoBuffer = 0;
+			long validos = TAMANHO_CABECALHO;
+			List<Pedido> recuperados = new ArrayList<>();
+			CRC32 crc = new CRC32();
+
+			while (true) {
+				if (buffer.remaining() < TAMANHO_PREFIXO + TAMANHO_MAXIMO
+						&& posicaoBuffer + buffer.limit() < tamanhoArquivo) {
+					posicaoBuffer += buffer.position();
+					buffer.compact();
+					while (buffer.hasRemaining() && canal.read(buffer, posicaoBuffer + buffer.position()) > 0) {
+						// lê até encher o buffer ou chegar ao fim do arquivo
+					}
+					buffer.flip();
+				}
+				if (buffer.remaining() < TAMANHO_PREFIXO) {
+					break;
+				}
+				int tamanho = buffer.getInt(buffer.position());
+				int soma = buffer.getInt(buffer.position() + 4);
+				if (tamanho < TAMANHO_FIXO || tamanho > TAMANHO_MAXIMO || (tamanho - TAMANHO_FIXO) % 4 != 0
+						|| buffer.remaining() < TAMANHO_PREFIXO + tamanho) {
+					break;
+				}
+				crc.reset();
+				crc.update(buffer.array(), buffer.position() + TAMANHO_PREFIXO, tamanho);
+				if ((int) crc.getValue() != soma) {
+					break;
+				}
+
+				buffer.position(buffer.position() + TAMANHO_PREFIXO);
+				int idPedido = buffer.getInt();
+				LocalDate data = LocalDate.ofEpochDay(buffer.getInt());
+				int formaDePagamento = buffer.get();
+				int quantos = buffer.get() & 0xFF;
+				Pedido pedido = new Pedido(idPedido, data, formaDePagamento);
+				for (int i = 0; i < quantos; i++) {
+					int idProduto = buffer.getInt();
+					Produto produto = produtos.apply(idProduto);
+					if (produto == null) {
+						throw new IOException(String.format("O pedido %d do diário tem o produto %d, que não existe "
+								+ "no catálogo; nenhum pedido foi recuperado.", idPedido, idProduto));
+					}
+					pedido.incluirProduto(produto);
+				}
+				recuperados.add(pedido);
+				validos = posicaoBuffer + buffer.position();
+			}
+
+			if (validos < tamanhoArquivo) {
+				canal.truncate(validos);
+				canal.force(true);
+			}
+			recuperados.forEach(destino);
+			return recuperados.size();
+		}
+	}
+}
@@ -0,0 +1,218 @@
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.StreamSupport;
+
+/**
+ * Tarefa 1 (Fila): Implementa uma fila genérica encadeada com sentinela.
+ * - inserir(E): adiciona no final (ordem de chegada preservada).
+ * - remover(): retira do início; lança exceção se vazia.
+ * Esta estrutura é usada para percorrer pedidos na ordem que foram finalizados.
+ * O iterador não retira itens e falha (ConcurrentModificationException) se a fila for alterada durante o percurso.
+ * O spliterator conhece o tamanho, mas, como numa lista encadeada não há acesso ao meio, se divide em blocos
+ * copiados para vetores (como o de java.util.LinkedList); para percursos paralelos, a {@link FilaCircular}
+ * se divide melhor.
+ */
+public class Fila<E> implements IFila<E> {
+
+	private Celula<E> frente;
+	private Celula<E> tras;
+
+	/** Quantidade de alterações, para os iteradores detectarem alterações durante o percurso */
+	private int modificacoes;
+
+	/** Quantidade de itens, ou -1 depois de um encadeamento de células, até ser recontada por tamanho() */
+	private int quantidade;
+
+	public Fila() {
+		Celula<E> sentinela = new Celula<E>();
+		frente = sentinela;
+		tras = sentinela;
+	}
+
+	@Override
+	public boolean vazia() {
+		return frente == tras;
+	}
+
+	@Override
+	public int tamanho() {
+		if (quantidade < 0) {
+			int cont = 0;
+			for (Celula<E> cursor = frente.getProximo(); cursor != null; cursor = cursor.getProximo()) {
+				cont++;
+			}
+			quantidade = cont;
+		}
+		return quantidade;
+	}
+
+	@Override
+	public void inserir(E item) {
+		Celula<E> nova = new Celula<E>(item, null);
+		tras.setProximo(nova);
+		tras = nova;
+		if (quantidade >= 0) {
+			quantidade++;
+		}
+		modificacoes++;
+	}
+
+	/**
+	 * Encadeia os itens em células e liga a sequência inteira ao final da fila.
+	 */
+	@Override
+	public void inserirTodos(Collection<? extends E> itens) {
+		Celula<E> sentinela = new Celula<E>();
+		Celula<E> ultima = sentinela;
+		for (E item : itens) {
+			Celula<E> nova = new Celula<E>(item, null);
+			ultima.setProximo(nova);
+			ultima = nova;
+		}
+		if (ultima != sentinela) {
+			inserirTodos(sentinela.getProximo(), ultima);
+		}
+	}
+
+	/**
+	 * Liga ao final da fila, em O(1), uma sequência de células já encadeada de 'primeira' até 'ultima'.
+	 * As células passam a pertencer à fila; o encadeamento após 'ultima' é descartado.
+	 */
+	public void inserirTodos(Celula<E> primeira, Celula<E> ultima) {
+		if (primeira == null || ultima == null) {
+			throw new IllegalArgumentException("A sequência de células não pode ser nula.");
+		}
+		ultima.setProximo(null);
+		tras.setProximo(primeira);
+		tras = ultima;
+		quantidade = -1;
+		modificacoes++;
+	}
+
+	@Override
+	public E remover() {
+		if (vazia()) {
+			throw new NoSuchElementException("Nao há nenhum item na fila!");
+		}
+		Celula<E> primeira = frente.getProximo();
+		E item = primeira.getItem();
+		frente.setProximo(primeira.getProximo());
+		if (primeira == tras) {
+			tras = frente;
+		}
+		if (quantidade > 0) {
+			quantidade--;
+		}
+		modificacoes++;
+		return item;
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+
+			private Celula<E> proxima = frente.getProximo();
+			private final int esperadas = modificacoes;
+
+			@Override
+			public boolean hasNext() {
+				return proxima != null;
+			}
+
+			@Override
+			public E next() {
+				if (modificacoes != esperadas) {
+					throw new ConcurrentModificationException();
+				}
+				if (proxima == null) {
+					throw new NoSuchElementException();
+				}
+				E item = proxima.getItem();
+				proxima = proxima.getProximo();
+				return item;
+			}
+		};
+	}
+
+	@Override
+	public Spliterator<E> spliterator() {
+		return Spliterators.spliterator(iterator(), tamanho(), Spliterator.ORDERED);
+	}
+
+	@Override
+	public Spliterator<E> spliterator(int quantidade) {
+		int cont = Math.min(Math.max(quantidade, 0), tamanho());
+		return Spliterators.spliterator(visao().limitar(cont).iterator(), cont, Spliterator.ORDERED);
+	}
+
+	/**
+	 * Tarefa 2 (Fila): calcularValorMedio
+	 * Calcula a média de um atributo dos primeiros 'quantidade' elementos,
+	 * usando a função extratora passada por parâmetro.
+	 * Se houver menos elementos, usa os que existirem; retorna 0.0 se nenhum.
+	 */
+	@Override
+	public double calcularValorMedio(Function<E, Double> extrator, int quantidade) {
+		if (extrator == null) {
+			throw new IllegalArgumentException("A função extratora não pode ser nula.");
+		}
+		if (quantidade <= 0) {
+			return 0.0;
+		}
+		double soma = 0.0;
+		int cont = 0;
+		Celula<E> cursor = frente.getProximo();
+		while (cursor != null && cont < quantidade) {
+			Double valor = extrator.apply(cursor.getItem());
+			soma += (valor == null ? 0.0 : valor.doubleValue());
+			cont++;
+			cursor = cursor.getProximo();
+		}
+		return cont == 0 ? 0.0 : (soma / cont);
+	}
+
+	/**
+	 * Tarefa 3 (Fila): filtrar
+	 * Cria uma nova fila com os elementos, dentre os primeiros 'quantidade',
+	 * que satisfazem a condição do Predicate. Mantém a ordem original.
+	 */
+	@Override
+	public Fila<E> filtrar(Predicate<E> condicional, int quantidade) {
+		if (condicional == null) {
+			throw new IllegalArgumentException("A condição de filtro não pode ser nula.");
+		}
+		Fila<E> resultado = new Fila<E>();
+		if (quantidade <= 0) {
+			return resultado;
+		}
+		int cont = 0;
+		Celula<E> cursor = frente.getProximo();
+		while (cursor != null && cont < quantidade) {
+			E item = cursor.getItem();
+			if (condicional.test(item)) {
+				resultado.inserir(item);
+			}
+			cont++;
+			cursor = cursor.getProximo();
+		}
+		return resultado;
+	}
+
+	@Override
+	public Fila<E> filtrarParalelo(Predicate<E> condicional, int quantidade) {
+		if (condicional == null) {
+			throw new IllegalArgumentException("A condição de filtro não pode ser nula.");
+		}
+		Fila<E> resultado = new Fila<E>();
+		resultado.inserirTodos(StreamSupport.stream(spliterator(quantidade), true).filter(condicional).toList());
+		return resultado;
+	}
+}
+
+
@@ -0,0 +1,171 @@
+import java.util.Collection;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Fila em vetor circular que mantém somas de prefixo de um atributo registrado (função extratora).
+ * O valor de cada item é extraído uma única vez, na inserção, e acumulado; assim a soma e a média
+ * dos N primeiros itens são respondidas em O(1), sem reavaliar nenhum item.
+ * calcularValorMedio usa as somas quando recebe a mesma função registrada; com outra função, percorre a fila.
+ * Os valores refletem o atributo no momento da inserção; por isso o atributo não deve mudar depois dela
+ * (a fila de pedidos do App guarda pedidos finalizados, cujo valor final é congelado antes da inserção e não
+ * muda com a virada do dia). Os métodos são sincronizados, para que a fila
+ * possa ser compartilhada por vários terminais; percursos pelo iterador ou por visões devem ser feitos
+ * dentro de synchronized (fila), como nas coleções sincronizadas do Java.
+ */
+public class FilaAgregada<E> extends FilaCircular<E> {
+
+	private final Function<E, Double> extrator;
+
+	/**
+	 * Somas acumuladas, em vetor circular alinhado à fila: a posição do i-ésimo item guarda a soma
+	 * de todos os valores inseridos até ele (inclusive), desde a última vez em que a fila ficou vazia.
+	 */
+	private double[] acumulados;
+	private int inicioAcumulados;
+
+	/** Soma acumulada até o último item removido (descontada de todas as consultas) */
+	private double base;
+
+	/** Soma acumulada até o último item inserido */
+	private double total;
+
+	public FilaAgregada(Function<E, Double> extrator) {
+		if (extrator == null) {
+			throw new IllegalArgumentException("A função extratora não pode ser nula.");
+		}
+		this.extrator = extrator;
+		this.acumulados = new double[16];
+	}
+
+	public Function<E, Double> getExtrator() {
+		return extrator;
+	}
+
+	private int posicaoAcumulado(int i) {
+		int pos = inicioAcumulados + i;
+		return (pos < acumulados.length) ? pos : pos - acumulados.length;
+	}
+
+	@Override
+	public synchronized boolean vazia() {
+		return super.vazia();
+	}
+
+	@Override
+	public synchronized int tamanho() {
+		return super.tamanho();
+	}
+
+	/** Garante espaço nas somas acumuladas para 'necessario' itens */
+	private void garantirAcumulados(int necessario) {
+		if (necessario <= acumulados.length) {
+			return;
+		}
+		int quantos = super.tamanho();
+		double[] novos = new double[Math.max(acumulados.length * 2, necessario)];
+		int ateOFim = Math.min(quantos, acumulados.length - inicioAcumulados);
+		System.arraycopy(acumulados, inicioAcumulados, novos, 0, ateOFim);
+		System.arraycopy(acumulados, 0, novos, ateOFim, quantos - ateOFim);
+		acumulados = novos;
+		inicioAcumulados = 0;
+	}
+
+	@Override
+	public synchronized void inserir(E item) {
+		Double valor = extrator.apply(item);
+		int quantos = super.tamanho();
+		garantirAcumulados(quantos + 1);
+		super.inserir(item);
+		total += (valor == null ? 0.0 : valor.doubleValue());
+		acumulados[posicaoAcumulado(quantos)] = total;
+	}
+
+	/** Insere o lote inteiro e acumula os valores dos itens em uma única passada, sob um único bloqueio */
+	@Override
+	public synchronized void inserirTodos(Collection<? extends E> novos) {
+		double[] valores = new double[novos.size()];
+		int lidos = 0;
+		for (E item : novos) {
+			Double valor = extrator.apply(item);
+			valores[lidos++] = (valor == null ? 0.0 : valor.doubleValue());
+		}
+		int quantos = super.tamanho();
+		garantirAcumulados(quantos + lidos);
+		super.inserirTodos(novos);
+		for (int i = 0; i < lidos; i++) {
+			total += valores[i];
+			acumulados[posicaoAcumulado(quantos + i)] = total;
+		}
+	}
+
+	@Override
+	public synchronized E remover() {
+		E item = super.remover();
+		if (super.vazia()) {
+			// recomeça as somas do zero, para não acumular erro de arredondamento indefinidamente
+			base = 0.0;
+			total = 0.0;
+			inicioAcumulados = 0;
+		} else {
+			base = acumulados[inicioAcumulados];
+			inicioAcumulados = posicaoAcumulado(1);
+		}
+		return item;
+	}
+
+	/**
+	 * Soma do atributo registrado nos primeiros 'quantidade' itens, em O(1).
+	 * Se houver menos itens, soma os que existirem; retorna 0.0 se nenhum.
+	 */
+	public synchronized double somaPrimeiros(int quantidade) {
+		int cont = Math.min(Math.max(quantidade, 0), super.tamanho());
+		if (cont == 0) {
+			return 0.0;
+		}
+		return acumulados[posicaoAcumulado(cont - 1)] - base;
+	}
+
+	/**
+	 * Média do atributo registrado nos primeiros 'quantidade' itens, em O(1).
+	 * Se houver menos itens, usa os que existirem; retorna 0.0 se nenhum.
+	 */
+	public synchronized double mediaPrimeiros(int quantidade) {
+		int cont = Math.min(Math.max(quantidade, 0), super.tamanho());
+		return cont == 0 ? 0.0 : somaPrimeiros(cont) / cont;
+	}
+
+	/**
+	 * Com a função registrada, responde pelas somas de prefixo (O(1));
+	 * com qualquer outra função, percorre os primeiros itens como a FilaCircular.
+	 */
+	@Override
+	public synchronized double calcularValorMedio(Function<E, Double> extrator, int quantidade) {
+		if (extrator == this.extrator) {
+			return mediaPrimeiros(quantidade);
+		}
+		return super.calcularValorMedio(extrator, quantidade);
+	}
+
+	@Override
+	public synchronized FilaCircular<E> filtrar(Predicate<E> condicional, int quantidade) {
+		return super.filtrar(condicional, quantidade);
+	}
+
+	/**
+	 * Com a função registrada, responde pelas somas de prefixo (O(1)), sem usar outras threads;
+	 * com qualquer outra função, divide os primeiros itens entre as threads, mantendo a fila bloqueada.
+	 */
+	@Override
+	public synchronized double calcularValorMedioParalelo(Function<E, Double> extrator, int quantidade) {
+		if (extrator == this.extrator) {
+			return mediaPrimeiros(quantidade);
+		}
+		return super.calcularValorMedioParalelo(extrator, quantidade);
+	}
+
+	@Override
+	public synchronized FilaCircular<E> filtrarParalelo(Predicate<E> condicional, int quantidade) {
+		return super.filtrarParalelo(condicional, quantidade);
+	}
+}
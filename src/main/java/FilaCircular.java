@@ -0,0 +1,257 @@
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.StreamSupport;
+
+/**
+ * Fila genérica em vetor circular redimensionável.
+ * - inserir(E): grava na posição seguinte ao último item; dobra o vetor quando cheio (custo amortizado O(1)).
+ * - remover(): retira do início; lança exceção se vazia.
+ * Não aloca nenhuma célula por inserção, e os percursos de calcularValorMedio e filtrar são sequenciais na memória.
+ * O iterador não retira itens e falha (ConcurrentModificationException) se a fila for alterada durante o percurso.
+ * O spliterator conhece o tamanho exato e se divide ao meio pelas posições, em O(1), de modo que as versões
+ * paralelas de calcularValorMedio e filtrar recebem trechos equilibrados.
+ */
+public class FilaCircular<E> implements IFila<E> {
+
+	private static final int CAPACIDADE_INICIAL = 16;
+
+	private Object[] itens;
+	private int inicio;
+	private int quantidade;
+
+	/** Quantidade de alterações, para os iteradores detectarem alterações durante o percurso */
+	private int modificacoes;
+
+	public FilaCircular() {
+		this(CAPACIDADE_INICIAL);
+	}
+
+	public FilaCircular(int capacidadeInicial) {
+		if (capacidadeInicial < 1) {
+			throw new IllegalArgumentException("A capacidade inicial deve ser positiva.");
+		}
+		itens = new Object[capacidadeInicial];
+		inicio = 0;
+		quantidade = 0;
+	}
+
+	@Override
+	public boolean vazia() {
+		return quantidade == 0;
+	}
+
+	public int tamanho() {
+		return quantidade;
+	}
+
+	/** Posição no vetor do i-ésimo elemento a partir do início da fila */
+	protected final int posicao(int i) {
+		int pos = inicio + i;
+		return (pos < itens.length) ? pos : pos - itens.length;
+	}
+
+	/** Devolve, sem remover, o i-ésimo elemento a partir do início da fila */
+	@SuppressWarnings("unchecked")
+	protected final E obter(int i) {
+		return (E) itens[posicao(i)];
+	}
+
+	@Override
+	public void inserir(E item) {
+		if (quantidade == itens.length) {
+			redimensionar(itens.length * 2);
+		}
+		itens[posicao(quantidade)] = item;
+		quantidade++;
+		modificacoes++;
+	}
+
+	/** Copia o lote inteiro para o final da fila, com no máximo um redimensionamento */
+	@Override
+	public void inserirTodos(Collection<? extends E> novos) {
+		Object[] lote = novos.toArray();
+		if (quantidade + lote.length > itens.length) {
+			redimensionar(Math.max(itens.length * 2, quantidade + lote.length));
+		}
+		int fim = posicao(quantidade);
+		int ateOFim = Math.min(lote.length, itens.length - fim);
+		System.arraycopy(lote, 0, itens, fim, ateOFim);
+		System.arraycopy(lote, ateOFim, itens, 0, lote.length - ateOFim);
+		quantidade += lote.length;
+		modificacoes++;
+	}
+
+	@Override
+	public E remover() {
+		if (vazia()) {
+			throw new NoSuchElementException("Nao há nenhum item na fila!");
+		}
+		E item = obter(0);
+		itens[inicio] = null;
+		inicio = posicao(1);
+		quantidade--;
+		modificacoes++;
+		return item;
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+
+			private int proximo = 0;
+			private final int esperadas = modificacoes;
+
+			@Override
+			public boolean hasNext() {
+				return proximo < quantidade;
+			}
+
+			@Override
+			public E next() {
+				if (modificacoes != esperadas) {
+					throw new ConcurrentModificationException();
+				}
+				if (proximo >= quantidade) {
+					throw new NoSuchElementException();
+				}
+				return obter(proximo++);
+			}
+		};
+	}
+
+	@Override
+	public Spliterator<E> spliterator() {
+		return new Trecho(0, quantidade, modificacoes);
+	}
+
+	@Override
+	public Spliterator<E> spliterator(int quantidade) {
+		return new Trecho(0, Math.min(Math.max(quantidade, 0), this.quantidade), modificacoes);
+	}
+
+	/** Trecho [origem, fim) das posições da fila, dividido ao meio em trySplit */
+	private final class Trecho implements Spliterator<E> {
+
+		private int origem;
+		private final int fim;
+		private final int esperadas;
+
+		Trecho(int origem, int fim, int esperadas) {
+			this.origem = origem;
+			this.fim = fim;
+			this.esperadas = esperadas;
+		}
+
+		@Override
+		public Spliterator<E> trySplit() {
+			int meio = (origem + fim) >>> 1;
+			if (meio <= origem) {
+				return null;
+			}
+			Trecho prefixo = new Trecho(origem, meio, esperadas);
+			origem = meio;
+			return prefixo;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super E> acao) {
+			if (origem >= fim) {
+				return false;
+			}
+			E item = obter(origem++);
+			acao.accept(item);
+			if (modificacoes != esperadas) {
+				throw new ConcurrentModificationException();
+			}
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super E> acao) {
+			for (int i = origem; i < fim; i++) {
+				acao.accept(obter(i));
+			}
+			origem = fim;
+			if (modificacoes != esperadas) {
+				throw new ConcurrentModificationException();
+			}
+		}
+
+		@Override
+		public long estimateSize() {
+			return fim - origem;
+		}
+
+		@Override
+		public int characteristics() {
+			return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+		}
+	}
+
+	private void redimensionar(int novaCapacidade) {
+		Object[] novos = new Object[novaCapacidade];
+		int ateOFim = Math.min(quantidade, itens.length - inicio);
+		System.arraycopy(itens, inicio, novos, 0, ateOFim);
+		System.arraycopy(itens, 0, novos, ateOFim, quantidade - ateOFim);
+		itens = novos;
+		inicio = 0;
+	}
+
+	/**
+	 * Calcula a média de um atributo dos primeiros 'quantidade' elementos,
+	 * usando a função extratora passada por parâmetro.
+	 * Se houver menos elementos, usa os que existirem; retorna 0.0 se nenhum.
+	 */
+	@Override
+	public double calcularValorMedio(Function<E, Double> extrator, int quantidade) {
+		if (extrator == null) {
+			throw new IllegalArgumentException("A função extratora não pode ser nula.");
+		}
+		int cont = Math.min(Math.max(quantidade, 0), this.quantidade);
+		if (cont == 0) {
+			return 0.0;
+		}
+		double soma = 0.0;
+		for (int i = 0; i < cont; i++) {
+			Double valor = extrator.apply(obter(i));
+			soma += (valor == null ? 0.0 : valor.doubleValue());
+		}
+		return soma / cont;
+	}
+
+	/**
+	 * Cria uma nova fila com os elementos, dentre os primeiros 'quantidade',
+	 * que satisfazem a condição do Predicate. Mantém a ordem original.
+	 */
+	@Override
+	public FilaCircular<E> filtrar(Predicate<E> condicional, int quantidade) {
+		if (condicional == null) {
+			throw new IllegalArgumentException("A condição de filtro não pode ser nula.");
+		}
+		FilaCircular<E> resultado = new FilaCircular<E>();
+		int cont = Math.min(Math.max(quantidade, 0), this.quantidade);
+		for (int i = 0; i < cont; i++) {
+			E item = obter(i);
+			if (condicional.test(item)) {
+				resultado.inserir(item);
+			}
+		}
+		return resultado;
+	}
+
+	@Override
+	public FilaCircular<E> filtrarParalelo(Predicate<E> condicional, int quantidade) {
+		if (condicional == null) {
+			throw new IllegalArgumentException("A condição de filtro não pode ser nula.");
+		}
+		FilaCircular<E> resultado = new FilaCircular<E>();
+		resultado.inserirTodos(StreamSupport.stream(spliterator(quantidade), true).filter(condicional).toList());
+		return resultado;
+	}
+}
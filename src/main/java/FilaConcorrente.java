@@ -0,0 +1,259 @@
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.StreamSupport;
+
+/**
+ * Fila encadeada sem bloqueio (algoritmo de Michael e Scott), segura para vários produtores e consumidores.
+ * Mantém a mesma estrutura da {@link Fila}: uma célula sentinela na frente e inserção no final,
+ * mas os encadeamentos e as referências de frente e trás são atualizados por compare-and-set.
+ * Os percursos de calcularValorMedio, filtrar e do iterador são fracamente consistentes: enxergam os itens
+ * presentes no momento em que passam por eles, sem bloquear produtores nem consumidores.
+ * Itens nulos não são aceitos, pois a célula sentinela é reconhecida pelo item nulo.
+ */
+public class FilaConcorrente<E> implements IFila<E> {
+
+	/** Célula da fila com encadeamento atômico */
+	private static final class No<E> {
+
+		private volatile E item;
+		private volatile No<E> proximo;
+
+		@SuppressWarnings("rawtypes")
+		private static final AtomicReferenceFieldUpdater<No, No> PROXIMO =
+				AtomicReferenceFieldUpdater.newUpdater(No.class, No.class, "proximo");
+
+		No(E item) {
+			this.item = item;
+		}
+
+		boolean casProximo(No<E> esperado, No<E> novo) {
+			return PROXIMO.compareAndSet(this, esperado, novo);
+		}
+	}
+
+	private volatile No<E> frente;
+	private volatile No<E> tras;
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<FilaConcorrente, No> FRENTE =
+			AtomicReferenceFieldUpdater.newUpdater(FilaConcorrente.class, No.class, "frente");
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<FilaConcorrente, No> TRAS =
+			AtomicReferenceFieldUpdater.newUpdater(FilaConcorrente.class, No.class, "tras");
+
+	public FilaConcorrente() {
+		No<E> sentinela = new No<E>(null);
+		frente = sentinela;
+		tras = sentinela;
+	}
+
+	@Override
+	public boolean vazia() {
+		return frente.proximo == null;
+	}
+
+	@Override
+	public void inserir(E item) {
+		if (item == null) {
+			throw new IllegalArgumentException("A fila concorrente não aceita itens nulos.");
+		}
+		No<E> nova = new No<E>(item);
+		encadear(nova, nova);
+	}
+
+	/**
+	 * Encadeia os itens em células e liga a sequência inteira ao final da fila com um único compare-and-set,
+	 * de modo que os itens do lote ficam contíguos mesmo com inserções simultâneas.
+	 */
+	@Override
+	public void inserirTodos(Collection<? extends E> itens) {
+		No<E> primeira = null;
+		No<E> ultima = null;
+		for (E item : itens) {
+			if (item == null) {
+				throw new IllegalArgumentException("A fila concorrente não aceita itens nulos.");
+			}
+			No<E> nova = new No<E>(item);
+			if (primeira == null) {
+				primeira = nova;
+			} else {
+				ultima.proximo = nova;
+			}
+			ultima = nova;
+		}
+		if (primeira != null) {
+			encadear(primeira, ultima);
+		}
+	}
+
+	/** Liga a sequência de células de 'primeira' a 'ultima' ao final da fila */
+	private void encadear(No<E> primeira, No<E> novaUltima) {
+		while (true) {
+			No<E> ultima = tras;
+			No<E> seguinte = ultima.proximo;
+			if (ultima != tras) {
+				continue;
+			}
+			if (seguinte == null) {
+				if (ultima.casProximo(null, primeira)) {
+					TRAS.compareAndSet(this, ultima, novaUltima);
+					return;
+				}
+			} else {
+				// outra thread inseriu e ainda não avançou 'tras': ajuda a avançar
+				TRAS.compareAndSet(this, ultima, seguinte);
+			}
+		}
+	}
+
+	@Override
+	public E remover() {
+		while (true) {
+			No<E> sentinela = frente;
+			No<E> ultima = tras;
+			No<E> primeira = sentinela.proximo;
+			if (sentinela != frente) {
+				continue;
+			}
+			if (primeira == null) {
+				throw new NoSuchElementException("Nao há nenhum item na fila!");
+			}
+			if (sentinela == ultima) {
+				TRAS.compareAndSet(this, ultima, primeira);
+				continue;
+			}
+			E item = primeira.item;
+			if (FRENTE.compareAndSet(this, sentinela, primeira)) {
+				// a primeira célula passa a ser a sentinela e não deve reter o item removido
+				primeira.item = null;
+				return item;
+			}
+		}
+	}
+
+	/**
+	 * Conta os itens percorrendo a fila, em O(n); com outras threads inserindo ou removendo,
+	 * o resultado é apenas aproximado, como em java.util.concurrent.ConcurrentLinkedQueue.
+	 */
+	@Override
+	public int tamanho() {
+		int cont = 0;
+		for (No<E> cursor = frente.proximo; cursor != null; cursor = cursor.proximo) {
+			if (cursor.item != null) {
+				cont++;
+			}
+		}
+		return cont;
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+
+			private No<E> cursor = frente.proximo;
+			private E proximo = avancar();
+
+			/** Devolve o próximo item ainda presente, pulando as células já retiradas (item nulo) */
+			private E avancar() {
+				while (cursor != null) {
+					E item = cursor.item;
+					cursor = cursor.proximo;
+					if (item != null) {
+						return item;
+					}
+				}
+				return null;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return proximo != null;
+			}
+
+			@Override
+			public E next() {
+				if (proximo == null) {
+					throw new NoSuchElementException();
+				}
+				E item = proximo;
+				proximo = avancar();
+				return item;
+			}
+		};
+	}
+
+	@Override
+	public Spliterator<E> spliterator() {
+		return Spliterators.spliteratorUnknownSize(iterator(),
+				Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.CONCURRENT);
+	}
+
+	/**
+	 * Calcula a média de um atributo dos primeiros 'quantidade' elementos,
+	 * usando a função extratora passada por parâmetro.
+	 * Se houver menos elementos, usa os que existirem; retorna 0.0 se nenhum.
+	 */
+	@Override
+	public double calcularValorMedio(Function<E, Double> extrator, int quantidade) {
+		if (extrator == null) {
+			throw new IllegalArgumentException("A função extratora não pode ser nula.");
+		}
+		if (quantidade <= 0) {
+			return 0.0;
+		}
+		double soma = 0.0;
+		int cont = 0;
+		No<E> cursor = frente.proximo;
+		while (cursor != null && cont < quantidade) {
+			E item = cursor.item;
+			if (item != null) {
+				Double valor = extrator.apply(item);
+				soma += (valor == null ? 0.0 : valor.doubleValue());
+				cont++;
+			}
+			cursor = cursor.proximo;
+		}
+		return cont == 0 ? 0.0 : (soma / cont);
+	}
+
+	/**
+	 * Cria uma nova fila com os elementos, dentre os primeiros 'quantidade',
+	 * que satisfazem a condição do Predicate. Mantém a ordem original.
+	 */
+	@Override
+	public FilaConcorrente<E> filtrar(Predicate<E> condicional, int quantidade) {
+		if (condicional == null) {
+			throw new IllegalArgumentException("A condição de filtro não pode ser nula.");
+		}
+		FilaConcorrente<E> resultado = new FilaConcorrente<E>();
+		int cont = 0;
+		No<E> cursor = frente.proximo;
+		while (cursor != null && cont < quantidade) {
+			E item = cursor.item;
+			if (item != null) {
+				if (condicional.test(item)) {
+					resultado.inserir(item);
+				}
+				cont++;
+			}
+			cursor = cursor.proximo;
+		}
+		return resultado;
+	}
+
+	@Override
+	public FilaConcorrente<E> filtrarParalelo(Predicate<E> condicional, int quantidade) {
+		if (condicional == null) {
+			throw new IllegalArgumentException("A condição de filtro não pode ser nula.");
+		}
+		FilaConcorrente<E> resultado = new FilaConcorrente<E>();
+		resultado.inserirTodos(StreamSupport.stream(spliterator(quantidade), true).filter(condicional).toList());
+		return resultado;
+	}
+}
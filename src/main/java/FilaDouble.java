@@ -0,0 +1,205 @@
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleUnaryOperator;
+import java.util.stream.DoubleStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Fila de valores double em vetor circular de double, sem objetos por item: nenhuma operação converte os valores
+ * em Double (inserção, remoção, média, filtro, iterador e fluxo).
+ * Mesmas operações e regras da {@link FilaCircular}, com interfaces funcionais primitivas
+ * (DoubleUnaryOperator na média e DoublePredicate no filtro).
+ * O iterador não retira itens e falha (ConcurrentModificationException) se a fila for alterada durante o percurso.
+ */
+public class FilaDouble {
+
+	private static final int CAPACIDADE_INICIAL = 16;
+
+	private double[] itens;
+	private int inicio;
+	private int quantidade;
+
+	/** Quantidade de alterações, para os iteradores detectarem alterações durante o percurso */
+	private int modificacoes;
+
+	public FilaDouble() {
+		this(CAPACIDADE_INICIAL);
+	}
+
+	public FilaDouble(int capacidadeInicial) {
+		if (capacidadeInicial < 1) {
+			throw new IllegalArgumentException("A capacidade inicial deve ser positiva.");
+		}
+		itens = new double[capacidadeInicial];
+	}
+
+	public boolean vazia() {
+		return quantidade == 0;
+	}
+
+	public int tamanho() {
+		return quantidade;
+	}
+
+	/** Posição no vetor do i-ésimo elemento a partir do início da fila */
+	private int posicao(int i) {
+		int pos = inicio + i;
+		return (pos < itens.length) ? pos : pos - itens.length;
+	}
+
+	/**
+	 * Devolve, sem remover, o i-ésimo elemento a partir do início da fila.
+	 * @throws IllegalArgumentException se a posição não existir.
+	 */
+	public double obter(int i) {
+		if (i < 0 || i >= quantidade) {
+			throw new IllegalArgumentException("Posição inválida: " + i);
+		}
+		return itens[posicao(i)];
+	}
+
+	/** Adiciona o valor no final da fila */
+	public void inserir(double valor) {
+		if (quantidade == itens.length) {
+			redimensionar(itens.length * 2);
+		}
+		itens[posicao(quantidade)] = valor;
+		quantidade++;
+		modificacoes++;
+	}
+
+	/** Adiciona os valores no final da fila, na ordem do vetor, com no máximo um redimensionamento */
+	public void inserirTodos(double[] valores) {
+		if (quantidade + valores.length > itens.length) {
+			redimensionar(Math.max(itens.length * 2, quantidade + valores.length));
+		}
+		int destino = posicao(quantidade);
+		int ateOFim = Math.min(valores.length, itens.length - destino);
+		System.arraycopy(valores, 0, itens, destino, ateOFim);
+		System.arraycopy(valores, ateOFim, itens, 0, valores.length - ateOFim);
+		quantidade += valores.length;
+		modificacoes++;
+	}
+
+	/**
+	 * Retira e devolve o valor do início da fila.
+	 * @throws NoSuchElementException se a fila estiver vazia.
+	 */
+	public double remover() {
+		if (vazia()) {
+			throw new NoSuchElementException("Nao há nenhum item na fila!");
+		}
+		double valor = itens[inicio];
+		inicio = posicao(1);
+		quantidade--;
+		modificacoes++;
+		return valor;
+	}
+
+	private void redimensionar(int novaCapacidade) {
+		double[] novos = new double[novaCapacidade];
+		int ateOFim = Math.min(quantidade, itens.length - inicio);
+		System.arraycopy(itens, inicio, novos, 0, ateOFim);
+		System.arraycopy(itens, 0, novos, ateOFim, quantidade - ateOFim);
+		itens = novos;
+		inicio = 0;
+	}
+
+	/**
+	 * Calcula a média de um atributo dos primeiros 'quantidade' valores, usando a função extratora.
+	 * Se houver menos valores, usa os que existirem; retorna 0.0 se nenhum.
+	 */
+	public double calcularValorMedio(DoubleUnaryOperator extrator, int quantidade) {
+		if (extrator == null) {
+			throw new IllegalArgumentException("A função extratora não pode ser nula.");
+		}
+		int cont = Math.min(Math.max(quantidade, 0), this.quantidade);
+		if (cont == 0) {
+			return 0.0;
+		}
+		double soma = 0.0;
+		for (int i = 0; i < cont; i++) {
+			soma += extrator.applyAsDouble(itens[posicao(i)]);
+		}
+		return soma / cont;
+	}
+
+	/** Média dos primeiros 'quantidade' valores (ou de todos, se houver menos); 0.0 se nenhum */
+	public double calcularValorMedio(int quantidade) {
+		int cont = Math.min(Math.max(quantidade, 0), this.quantidade);
+		if (cont == 0) {
+			return 0.0;
+		}
+		double soma = 0.0;
+		for (int i = 0; i < cont; i++) {
+			soma += itens[posicao(i)];
+		}
+		return soma / cont;
+	}
+
+	/**
+	 * Cria uma nova fila com os valores, dentre os primeiros 'quantidade',
+	 * que satisfazem a condição. Mantém a ordem original.
+	 */
+	public FilaDouble filtrar(DoublePredicate condicional, int quantidade) {
+		if (condicional == null) {
+			throw new IllegalArgumentException("A condição de filtro não pode ser nula.");
+		}
+		FilaDouble resultado = new FilaDouble();
+		int cont = Math.min(Math.max(quantidade, 0), this.quantidade);
+		for (int i = 0; i < cont; i++) {
+			double valor = itens[posicao(i)];
+			if (condicional.test(valor)) {
+				resultado.inserir(valor);
+			}
+		}
+		return resultado;
+	}
+
+	/** Cópia dos valores, do início ao fim da fila */
+	public double[] paraVetor() {
+		double[] copia = new double[quantidade];
+		int ateOFim = Math.min(quantidade, itens.length - inicio);
+		System.arraycopy(itens, inicio, copia, 0, ateOFim);
+		System.arraycopy(itens, 0, copia, ateOFim, quantidade - ateOFim);
+		return copia;
+	}
+
+	/** Iterador dos valores, do início ao fim, sem retirá-los (use nextDouble para não converter em Double) */
+	public PrimitiveIterator.OfDouble iterator() {
+		return new PrimitiveIterator.OfDouble() {
+
+			private int proximo = 0;
+			private final int esperadas = modificacoes;
+
+			@Override
+			public boolean hasNext() {
+				return proximo < quantidade;
+			}
+
+			@Override
+			public double nextDouble() {
+				if (modificacoes != esperadas) {
+					throw new ConcurrentModificationException();
+				}
+				if (proximo >= quantidade) {
+					throw new NoSuchElementException();
+				}
+				return itens[posicao(proximo++)];
+			}
+		};
+	}
+
+	public Spliterator.OfDouble spliterator() {
+		return Spliterators.spliterator(iterator(), quantidade, Spliterator.ORDERED);
+	}
+
+	/** Fluxo (DoubleStream) sequencial dos valores, do início ao fim, sem retirá-los */
+	public DoubleStream stream() {
+		return StreamSupport.doubleStream(spliterator(), false);
+	}
+}
@@ -0,0 +1,205 @@
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntPredicate;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Fila de valores int em vetor circular de int, sem objetos por item: nenhuma operação converte os valores
+ * em Integer (inserção, remoção, média, filtro, iterador e fluxo).
+ * Mesmas operações e regras da {@link FilaCircular}, com interfaces funcionais primitivas
+ * (IntToDoubleFunction na média e IntPredicate no filtro).
+ * O iterador não retira itens e falha (ConcurrentModificationException) se a fila for alterada durante o percurso.
+ */
+public class FilaInt {
+
+	private static final int CAPACIDADE_INICIAL = 16;
+
+	private int[] itens;
+	private int inicio;
+	private int quantidade;
+
+	/** Quantidade de alterações, para os iteradores detectarem alterações durante o percurso */
+	private int modificacoes;
+
+	public FilaInt() {
+		this(CAPACIDADE_INICIAL);
+	}
+
+	public FilaInt(int capacidadeInicial) {
+		if (capacidadeInicial < 1) {
+			throw new IllegalArgumentException("A capacidade inicial deve ser positiva.");
+		}
+		itens = new int[capacidadeInicial];
+	}
+
+	public boolean vazia() {
+		return quantidade == 0;
+	}
+
+	public int tamanho() {
+		return quantidade;
+	}
+
+	/** Posição no vetor do i-ésimo elemento a partir do início da fila */
+	private int posicao(int i) {
+		int pos = inicio + i;
+		return (pos < itens.length) ? pos : pos - itens.length;
+	}
+
+	/**
+	 * Devolve, sem remover, o i-ésimo elemento a partir do início da fila.
+	 * @throws IllegalArgumentException se a posição não existir.
+	 */
+	public int obter(int i) {
+		if (i < 0 || i >= quantidade) {
+			throw new IllegalArgumentException("Posição inválida: " + i);
+		}
+		return itens[posicao(i)];
+	}
+
+	/** Adiciona o valor no final da fila */
+	public void inserir(int valor) {
+		if (quantidade == itens.length) {
+			redimensionar(itens.length * 2);
+		}
+		itens[posicao(quantidade)] = valor;
+		quantidade++;
+		modificacoes++;
+	}
+
+	/** Adiciona os valores no final da fila, na ordem do vetor, com no máximo um redimensionamento */
+	public void inserirTodos(int[] valores) {
+		if (quantidade + valores.length > itens.length) {
+			redimensionar(Math.max(itens.length * 2, quantidade + valores.length));
+		}
+		int destino = posicao(quantidade);
+		int ateOFim = Math.min(valores.length, itens.length - destino);
+		System.arraycopy(valores, 0, itens, destino, ateOFim);
+		System.arraycopy(valores, ateOFim, itens, 0, valores.length - ateOFim);
+		quantidade += valores.length;
+		modificacoes++;
+	}
+
+	/**
+	 * Retira e devolve o valor do início da fila.
+	 * @throws NoSuchElementException se a fila estiver vazia.
+	 */
+	public int remover() {
+		if (vazia()) {
+			throw new NoSuchElementException("Nao há nenhum item na fila!");
+		}
+		int valor = itens[inicio];
+		inicio = posicao(1);
+		quantidade--;
+		modificacoes++;
+		return valor;
+	}
+
+	private void redimensionar(int novaCapacidade) {
+		int[] novos = new int[novaCapacidade];
+		int ateOFim = Math.min(quantidade, itens.length - inicio);
+		System.arraycopy(itens, inicio, novos, 0, ateOFim);
+		System.arraycopy(itens, 0, novos, ateOFim, quantidade - ateOFim);
+		itens = novos;
+		inicio = 0;
+	}
+
+	/**
+	 * Calcula a média de um atributo dos primeiros 'quantidade' valores, usando a função extratora.
+	 * Se houver menos valores, usa os que existirem; retorna 0.0 se nenhum.
+	 */
+	public double calcularValorMedio(IntToDoubleFunction extrator, int quantidade) {
+		if (extrator == null) {
+			throw new IllegalArgumentException("A função extratora não pode ser nula.");
+		}
+		int cont = Math.min(Math.max(quantidade, 0), this.quantidade);
+		if (cont == 0) {
+			return 0.0;
+		}
+		double soma = 0.0;
+		for (int i = 0; i < cont; i++) {
+			soma += extrator.applyAsDouble(itens[posicao(i)]);
+		}
+		return soma / cont;
+	}
+
+	/** Média dos primeiros 'quantidade' valores (ou de todos, se houver menos); 0.0 se nenhum */
+	public double calcularValorMedio(int quantidade) {
+		int cont = Math.min(Math.max(quantidade, 0), this.quantidade);
+		if (cont == 0) {
+			return 0.0;
+		}
+		double soma = 0.0;
+		for (int i = 0; i < cont; i++) {
+			soma += itens[posicao(i)];
+		}
+		return soma / cont;
+	}
+
+	/**
+	 * Cria uma nova fila com os valores, dentre os primeiros 'quantidade',
+	 * que satisfazem a condição. Mantém a ordem original.
+	 */
+	public FilaInt filtrar(IntPredicate condicional, int quantidade) {
+		if (condicional == null) {
+			throw new IllegalArgumentException("A condição de filtro não pode ser nula.");
+		}
+		FilaInt resultado = new FilaInt();
+		int cont = Math.min(Math.max(quantidade, 0), this.quantidade);
+		for (int i = 0; i < cont; i++) {
+			int valor = itens[posicao(i)];
+			if (condicional.test(valor)) {
+				resultado.inserir(valor);
+			}
+		}
+		return resultado;
+	}
+
+	/** Cópia dos valores, do início ao fim da fila */
+	public int[] paraVetor() {
+		int[] copia = new int[quantidade];
+		int ateOFim = Math.min(quantidade, itens.length - inicio);
+		System.arraycopy(itens, inicio, copia, 0, ateOFim);
+		System.arraycopy(itens, 0, copia, ateOFim, quantidade - ateOFim);
+		return copia;
+	}
+
+	/** Iterador dos valores, do início ao fim, sem retirá-los (use nextInt para não converter em Integer) */
+	public PrimitiveIterator.OfInt iterator() {
+		return new PrimitiveIterator.OfInt() {
+
+			private int proximo = 0;
+			private final int esperadas = modificacoes;
+
+			@Override
+			public boolean hasNext() {
+				return proximo < quantidade;
+			}
+
+			@Override
+			public int nextInt() {
+				if (modificacoes != esperadas) {
+					throw new ConcurrentModificationException();
+				}
+				if (proximo >= quantidade) {
+					throw new NoSuchElementException();
+				}
+				return itens[posicao(proximo++)];
+			}
+		};
+	}
+
+	public Spliterator.OfInt spliterator() {
+		return Spliterators.spliterator(iterator(), quantidade, Spliterator.ORDERED);
+	}
+
+	/** Fluxo (IntStream) sequencial dos valores, do início ao fim, sem retirá-los */
+	public IntStream stream() {
+		return StreamSupport.intStream(spliterator(), false);
+	}
+}
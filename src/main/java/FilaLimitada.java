@@ -0,0 +1,315 @@
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Fila de capacidade limitada sobre uma {@link Fila}, para segurar a entrada de pedidos em picos de carga
+ * sem deixar a memória crescer sem limite.
+ * Quando a fila está cheia, inserir segue a política de excesso escolhida:
+ * - BLOQUEAR: espera até haver espaço (contrapressão sobre quem produz);
+ * - REJEITAR: lança IllegalStateException, sem inserir;
+ * - DESCARTAR_MAIS_ANTIGO: retira o item do início para dar lugar ao novo.
+ * colocar é a versão de inserir cuja espera pode ser interrompida (como BlockingQueue.put);
+ * oferecer e retirar são as versões que não lançam exceção, com espera opcional limitada por um tempo;
+ * drenarPara retira de uma vez vários itens para uma coleção.
+ * Os contadores (rejeitados, descartados, esperas e tempo total de espera dos produtores) servem para ajustar
+ * a capacidade em função da latência.
+ * Os métodos são sincronizados e as esperas usam wait/notifyAll no próprio objeto; percursos pelo iterador ou
+ * por visões devem ser feitos dentro de synchronized (fila). Itens nulos não são aceitos, pois retirar e
+ * oferecer usam null para indicar fila vazia.
+ */
+public class FilaLimitada<E> implements IFila<E> {
+
+	/** O que fazer com um item inserido quando a fila está cheia */
+	public enum PoliticaExcesso {
+		BLOQUEAR, REJEITAR, DESCARTAR_MAIS_ANTIGO
+	}
+
+	private final Fila<E> itens = new Fila<E>();
+	private final int capacidade;
+	private final PoliticaExcesso politica;
+
+	private long rejeitados;
+	private long descartados;
+	private long esperas;
+	private long nanosEsperando;
+
+	/**
+	 * Cria uma fila limitada vazia.
+	 * @param capacidade Quantidade máxima de itens na fila.
+	 * @param politica O que fazer ao inserir com a fila cheia.
+	 */
+	public FilaLimitada(int capacidade, PoliticaExcesso politica) {
+		if (capacidade < 1) {
+			throw new IllegalArgumentException("A capacidade deve ser positiva.");
+		}
+		if (politica == null) {
+			throw new IllegalArgumentException("A política de excesso não pode ser nula.");
+		}
+		this.capacidade = capacidade;
+		this.politica = politica;
+	}
+
+	public int getCapacidade() {
+		return capacidade;
+	}
+
+	public PoliticaExcesso getPolitica() {
+		return politica;
+	}
+
+	@Override
+	public synchronized boolean vazia() {
+		return itens.vazia();
+	}
+
+	@Override
+	public synchronized int tamanho() {
+		return itens.tamanho();
+	}
+
+	/** Quantos itens ainda cabem na fila */
+	public synchronized int espacoLivre() {
+		return capacidade - itens.tamanho();
+	}
+
+	/**
+	 * Adiciona o item no final da fila; se ela estiver cheia, segue a política de excesso.
+	 * Com BLOQUEAR, uma interrupção durante a espera não a encerra (IFila.inserir não lança exceções
+	 * verificadas): o estado de interrupção é restaurado depois da inserção. Para que a interrupção encerre a
+	 * espera, use {@link #colocar(Object)}.
+	 * @throws IllegalStateException se a fila estiver cheia e a política for REJEITAR.
+	 */
+	@Override
+	public synchronized void inserir(E item) {
+		validar(item);
+		if (cheia()) {
+			switch (politica) {
+				case REJEITAR -> {
+					rejeitados++;
+					throw new IllegalStateException("A fila está cheia!");
+				}
+				case DESCARTAR_MAIS_ANTIGO -> descartarMaisAntigo();
+				case BLOQUEAR -> esperarEspaco();
+			}
+		}
+		adicionar(item);
+	}
+
+	/**
+	 * Adiciona o item no final da fila, como inserir, mas com BLOQUEAR a espera por espaço termina se a thread
+	 * for interrompida: o item não é inserido e a exceção é lançada (o tempo esperado é contado mesmo assim).
+	 * @throws InterruptedException se a thread for interrompida durante a espera.
+	 * @throws IllegalStateException se a fila estiver cheia e a política for REJEITAR.
+	 */
+	public synchronized void colocar(E item) throws InterruptedException {
+		validar(item);
+		if (cheia() && politica == PoliticaExcesso.BLOQUEAR) {
+			long inicio = System.nanoTime();
+			esperas++;
+			try {
+				while (cheia()) {
+					wait();
+				}
+			} finally {
+				nanosEsperando += System.nanoTime() - inicio;
+			}
+		}
+		inserir(item);
+	}
+
+	/**
+	 * Adiciona os itens no final da fila, na ordem da coleção, cada um conforme a política de excesso.
+	 * Com REJEITAR, os itens anteriores ao que não coube permanecem inseridos.
+	 */
+	@Override
+	public synchronized void inserirTodos(Collection<? extends E> novos) {
+		for (E item : novos) {
+			inserir(item);
+		}
+	}
+
+	/**
+	 * Adiciona o item se houver espaço, sem esperar.
+	 * Com DESCARTAR_MAIS_ANTIGO, sempre insere, retirando o item do início se preciso.
+	 * @return false se a fila estava cheia e o item não foi inserido (contado como rejeitado).
+	 */
+	public synchronized boolean oferecer(E item) {
+		validar(item);
+		if (cheia()) {
+			if (politica != PoliticaExcesso.DESCARTAR_MAIS_ANTIGO) {
+				rejeitados++;
+				return false;
+			}
+			descartarMaisAntigo();
+		}
+		adicionar(item);
+		return true;
+	}
+
+	/**
+	 * Adiciona o item, esperando no máximo o tempo informado por espaço na fila.
+	 * Com REJEITAR, não espera; com DESCARTAR_MAIS_ANTIGO, sempre insere sem esperar.
+	 * @return false se o tempo acabou (ou a política é REJEITAR) com a fila cheia; o item é contado como rejeitado.
+	 * @throws InterruptedException se a thread for interrompida durante a espera.
+	 */
+	public synchronized boolean oferecer(E item, long tempo, TimeUnit unidade) throws InterruptedException {
+		validar(item);
+		if (cheia() && politica == PoliticaExcesso.BLOQUEAR) {
+			long inicio = System.nanoTime();
+			long prazo = inicio + unidade.toNanos(Math.max(tempo, 0));
+			long restante = prazo - inicio;
+			esperas++;
+			try {
+				while (cheia() && restante > 0) {
+					TimeUnit.NANOSECONDS.timedWait(this, restante);
+					restante = prazo - System.nanoTime();
+				}
+			} finally {
+				nanosEsperando += System.nanoTime() - inicio;
+			}
+		}
+		return oferecer(item);
+	}
+
+	/**
+	 * Retira e devolve o item do início da fila.
+	 * @throws NoSuchElementException se a fila estiver vazia.
+	 */
+	@Override
+	public synchronized E remover() {
+		E item = itens.remover();
+		notifyAll();
+		return item;
+	}
+
+	/** Retira e devolve o item do início da fila, ou null se ela estiver vazia, sem esperar */
+	public synchronized E retirar() {
+		return itens.vazia() ? null : remover();
+	}
+
+	/**
+	 * Retira e devolve o item do início da fila, esperando no máximo o tempo informado por um item.
+	 * @return O item retirado, ou null se o tempo acabou com a fila vazia.
+	 * @throws InterruptedException se a thread for interrompida durante a espera.
+	 */
+	public synchronized E retirar(long tempo, TimeUnit unidade) throws InterruptedException {
+		long prazo = System.nanoTime() + unidade.toNanos(Math.max(tempo, 0));
+		long restante = prazo - System.nanoTime();
+		while (itens.vazia() && restante > 0) {
+			TimeUnit.NANOSECONDS.timedWait(this, restante);
+			restante = prazo - System.nanoTime();
+		}
+		return retirar();
+	}
+
+	/**
+	 * Retira, sem esperar, até 'maximo' itens do início da fila e os adiciona ao destino, na ordem da fila.
+	 * @return Quantos itens foram transferidos.
+	 */
+	public synchronized int drenarPara(Collection<? super E> destino, int maximo) {
+		if (destino == null) {
+			throw new IllegalArgumentException("O destino não pode ser nulo.");
+		}
+		int transferidos = 0;
+		while (transferidos < maximo && !itens.vazia()) {
+			destino.add(itens.remover());
+			transferidos++;
+		}
+		if (transferidos > 0) {
+			notifyAll();
+		}
+		return transferidos;
+	}
+
+	/** Retira todos os itens da fila e os adiciona ao destino, na ordem da fila */
+	public synchronized int drenarPara(Collection<? super E> destino) {
+		return drenarPara(destino, Integer.MAX_VALUE);
+	}
+
+	/** Itens não inseridos por falta de espaço (inserir com REJEITAR e oferecer que devolveu false) */
+	public synchronized long getRejeitados() {
+		return rejeitados;
+	}
+
+	/** Itens retirados do início para dar lugar a novos (DESCARTAR_MAIS_ANTIGO) */
+	public synchronized long getDescartados() {
+		return descartados;
+	}
+
+	/** Vezes em que um produtor esperou por espaço na fila */
+	public synchronized long getEsperas() {
+		return esperas;
+	}
+
+	/** Tempo total, em nanossegundos, que os produtores passaram esperando por espaço na fila */
+	public synchronized long getNanosEsperando() {
+		return nanosEsperando;
+	}
+
+	@Override
+	public synchronized double calcularValorMedio(Function<E, Double> extrator, int quantidade) {
+		return itens.calcularValorMedio(extrator, quantidade);
+	}
+
+	@Override
+	public synchronized Fila<E> filtrar(Predicate<E> condicional, int quantidade) {
+		return itens.filtrar(condicional, quantidade);
+	}
+
+	@Override
+	public synchronized double calcularValorMedioParalelo(Function<E, Double> extrator, int quantidade) {
+		return itens.calcularValorMedioParalelo(extrator, quantidade);
+	}
+
+	@Override
+	public synchronized Fila<E> filtrarParalelo(Predicate<E> condicional, int quantidade) {
+		return itens.filtrarParalelo(condicional, quantidade);
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return itens.iterator();
+	}
+
+	private boolean cheia() {
+		return itens.tamanho() >= capacidade;
+	}
+
+	private void validar(E item) {
+		if (item == null) {
+			throw new IllegalArgumentException("O item não pode ser nulo.");
+		}
+	}
+
+	private void adicionar(E item) {
+		itens.inserir(item);
+		notifyAll();
+	}
+
+	private void descartarMaisAntigo() {
+		itens.remover();
+		descartados++;
+	}
+
+	/** Espera, sem interrupção, até haver espaço na fila, acumulando o tempo de espera */
+	private void esperarEspaco() {
+		long inicio = System.nanoTime();
+		boolean interrompida = false;
+		esperas++;
+		while (cheia()) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				interrompida = true;
+			}
+		}
+		nanosEsperando += System.nanoTime() - inicio;
+		if (interrompida) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
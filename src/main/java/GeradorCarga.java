@@ -0,0 +1,163 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Gerador de carga do {@link ServicoPedidos}: para cada quantidade de sessões simultâneas (etapa), abre as
+ * sessões ao mesmo tempo e cada uma monta e finaliza a sua sequência de pedidos, com produtos sorteados
+ * do catálogo carregado. Ao final de cada etapa, exibe a vazão (pedidos finalizados por segundo) e a latência
+ * da finalização (p50, p99 e máximo), para acompanhar como o serviço escala com o número de sessões.
+ * Os pedidos gerados são pedidos reais: entram na pilha, na fila, nos índices e no diário de pedidos
+ * (use -Ddiario= para não gravá-los, ou outro arquivo de diário).
+ * Propriedades: "carga.pedidos" (pedidos por sessão, padrão 20) e "carga.produtos" (máximo de produtos por
+ * pedido, padrão 5).
+ */
+public class GeradorCarga {
+
+	/** Quantidades de sessões simultâneas usadas quando nenhuma é informada */
+	static final int[] ETAPAS_PADRAO = { 1, 10, 100, 1000 };
+
+	private final int pedidosPorSessao;
+	private final int maxProdutos;
+	private final int[] codigos;
+
+	private GeradorCarga(int pedidosPorSessao, int maxProdutos, int[] codigos) {
+		this.pedidosPorSessao = pedidosPorSessao;
+		this.maxProdutos = maxProdutos;
+		this.codigos = codigos;
+	}
+
+	/**
+	 * Converte os argumentos a partir da posição 'desde' em quantidades de sessões por etapa.
+	 * @return As quantidades informadas, ou {@link #ETAPAS_PADRAO} se não houver nenhuma.
+	 * @throws IllegalArgumentException se algum argumento não for um número positivo.
+	 */
+	static int[] etapas(String[] args, int desde) {
+		if (args.length <= desde) {
+			return ETAPAS_PADRAO.clone();
+		}
+		int[] etapas = new int[args.length - desde];
+		for (int i = 0; i < etapas.length; i++) {
+			try {
+				etapas[i] = Integer.parseInt(args[desde + i].trim());
+			} catch (NumberFormatException e) {
+				etapas[i] = 0;
+			}
+			if (etapas[i] < 1) {
+				throw new IllegalArgumentException("Quantidade de sessões inválida: " + args[desde + i]);
+			}
+		}
+		return etapas;
+	}
+
+	/**
+	 * Executa uma etapa para cada quantidade de sessões informada, na ordem, com os produtos do App,
+	 * e exibe uma linha de resultados por etapa.
+	 * @throws IllegalStateException se não houver produtos carregados.
+	 */
+	public static void executar(int[] etapas) {
+
+		int pedidosPorSessao = Math.max(1, Integer.getInteger("carga.pedidos", 20));
+		int maxProdutos = Math.min(Math.max(1, Integer.getInteger("carga.produtos", 5)), Pedido.MAX_PRODUTOS);
+		int[] codigos = new int[App.quantosProdutos];
+		for (int i = 0; i < codigos.length; i++) {
+			codigos[i] = App.produtosCadastrados[i].idProduto;
+		}
+		if (codigos.length == 0) {
+			throw new IllegalStateException("Não há produtos carregados para gerar pedidos.");
+		}
+
+		GeradorCarga gerador = new GeradorCarga(pedidosPorSessao, maxProdutos, codigos);
+		try (ServicoPedidos servico = new ServicoPedidos()) {
+			System.out.println(String.format("Sessões em threads %s; %d pedido(s) por sessão, até %d produto(s) por pedido.",
+					servico.usaThreadsVirtuais() ? "virtuais" : "de plataforma (threads virtuais indisponíveis nesta JVM)",
+					pedidosPorSessao, maxProdutos));
+			System.out.println(String.format("%10s %10s %12s %12s %12s %12s %12s %8s", "Sessões", "Pedidos",
+					"Tempo (ms)", "Pedidos/s", "p50 (µs)", "p99 (µs)", "Máximo (µs)", "Falhas"));
+			for (int sessoes : etapas) {
+				gerador.executarEtapa(servico, sessoes);
+			}
+		}
+	}
+
+	/** Abre as sessões, libera todas ao mesmo tempo e exibe os resultados quando todas terminam */
+	private void executarEtapa(ServicoPedidos servico, int sessoes) {
+
+		long[][] latencias = new long[sessoes][];
+		CountDownLatch largada = new CountDownLatch(1);
+		List<Future<?>> resultados = new ArrayList<>(sessoes);
+		for (int s = 0; s < sessoes; s++) {
+			int sessao = s;
+			resultados.add(servico.iniciarSessao(atendimento -> {
+				aguardar(largada);
+				latencias[sessao] = atender(atendimento);
+			}));
+		}
+
+		long inicio = System.nanoTime();
+		largada.countDown();
+		int falhas = 0;
+		for (Future<?> resultado : resultados) {
+			try {
+				resultado.get();
+			} catch (ExecutionException e) {
+				falhas++;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+		long nanos = Math.max(System.nanoTime() - inicio, 1);
+
+		long[] todas = Arrays.stream(latencias).filter(l -> l != null).flatMapToLong(Arrays::stream).toArray();
+		Arrays.sort(todas);
+		System.out.println(String.format("%10d %10d %12.3f %12.0f %12.1f %12.1f %12.1f %8d", sessoes, todas.length,
+				nanos / 1e6, todas.length * 1e9 / nanos, percentil(todas, 50) / 1e3, percentil(todas, 99) / 1e3,
+				(todas.length == 0 ? 0 : todas[todas.length - 1]) / 1e3, falhas));
+	}
+
+	/** Monta e finaliza os pedidos de uma sessão e devolve a latência de cada finalização, em nanossegundos */
+	private long[] atender(ServicoPedidos.Sessao sessao) {
+		ThreadLocalRandom sorteio = ThreadLocalRandom.current();
+		long[] latencias = new long[pedidosPorSessao];
+		for (int p = 0; p < pedidosPorSessao; p++) {
+			sessao.iniciarPedido(1 + sorteio.nextInt(2));
+			int quantos = 1 + sorteio.nextInt(maxProdutos);
+			for (int i = 0; i < quantos; i++) {
+				sessao.incluirProduto(codigos[sorteio.nextInt(codigos.length)]);
+			}
+			long antes = System.nanoTime();
+			try {
+				sessao.finalizar();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			latencias[p] = System.nanoTime() - antes;
+		}
+		return latencias;
+	}
+
+	private static void aguardar(CountDownLatch largada) {
+		try {
+			largada.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Sessão interrompida antes da largada.");
+		}
+	}
+
+	/** Valor abaixo do qual (inclusive) estão 'percentual' % das latências ordenadas; 0 se não houver nenhuma */
+	static long percentil(long[] ordenadas, double percentual) {
+		if (ordenadas.length == 0) {
+			return 0;
+		}
+		int posicao = (int) Math.ceil(percentual / 100.0 * ordenadas.length);
+		return ordenadas[Math.min(Math.max(posicao, 1), ordenadas.length) - 1];
+	}
+}
@@ -0,0 +1,343 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+/**
+ * Histórico de pedidos fora do heap: fila de pedidos gravados como registros de tamanho fixo em segmentos de
+ * memória direta (ByteBuffer.allocateDirect), para históricos longos que não devem pesar na coleta de lixo.
+ * Cada registro ocupa 64 bytes (little-endian):
+ * - idPedido (int), data do pedido em dias desde 01/01/1970 (int), forma de pagamento (byte),
+ *   quantidade de produtos (byte), 2 bytes livres;
+ * - os códigos dos produtos (int), até Pedido.MAX_PRODUTOS;
+ * - o valor final em centavos no momento da inserção (long), no fim do registro.
+ * O heap guarda só a lista de segmentos; um histórico de milhões de pedidos não tem nenhum objeto por pedido.
+ * Os pedidos são recriados a cada leitura (remover, iterador, calcularValorMedio, filtrar), com os produtos
+ * localizados pelo código, como na recuperação do {@link DiarioPedidos}; portanto não são os mesmos objetos
+ * inseridos. Produtos não encontrados são omitidos e contados em {@link #produtosOmitidos()}.
+ * O primeiro segmento começa pequeno e dobra de tamanho até o tamanho dos segmentos (históricos pequenos, como os
+ * resultados de filtrar, não reservam um segmento inteiro); os seguintes já são alocados inteiros. Segmentos
+ * esvaziados pelas remoções são reaproveitados.
+ * Como a {@link Fila}, não é seguro para várias threads e o iterador falha (ConcurrentModificationException)
+ * se o histórico for alterado durante o percurso.
+ */
+public class HistoricoPedidos implements IFila<Pedido> {
+
+	/** Tamanho de cada registro, em bytes */
+	static final int TAMANHO_REGISTRO = 64;
+
+	private static final int POS_ID = 0;
+	private static final int POS_DIA = 4;
+	private static final int POS_FORMA = 8;
+	private static final int POS_QUANTOS = 9;
+	private static final int POS_PRODUTOS = 12;
+	private static final int POS_CENTAVOS = TAMANHO_REGISTRO - 8;
+
+	/** Registros por segmento: 65.536 registros, ou 4 MiB */
+	private static final int REGISTROS_POR_SEGMENTO = 1 << 16;
+
+	/** Registros do primeiro segmento ao ser alocado, antes de crescer: 64 registros, ou 4 KiB */
+	private static final int REGISTROS_INICIAIS = 64;
+
+	private final IntFunction<Produto> produtos;
+	private final int registrosPorSegmento;
+
+	/** Segmentos em uso, do início ao fim da fila */
+	private final ArrayList<ByteBuffer> segmentos = new ArrayList<>();
+
+	/** Segmento esvaziado, guardado para a próxima alocação */
+	private ByteBuffer reserva;
+
+	/** Registro do início da fila, no primeiro segmento */
+	private int inicio;
+
+	/** Registros ocupados no último segmento */
+	private int fim;
+
+	private int quantidade;
+
+	/** Quantidade de alterações, para os iteradores detectarem alterações durante o percurso */
+	private int modificacoes;
+
+	/** Códigos de produtos não encontrados ao recriar os pedidos */
+	private long produtosOmitidos;
+
+	/**
+	 * Cria um histórico vazio.
+	 * @param produtos Localiza um produto pelo código, para recriar os pedidos (ex.: App.catalogo::localizar).
+	 */
+	public HistoricoPedidos(IntFunction<Produto> produtos) {
+		this(produtos, REGISTROS_POR_SEGMENTO);
+	}
+
+	/**
+	 * Cria um histórico vazio com segmentos do tamanho informado.
+	 * @param produtos Localiza um produto pelo código, para recriar os pedidos.
+	 * @param registrosPorSegmento Quantidade de registros de cada segmento de memória direta.
+	 */
+	public HistoricoPedidos(IntFunction<Produto> produtos, int registrosPorSegmento) {
+		if (produtos == null) {
+			throw new IllegalArgumentException("A localização de produtos não pode ser nula.");
+		}
+		if (registrosPorSegmento < 1 || registrosPorSegmento > Integer.MAX_VALUE / TAMANHO_REGISTRO) {
+			throw new IllegalArgumentException("Tamanho de segmento inválido.");
+		}
+		this.produtos = produtos;
+		this.registrosPorSegmento = registrosPorSegmento;
+	}
+
+	@Override
+	public boolean vazia() {
+		return quantidade == 0;
+	}
+
+	@Override
+	public int tamanho() {
+		return quantidade;
+	}
+
+	/** Bytes de memória direta reservados pelos segmentos (em uso e de reserva) */
+	public long bytesForaDoHeap() {
+		long bytes = (reserva == null) ? 0 : reserva.capacity();
+		for (ByteBuffer segmento : segmentos) {
+			bytes += segmento.capacity();
+		}
+		return bytes;
+	}
+
+	/**
+	 * Quantidade de produtos omitidos, desde a criação do histórico, nos pedidos recriados (remover, iterador,
+	 * calcularValorMedio, filtrar) porque o código gravado não foi encontrado pela localização de produtos.
+	 * Diferente de zero indica pedidos lidos incompletos (ex.: catálogo diferente do usado na inserção).
+	 */
+	public long produtosOmitidos() {
+		return produtosOmitidos;
+	}
+
+	/** Grava o pedido como um registro no final do histórico */
+	@Override
+	public void inserir(Pedido pedido) {
+		if (pedido == null) {
+			throw new IllegalArgumentException("O pedido não pode ser nulo.");
+		}
+		ByteBuffer segmento = segmentoParaInserir();
+		int base = fim * TAMANHO_REGISTRO;
+		int quantos = pedido.getQuantosProdutos();
+		segmento.putInt(base + POS_ID, pedido.getIdPedido());
+		segmento.putInt(base + POS_DIA, (int) pedido.getDataPedido().toEpochDay());
+		segmento.put(base + POS_FORMA, (byte) pedido.getFormaDePagamento());
+		segmento.put(base + POS_QUANTOS, (byte) quantos);
+		Produto[] itens = pedido.getProdutos();
+		for (int i = 0; i < quantos; i++) {
+			segmento.putInt(base + POS_PRODUTOS + 4 * i, itens[i].idProduto);
+		}
+		segmento.putLong(base + POS_CENTAVOS, pedido.valorFinalCentavos());
+		confirmarInsercao();
+	}
+
+	/**
+	 * Segmento com espaço para o próximo registro. O primeiro segmento, enquanto for o único e menor que os
+	 * demais, dobra de tamanho (copiando os registros para as mesmas posições); depois, cada novo segmento é
+	 * alocado inteiro (ou reaproveitado da reserva).
+	 */
+	private ByteBuffer segmentoParaInserir() {
+		if (segmentos.isEmpty()) {
+			segmentos.add(alocar(Math.min(REGISTROS_INICIAIS, registrosPorSegmento)));
+			fim = 0;
+		}
+		ByteBuffer ultimo = segmentos.get(segmentos.size() - 1);
+		int capacidade = ultimo.capacity() / TAMANHO_REGISTRO;
+		if (fim < capacidade) {
+			return ultimo;
+		}
+		ByteBuffer novo;
+		if (capacidade < registrosPorSegmento) {
+			novo = alocar((int) Math.min(2L * capacidade, registrosPorSegmento));
+			novo.put(0, ultimo, 0, fim * TAMANHO_REGISTRO);
+			segmentos.set(0, novo);
+		} else {
+			novo = (reserva != null) ? reserva : alocar(registrosPorSegmento);
+			reserva = null;
+			segmentos.add(novo);
+			fim = 0;
+		}
+		return novo;
+	}
+
+	private static ByteBuffer alocar(int registros) {
+		return ByteBuffer.allocateDirect(registros * TAMANHO_REGISTRO).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	private void confirmarInsercao() {
+		fim++;
+		quantidade++;
+		modificacoes++;
+	}
+
+	/**
+	 * Retira o registro do início do histórico e devolve o pedido recriado a partir dele.
+	 * @throws NoSuchElementException se o histórico estiver vazio.
+	 */
+	@Override
+	public Pedido remover() {
+		if (vazia()) {
+			throw new NoSuchElementException("Nao há nenhum item na fila!");
+		}
+		Pedido pedido = ler(segmentos.get(0), inicio * TAMANHO_REGISTRO);
+		inicio++;
+		quantidade--;
+		modificacoes++;
+		if (quantidade == 0) {
+			// recomeça do início do primeiro segmento e guarda os demais (no máximo um) como reserva
+			while (segmentos.size() > 1) {
+				reserva = segmentos.remove(segmentos.size() - 1);
+			}
+			inicio = 0;
+			fim = 0;
+		} else if (inicio == registrosPorSegmento) {
+			reserva = segmentos.remove(0);
+			inicio = 0;
+		}
+		return pedido;
+	}
+
+	/** Segmento do i-ésimo registro a partir do início */
+	private ByteBuffer segmento(int i) {
+		return segmentos.get((int) (((long) inicio + i) / registrosPorSegmento));
+	}
+
+	/** Posição, no seu segmento, do i-ésimo registro a partir do início */
+	private int base(int i) {
+		return (int) (((long) inicio + i) % registrosPorSegmento) * TAMANHO_REGISTRO;
+	}
+
+	/** Recria o pedido do registro na posição 'base' do segmento */
+	private Pedido ler(ByteBuffer segmento, int base) {
+		LocalDate data = LocalDate.ofEpochDay(segmento.getInt(base + POS_DIA));
+		Pedido pedido = new Pedido(segmento.getInt(base + POS_ID), data, segmento.get(base + POS_FORMA));
+		int quantos = segmento.get(base + POS_QUANTOS) & 0xFF;
+		for (int i = 0; i < quantos; i++) {
+			Produto produto = produtos.apply(segmento.getInt(base + POS_PRODUTOS + 4 * i));
+			if (produto != null) {
+				pedido.incluirProduto(produto);
+			} else {
+				produtosOmitidos++;
+			}
+		}
+		return pedido;
+	}
+
+	/** Código do i-ésimo pedido a partir do início, lido sem recriar o pedido */
+	public int idPedido(int i) {
+		validarPosicao(i);
+		return segmento(i).getInt(base(i) + POS_ID);
+	}
+
+	/** Valor final, em centavos, do i-ésimo pedido no momento da inserção, lido sem recriar o pedido */
+	public long valorFinalCentavosGravado(int i) {
+		validarPosicao(i);
+		return segmento(i).getLong(base(i) + POS_CENTAVOS);
+	}
+
+	private void validarPosicao(int i) {
+		if (i < 0 || i >= quantidade) {
+			throw new IllegalArgumentException("Posição inválida: " + i);
+		}
+	}
+
+	@Override
+	public Iterator<Pedido> iterator() {
+		return new Iterator<Pedido>() {
+
+			private int proximo = 0;
+			private final int esperadas = modificacoes;
+
+			@Override
+			public boolean hasNext() {
+				return proximo < quantidade;
+			}
+
+			@Override
+			public Pedido next() {
+				if (modificacoes != esperadas) {
+					throw new ConcurrentModificationException();
+				}
+				if (proximo >= quantidade) {
+					throw new NoSuchElementException();
+				}
+				Pedido pedido = ler(segmento(proximo), base(proximo));
+				proximo++;
+				return pedido;
+			}
+		};
+	}
+
+	/**
+	 * Calcula a média de um atributo dos primeiros 'quantidade' pedidos, usando a função extratora
+	 * sobre os pedidos recriados. Se houver menos pedidos, usa os que existirem; retorna 0.0 se nenhum.
+	 */
+	@Override
+	public double calcularValorMedio(Function<Pedido, Double> extrator, int quantidade) {
+		if (extrator == null) {
+			throw new IllegalArgumentException("A função extratora não pode ser nula.");
+		}
+		int cont = Math.min(Math.max(quantidade, 0), this.quantidade);
+		if (cont == 0) {
+			return 0.0;
+		}
+		double soma = 0.0;
+		for (int i = 0; i < cont; i++) {
+			Double valor = extrator.apply(ler(segmento(i), base(i)));
+			soma += (valor == null ? 0.0 : valor.doubleValue());
+		}
+		return soma / cont;
+	}
+
+	/**
+	 * Média, em reais, do valor final gravado na inserção dos primeiros 'quantidade' pedidos, lida diretamente
+	 * dos registros, sem recriar nenhum pedido. Retorna 0.0 se não houver pedidos.
+	 */
+	public double calcularValorMedioGravado(int quantidade) {
+		int cont = Math.min(Math.max(quantidade, 0), this.quantidade);
+		if (cont == 0) {
+			return 0.0;
+		}
+		long soma = 0;
+		for (int i = 0; i < cont; i++) {
+			soma += segmento(i).getLong(base(i) + POS_CENTAVOS);
+		}
+		return soma / 100.0 / cont;
+	}
+
+	/**
+	 * Cria um novo histórico (também fora do heap) com os pedidos, dentre os primeiros 'quantidade',
+	 * que satisfazem a condição do Predicate. Mantém a ordem original.
+	 * Os registros aceitos são copiados byte a byte, sem gravar os pedidos de novo; o novo histórico cresce com
+	 * os registros aceitos (ver a descrição da classe), sem reservar um segmento inteiro de início.
+	 * Os produtos omitidos ao testar a condição são contados neste histórico.
+	 */
+	@Override
+	public HistoricoPedidos filtrar(Predicate<Pedido> condicional, int quantidade) {
+		if (condicional == null) {
+			throw new IllegalArgumentException("A condição de filtro não pode ser nula.");
+		}
+		HistoricoPedidos resultado = new HistoricoPedidos(produtos, registrosPorSegmento);
+		int cont = Math.min(Math.max(quantidade, 0), this.quantidade);
+		for (int i = 0; i < cont; i++) {
+			ByteBuffer segmento = segmento(i);
+			int base = base(i);
+			if (condicional.test(ler(segmento, base))) {
+				ByteBuffer destino = resultado.segmentoParaInserir();
+				destino.put(resultado.fim * TAMANHO_REGISTRO, segmento, base, TAMANHO_REGISTRO);
+				resultado.confirmarInsercao();
+			}
+		}
+		return resultado;
+	}
+}
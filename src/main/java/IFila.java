@@ -0,0 +1,106 @@
+import java.util.Collection;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Operações comuns das filas do sistema (ordem de chegada: primeiro a entrar, primeiro a sair).
+ * Implementações: {@link Fila} (encadeada com sentinela) e {@link FilaCircular} (vetor circular).
+ * O iterador percorre os itens do início ao fim sem retirá-los.
+ * As versões paralelas de calcularValorMedio e filtrar dividem os itens entre as threads do
+ * {@link ForkJoinPool#commonPool()}; o quanto ganham depende de quão bem o spliterator da fila se divide.
+ */
+public interface IFila<E> extends Iterable<E> {
+
+	boolean vazia();
+
+	/** Quantidade de itens na fila */
+	int tamanho();
+
+	/** Adiciona o item no final da fila */
+	void inserir(E item);
+
+	/**
+	 * Adiciona os itens no final da fila, na ordem da coleção.
+	 * As implementações encadeiam ou copiam o lote inteiro de uma vez, em vez de inserir item a item.
+	 */
+	default void inserirTodos(Collection<? extends E> itens) {
+		for (E item : itens) {
+			inserir(item);
+		}
+	}
+
+	/**
+	 * Retira e devolve o item do início da fila.
+	 * @throws java.util.NoSuchElementException se a fila estiver vazia.
+	 */
+	E remover();
+
+	/**
+	 * Calcula a média de um atributo dos primeiros 'quantidade' elementos, usando a função extratora.
+	 * Se houver menos elementos, usa os que existirem; retorna 0.0 se nenhum.
+	 */
+	double calcularValorMedio(Function<E, Double> extrator, int quantidade);
+
+	/**
+	 * Cria uma nova fila com os elementos, dentre os primeiros 'quantidade',
+	 * que satisfazem a condição do Predicate. Mantém a ordem original.
+	 */
+	IFila<E> filtrar(Predicate<E> condicional, int quantidade);
+
+	/**
+	 * Versão paralela de calcularValorMedio, para filas grandes.
+	 * Como as somas parciais são feitas em outra ordem, o resultado pode diferir do sequencial
+	 * nas últimas casas decimais.
+	 */
+	default double calcularValorMedioParalelo(Function<E, Double> extrator, int quantidade) {
+		if (extrator == null) {
+			throw new IllegalArgumentException("A função extratora não pode ser nula.");
+		}
+		if (quantidade <= 0) {
+			return 0.0;
+		}
+		return StreamSupport.stream(spliterator(quantidade), true).mapToDouble(item -> {
+			Double valor = extrator.apply(item);
+			return valor == null ? 0.0 : valor.doubleValue();
+		}).average().orElse(0.0);
+	}
+
+	/**
+	 * Versão paralela de filtrar, para filas grandes: cada thread filtra um trecho da fila e os trechos
+	 * são concatenados na ordem original, que o resultado mantém.
+	 * A condição pode ser avaliada em várias threads ao mesmo tempo.
+	 */
+	default IFila<E> filtrarParalelo(Predicate<E> condicional, int quantidade) {
+		if (condicional == null) {
+			throw new IllegalArgumentException("A condição de filtro não pode ser nula.");
+		}
+		Fila<E> resultado = new Fila<E>();
+		resultado.inserirTodos(StreamSupport.stream(spliterator(quantidade), true).filter(condicional).toList());
+		return resultado;
+	}
+
+	@Override
+	default Spliterator<E> spliterator() {
+		return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED);
+	}
+
+	/** Spliterator dos primeiros 'quantidade' itens (todos, se houver menos), do início ao fim */
+	default Spliterator<E> spliterator(int quantidade) {
+		return visao().limitar(Math.max(quantidade, 0)).spliterator();
+	}
+
+	/** Fluxo (Stream) sequencial dos itens, do início ao fim, sem retirá-los */
+	default Stream<E> stream() {
+		return StreamSupport.stream(spliterator(), false);
+	}
+
+	/** Visão de leitura dos itens, do início ao fim, para filtrar, limitar ou paginar sob demanda */
+	default Visao<E> visao() {
+		return new Visao<>(this::iterator);
+	}
+}
@@ -0,0 +1,74 @@
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Operações comuns das pilhas do sistema (último a entrar, primeiro a sair).
+ * Implementações: {@link Pilha} (encadeada com sentinela) e {@link PilhaVetor} (vetor redimensionável).
+ * O iterador percorre os itens do topo ao fundo sem desempilhá-los.
+ */
+public interface IPilha<E> extends Iterable<E> {
+
+	boolean vazia();
+
+	/**
+	 * Quantidade de itens da pilha. A implementação padrão percorre a pilha (O(n));
+	 * a {@link PilhaVetor} guarda a quantidade.
+	 */
+	default int tamanho() {
+		int quantos = 0;
+		for (Iterator<E> i = iterator(); i.hasNext(); i.next()) {
+			quantos++;
+		}
+		return quantos;
+	}
+
+	/** Coloca o item no topo da pilha */
+	void empilhar(E item);
+
+	/**
+	 * Empilha os itens na ordem da coleção: o último item da coleção fica no topo.
+	 * As implementações encadeiam ou copiam o lote inteiro de uma vez, em vez de empilhar item a item.
+	 */
+	default void empilharTodos(Collection<? extends E> itens) {
+		for (E item : itens) {
+			empilhar(item);
+		}
+	}
+
+	/**
+	 * Retira e devolve o item do topo da pilha.
+	 * @throws java.util.NoSuchElementException se a pilha estiver vazia.
+	 */
+	E desempilhar();
+
+	/**
+	 * Devolve, sem retirar, o item do topo da pilha.
+	 * @throws java.util.NoSuchElementException se a pilha estiver vazia.
+	 */
+	E consultarTopo();
+
+	/**
+	 * Cria e devolve uma nova pilha com os 'numItens' elementos do topo,
+	 * preservando a ordem. Lança IllegalArgumentException se não houver itens suficientes.
+	 */
+	IPilha<E> subPilha(int numItens);
+
+	@Override
+	default Spliterator<E> spliterator() {
+		return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED);
+	}
+
+	/** Fluxo (Stream) sequencial dos itens, do topo ao fundo, sem desempilhá-los */
+	default Stream<E> stream() {
+		return StreamSupport.stream(spliterator(), false);
+	}
+
+	/** Visão de leitura dos itens, do topo ao fundo, para filtrar, limitar ou paginar sob demanda */
+	default Visao<E> visao() {
+		return new Visao<>(this::iterator);
+	}
+}
@@ -0,0 +1,181 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Índice reverso produto -> pedidos finalizados.
+ * Cada pedido recebe, ao ser registrado, a sua posição na ordem de finalização (0 para o primeiro),
+ * que é a mesma posição dele na fila de pedidos. Para cada produto, o índice guarda as posições dos pedidos
+ * que o contêm, em ordem crescente, codificadas como diferenças em inteiros de tamanho variável (1 byte para
+ * diferenças até 127). Assim, "quais dos N primeiros pedidos contêm o produto P" é a leitura do início de uma única lista.
+ * Os métodos são sincronizados, para registro de pedidos finalizados em vários terminais.
+ */
+public class IndicePedidosPorProduto {
+
+	/** Latência das consultas (com as métricas ativadas), sem a espera pelo bloqueio */
+	private static final Metricas.Histograma LATENCIA_PEDIDOS_COM = Metricas.histograma("IndicePedidosPorProduto.pedidosCom");
+
+	/** Lista de posições de pedidos, em ordem crescente, codificada por diferenças */
+	private static final class ListaPosicoes {
+
+		byte[] dados = new byte[8];
+		int bytes;
+		int quantidade;
+		int ultima = -1;
+
+		void adicionar(int posicao) {
+			if (posicao == ultima) {
+				return;
+			}
+			int diferenca = posicao - ultima;
+			if (bytes + 5 > dados.length) {
+				dados = Arrays.copyOf(dados, dados.length * 2);
+			}
+			while ((diferenca & ~0x7F) != 0) {
+				dados[bytes++] = (byte) ((diferenca & 0x7F) | 0x80);
+				diferenca >>>= 7;
+			}
+			dados[bytes++] = (byte) diferenca;
+			ultima = posicao;
+			quantidade++;
+		}
+	}
+
+	private final MapaInt<ListaPosicoes> porProduto = new MapaInt<>();
+
+	/** Pedidos registrados, pela posição de finalização */
+	private Pedido[] pedidos = new Pedido[16];
+	private int quantosPedidos;
+
+	/**
+	 * Registra um pedido finalizado, na próxima posição da ordem de finalização.
+	 * @return A posição atribuída ao pedido.
+	 */
+	public synchronized int registrar(Pedido pedido) {
+		if (quantosPedidos == pedidos.length) {
+			pedidos = Arrays.copyOf(pedidos, pedidos.length * 2);
+		}
+		int posicao = quantosPedidos++;
+		indexar(pedido, posicao);
+		return posicao;
+	}
+
+	/**
+	 * Registra um lote de pedidos finalizados, em posições consecutivas da ordem de finalização,
+	 * com uma única reserva de posições.
+	 * @return A posição atribuída ao primeiro pedido do lote (os demais seguem em sequência).
+	 */
+	public synchronized int registrarTodos(List<Pedido> lote) {
+		int primeira = quantosPedidos;
+		if (primeira + lote.size() > pedidos.length) {
+			pedidos = Arrays.copyOf(pedidos, Math.max(pedidos.length * 2, primeira + lote.size()));
+		}
+		quantosPedidos += lote.size();
+		int posicao = primeira;
+		for (Pedido pedido : lote) {
+			indexar(pedido, posicao++);
+		}
+		return primeira;
+	}
+
+	private void indexar(Pedido pedido, int posicao) {
+		pedidos[posicao] = pedido;
+
+		Produto[] produtos = pedido.getProdutos();
+		for (int i = 0; i < pedido.getQuantosProdutos(); i++) {
+			int idProduto = produtos[i].idProduto;
+			ListaPosicoes lista = porProduto.obter(idProduto);
+			if (lista == null) {
+				lista = new ListaPosicoes();
+				porProduto.inserir(idProduto, lista);
+			}
+			lista.adicionar(posicao);
+		}
+	}
+
+	/** Quantidade de pedidos registrados */
+	public synchronized int quantidadePedidos() {
+		return quantosPedidos;
+	}
+
+	/** Quantidade de pedidos registrados que contêm o produto */
+	public synchronized int quantidadePedidosCom(int idProduto) {
+		ListaPosicoes lista = porProduto.obter(idProduto);
+		return lista == null ? 0 : lista.quantidade;
+	}
+
+	/**
+	 * Posições, dentre as 'primeiros' primeiras, dos pedidos que contêm algum dos produtos informados.
+	 * @param idsProdutos Códigos dos produtos procurados.
+	 * @param primeiros Quantidade de pedidos considerada, a partir do primeiro finalizado.
+	 * @return Posições em ordem crescente, sem repetição.
+	 */
+	public synchronized int[] posicoesCom(int[] idsProdutos, int primeiros) {
+		int[] resultado = new int[0];
+		for (int idProduto : idsProdutos) {
+			int[] posicoes = decodificar(porProduto.obter(idProduto), primeiros);
+			resultado = (resultado.length == 0) ? posicoes : mesclar(resultado, posicoes);
+		}
+		return resultado;
+	}
+
+	/**
+	 * Pedidos, dentre os 'primeiros' primeiros finalizados, que contêm algum dos produtos informados,
+	 * na ordem de finalização.
+	 */
+	public synchronized List<Pedido> pedidosCom(int[] idsProdutos, int primeiros) {
+		long inicio = Metricas.inicio();
+		int[] posicoes = posicoesCom(idsProdutos, primeiros);
+		List<Pedido> encontrados = new ArrayList<>(posicoes.length);
+		for (int posicao : posicoes) {
+			encontrados.add(pedidos[posicao]);
+		}
+		LATENCIA_PEDIDOS_COM.registrarDesde(inicio);
+		return encontrados;
+	}
+
+	/** Decodifica as posições da lista menores que o limite; a leitura para no primeiro valor fora do limite */
+	private static int[] decodificar(ListaPosicoes lista, int limite) {
+		if (lista == null || limite <= 0) {
+			return new int[0];
+		}
+		int[] posicoes = new int[Math.min(lista.quantidade, limite)];
+		int quantos = 0;
+		int atual = -1;
+		int i = 0;
+		while (i < lista.bytes && quantos < posicoes.length) {
+			int diferenca = 0;
+			int deslocamento = 0;
+			byte b;
+			do {
+				b = lista.dados[i++];
+				diferenca |= (b & 0x7F) << deslocamento;
+				deslocamento += 7;
+			} while ((b & 0x80) != 0);
+			atual += diferenca;
+			if (atual >= limite) {
+				break;
+			}
+			posicoes[quantos++] = atual;
+		}
+		return Arrays.copyOf(posicoes, quantos);
+	}
+
+	/** Mescla dois vetores ordenados, sem repetição */
+	private static int[] mesclar(int[] a, int[] b) {
+		int[] resultado = new int[a.length + b.length];
+		int i = 0, j = 0, k = 0;
+		while (i < a.length || j < b.length) {
+			int proximo;
+			if (j >= b.length || (i < a.length && a[i] <= b[j])) {
+				proximo = a[i++];
+			} else {
+				proximo = b[j++];
+			}
+			if (k == 0 || resultado[k - 1] != proximo) {
+				resultado[k++] = proximo;
+			}
+		}
+		return Arrays.copyOf(resultado, k);
+	}
+}
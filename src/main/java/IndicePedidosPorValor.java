@@ -0,0 +1,208 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Índice dos pedidos finalizados pelo valor total (em centavos), com duas estruturas:
+ * - Lista de saltos (skip list) ordenada por (valor em centavos, posição na ordem de finalização), chave única
+ *   que mantém os empates na ordem de chegada; o nível 0 é duplamente encadeado, para percorrer do maior para
+ *   o menor valor ({@link #maioresValores(int)}).
+ * - Árvore de máximos por posição (segment tree): cada nó guarda o maior valor dos pedidos da sua faixa de
+ *   posições. {@link #pedidosAPartirDe(long, int)} desce só pelas faixas dentro dos N primeiros cujo máximo
+ *   alcança o valor mínimo, em O((k + 1) log n) para k pedidos encontrados, sem depender de quantos pedidos
+ *   de todo o histórico estão acima do valor, e já na ordem de finalização.
+ * Os métodos são sincronizados, para registro de pedidos finalizados em vários terminais.
+ */
+public class IndicePedidosPorValor {
+
+	private static final int NIVEL_MAXIMO = 32;
+
+	/** Latência das consultas (com as métricas ativadas), sem a espera pelo bloqueio */
+	private static final Metricas.Histograma LATENCIA_A_PARTIR_DE = Metricas.histograma("IndicePedidosPorValor.pedidosAPartirDe");
+	private static final Metricas.Histograma LATENCIA_MAIORES = Metricas.histograma("IndicePedidosPorValor.maioresValores");
+
+	private static final class No {
+
+		final long centavos;
+		final int posicao;
+		final Pedido pedido;
+		final No[] proximos;
+		No anterior;
+
+		No(long centavos, int posicao, Pedido pedido, int niveis) {
+			this.centavos = centavos;
+			this.posicao = posicao;
+			this.pedido = pedido;
+			this.proximos = new No[niveis];
+		}
+
+		boolean antesDe(long centavos, int posicao) {
+			return this.centavos < centavos || (this.centavos == centavos && this.posicao < posicao);
+		}
+	}
+
+	/** Nó sentinela do início, com todos os níveis */
+	private final No cabeca = new No(Long.MIN_VALUE, Integer.MIN_VALUE, null, NIVEL_MAXIMO);
+	private No ultimo;
+	private int niveis = 1;
+	private int quantidade;
+
+	/** Pedidos por posição de finalização (folhas da árvore de máximos); null nas posições sem pedido */
+	private Pedido[] porPosicao = new Pedido[16];
+
+	/**
+	 * Árvore de máximos em vetor: o nó i tem filhos 2i e 2i + 1, e a folha da posição p é o nó
+	 * porPosicao.length + p. Faixas sem pedidos valem Long.MIN_VALUE.
+	 */
+	private long[] maximos = vazia(16);
+
+	public synchronized int tamanho() {
+		return quantidade;
+	}
+
+	/** Sorteia a quantidade de níveis de um novo nó (distribuição geométrica com p = 1/2) */
+	private static int sortearNiveis() {
+		int sorteio = ThreadLocalRandom.current().nextInt();
+		return Math.min(NIVEL_MAXIMO, Integer.numberOfTrailingZeros(sorteio) + 1);
+	}
+
+	/**
+	 * Registra um pedido finalizado com o seu valor total.
+	 * @param pedido Pedido finalizado.
+	 * @param centavos Valor total do pedido em centavos.
+	 * @param posicao Posição do pedido na ordem de finalização.
+	 */
+	public synchronized void registrar(Pedido pedido, long centavos, int posicao) {
+		inserir(pedido, centavos, posicao, new No[NIVEL_MAXIMO]);
+	}
+
+	/**
+	 * Registra um lote de pedidos finalizados em posições consecutivas, sob um único bloqueio.
+	 * @param lote Pedidos finalizados, na ordem de finalização.
+	 * @param centavos Valor total de cada pedido do lote, em centavos.
+	 * @param primeiraPosicao Posição do primeiro pedido do lote na ordem de finalização.
+	 */
+	public synchronized void registrarTodos(List<Pedido> lote, long[] centavos, int primeiraPosicao) {
+		No[] antecessores = new No[NIVEL_MAXIMO];
+		for (int i = 0; i < lote.size(); i++) {
+			inserir(lote.get(i), centavos[i], primeiraPosicao + i, antecessores);
+		}
+	}
+
+	private void inserir(Pedido pedido, long centavos, int posicao, No[] antecessores) {
+		if (posicao < 0) {
+			throw new IllegalArgumentException("Posição inválida: " + posicao);
+		}
+		registrarPosicao(pedido, centavos, posicao);
+		No cursor = cabeca;
+		for (int nivel = niveis - 1; nivel >= 0; nivel--) {
+			while (cursor.proximos[nivel] != null && cursor.proximos[nivel].antesDe(centavos, posicao)) {
+				cursor = cursor.proximos[nivel];
+			}
+			antecessores[nivel] = cursor;
+		}
+
+		int niveisNovo = sortearNiveis();
+		for (int nivel = niveis; nivel < niveisNovo; nivel++) {
+			antecessores[nivel] = cabeca;
+		}
+		niveis = Math.max(niveis, niveisNovo);
+
+		No novo = new No(centavos, posicao, pedido, niveisNovo);
+		for (int nivel = 0; nivel < niveisNovo; nivel++) {
+			novo.proximos[nivel] = antecessores[nivel].proximos[nivel];
+			antecessores[nivel].proximos[nivel] = novo;
+		}
+		novo.anterior = (antecessores[0] == cabeca) ? null : antecessores[0];
+		if (novo.proximos[0] != null) {
+			novo.proximos[0].anterior = novo;
+		} else {
+			ultimo = novo;
+		}
+		quantidade++;
+	}
+
+	private static long[] vazia(int folhas) {
+		long[] arvore = new long[2 * folhas];
+		Arrays.fill(arvore, Long.MIN_VALUE);
+		return arvore;
+	}
+
+	/** Coloca o pedido na folha da sua posição e atualiza os máximos até a raiz, em O(log n) */
+	private void registrarPosicao(Pedido pedido, long centavos, int posicao) {
+		if (posicao >= porPosicao.length) {
+			int folhas = porPosicao.length;
+			while (folhas <= posicao) {
+				folhas *= 2;
+			}
+			reconstruir(folhas);
+		}
+		porPosicao[posicao] = pedido;
+		int no = porPosicao.length + posicao;
+		maximos[no] = centavos;
+		for (no /= 2; no >= 1; no /= 2) {
+			maximos[no] = Math.max(maximos[2 * no], maximos[2 * no + 1]);
+		}
+	}
+
+	/** Amplia a árvore para 'folhas' posições, em O(n) (amortizado pela duplicação) */
+	private void reconstruir(int folhas) {
+		long[] novos = vazia(folhas);
+		System.arraycopy(maximos, porPosicao.length, novos, folhas, porPosicao.length);
+		for (int no = folhas - 1; no >= 1; no--) {
+			novos[no] = Math.max(novos[2 * no], novos[2 * no + 1]);
+		}
+		porPosicao = Arrays.copyOf(porPosicao, folhas);
+		maximos = novos;
+	}
+
+	/**
+	 * Pedidos com valor total maior ou igual a 'centavosMinimo', dentre os 'primeiros' primeiros finalizados,
+	 * na ordem de finalização. Percorre só as faixas de posições cujo máximo alcança o valor mínimo:
+	 * O((k + 1) log n) para k pedidos encontrados.
+	 */
+	public synchronized List<Pedido> pedidosAPartirDe(long centavosMinimo, int primeiros) {
+		long inicio = Metricas.inicio();
+		List<Pedido> resultado = new ArrayList<>();
+		int limite = Math.min(primeiros, porPosicao.length);
+		if (limite > 0) {
+			coletar(1, 0, porPosicao.length, limite, centavosMinimo, resultado);
+		}
+		LATENCIA_A_PARTIR_DE.registrarDesde(inicio);
+		return resultado;
+	}
+
+	/**
+	 * Acrescenta ao resultado, em ordem de posição, os pedidos da faixa [inicio, fim) do nó com posição
+	 * menor que 'limite' e valor maior ou igual a 'centavosMinimo'.
+	 */
+	private void coletar(int no, int inicio, int fim, int limite, long centavosMinimo, List<Pedido> resultado) {
+		if (inicio >= limite || maximos[no] < centavosMinimo) {
+			return;
+		}
+		if (fim - inicio == 1) {
+			if (porPosicao[inicio] != null) {
+				resultado.add(porPosicao[inicio]);
+			}
+			return;
+		}
+		int meio = (inicio + fim) >>> 1;
+		coletar(2 * no, inicio, meio, limite, centavosMinimo, resultado);
+		coletar(2 * no + 1, meio, fim, limite, centavosMinimo, resultado);
+	}
+
+	/**
+	 * Os 'k' pedidos de maior valor total, do maior para o menor, em O(k) a partir do último nó.
+	 * Entre pedidos de mesmo valor, o finalizado mais recentemente vem primeiro.
+	 */
+	public synchronized List<Pedido> maioresValores(int k) {
+		long inicio = Metricas.inicio();
+		List<Pedido> resultado = new ArrayList<>(Math.max(0, Math.min(k, quantidade)));
+		for (No no = ultimo; no != null && resultado.size() < k; no = no.anterior) {
+			resultado.add(no.pedido);
+		}
+		LATENCIA_MAIORES.registrarDesde(inicio);
+		return resultado;
+	}
+}
@@ -0,0 +1,223 @@
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Índice invertido das descrições dos produtos.
+ * As descrições são quebradas em termos (sequências de letras e dígitos), sem acentos e em minúsculas.
+ * Cada termo guarda a lista de postagens: os códigos dos produtos que o contêm, em vetor de int ordenado e sem repetição.
+ * Os termos ficam em ordem alfabética, de modo que uma consulta por prefixo visita só a faixa de termos que começam com ele.
+ * Consultas com vários termos devolvem os produtos que contêm todos eles (E), cada termo valendo como prefixo:
+ * "fita bran" encontra "Fita adesiva Branco fantasma".
+ */
+public class IndiceTextual {
+
+	private static final int[] VAZIO = new int[0];
+
+	/** Lista de postagens de um termo: códigos de produto em ordem crescente */
+	private static final class Postagens {
+
+		int[] ids = new int[4];
+		int tamanho;
+
+		void adicionar(int id) {
+			if (tamanho > 0 && ids[tamanho - 1] >= id) {
+				int pos = Arrays.binarySearch(ids, 0, tamanho, id);
+				if (pos >= 0) {
+					return;
+				}
+				abrirEspaco(-pos - 1);
+				ids[-pos - 1] = id;
+				return;
+			}
+			if (tamanho == ids.length) {
+				ids = Arrays.copyOf(ids, tamanho * 2);
+			}
+			ids[tamanho++] = id;
+		}
+
+		private void abrirEspaco(int pos) {
+			if (tamanho == ids.length) {
+				ids = Arrays.copyOf(ids, tamanho * 2);
+			}
+			System.arraycopy(ids, pos, ids, pos + 1, tamanho - pos);
+			tamanho++;
+		}
+
+		void remover(int id) {
+			int pos = Arrays.binarySearch(ids, 0, tamanho, id);
+			if (pos >= 0) {
+				System.arraycopy(ids, pos + 1, ids, pos, tamanho - pos - 1);
+				tamanho--;
+			}
+		}
+	}
+
+	private final TreeMap<String, Postagens> termos = new TreeMap<>();
+
+	/**
+	 * Quebra o texto em termos sem acentos e em minúsculas.
+	 * Textos só com caracteres ASCII são quebrados diretamente; os demais passam antes pela remoção de acentos.
+	 * @return Os termos, na ordem em que aparecem (pode haver repetições).
+	 */
+	static String[] termos(String texto) {
+		String base = texto;
+		for (int i = 0; i < texto.length(); i++) {
+			if (texto.charAt(i) >= 0x80) {
+				base = Normalizer.normalize(texto, Normalizer.Form.NFD).replaceAll("\\p{M}+", "");
+				break;
+			}
+		}
+		String[] partes = new String[4];
+		int quantos = 0;
+		int inicio = -1;
+		for (int i = 0; i <= base.length(); i++) {
+			boolean parteDoTermo = i < base.length() && Character.isLetterOrDigit(base.charAt(i));
+			if (parteDoTermo && inicio < 0) {
+				inicio = i;
+			} else if (!parteDoTermo && inicio >= 0) {
+				if (quantos == partes.length) {
+					partes = Arrays.copyOf(partes, quantos * 2);
+				}
+				partes[quantos++] = base.substring(inicio, i).toLowerCase(Locale.ROOT);
+				inicio = -1;
+			}
+		}
+		return Arrays.copyOf(partes, quantos);
+	}
+
+	/** Indexa a descrição do produto */
+	public void adicionar(Produto produto) {
+		for (String termo : termos(produto.descricao)) {
+			termos.computeIfAbsent(termo, t -> new Postagens()).adicionar(produto.idProduto);
+		}
+	}
+
+	/** Retira o produto das postagens dos termos da sua descrição */
+	public void remover(Produto produto) {
+		for (String termo : termos(produto.descricao)) {
+			Postagens postagens = termos.get(termo);
+			if (postagens != null) {
+				postagens.remover(produto.idProduto);
+				if (postagens.tamanho == 0) {
+					termos.remove(termo);
+				}
+			}
+		}
+	}
+
+	/** Quantidade de termos distintos indexados */
+	public int quantidadeTermos() {
+		return termos.size();
+	}
+
+	/**
+	 * Busca os produtos cujas descrições contêm, para cada termo da consulta, algum termo iniciado por ele.
+	 * @param consulta Texto da consulta (ex.: "Cola", "fita branco").
+	 * @return Códigos dos produtos encontrados, em ordem crescente; vazio se nenhum ou se a consulta não tiver termos.
+	 */
+	public int[] buscar(String consulta) {
+
+		String[] prefixos = termos(consulta);
+		if (prefixos.length == 0) {
+			return VAZIO;
+		}
+
+		int[][] candidatos = new int[prefixos.length][];
+		for (int i = 0; i < prefixos.length; i++) {
+			candidatos[i] = uniao(termos.subMap(prefixos[i], true, prefixos[i] + Character.MAX_VALUE, false));
+			if (candidatos[i].length == 0) {
+				return VAZIO;
+			}
+		}
+		// Intersecta a partir da lista mais seletiva, para que as interseções trabalhem com listas menores
+		Arrays.sort(candidatos, (a, b) -> Integer.compare(a.length, b.length));
+
+		int[] resultado = candidatos[0];
+		for (int i = 1; i < candidatos.length && resultado.length > 0; i++) {
+			resultado = intersecao(resultado, candidatos[i]);
+		}
+		return resultado;
+	}
+
+	/**
+	 * União das postagens de uma faixa de termos, em ordem crescente e sem repetição.
+	 * Quando as postagens cobrem uma faixa de códigos estreita em relação ao seu volume, a união é feita
+	 * em um mapa de bits sobre essa faixa (O(total + faixa/64)); caso contrário, por ordenação.
+	 */
+	private static int[] uniao(NavigableMap<String, Postagens> faixa) {
+		if (faixa.isEmpty()) {
+			return VAZIO;
+		}
+		if (faixa.size() == 1) {
+			Postagens unica = faixa.firstEntry().getValue();
+			return Arrays.copyOf(unica.ids, unica.tamanho);
+		}
+		int total = 0;
+		int menor = Integer.MAX_VALUE;
+		int maior = Integer.MIN_VALUE;
+		for (Postagens postagens : faixa.values()) {
+			total += postagens.tamanho;
+			menor = Math.min(menor, postagens.ids[0]);
+			maior = Math.max(maior, postagens.ids[postagens.tamanho - 1]);
+		}
+		long amplitude = (long) maior - menor + 1;
+		if (amplitude / 64 <= 4L * total) {
+			return uniaoPorBits(faixa, total, menor, (int) amplitude);
+		}
+		int[] todos = new int[total];
+		int pos = 0;
+		for (Postagens postagens : faixa.values()) {
+			System.arraycopy(postagens.ids, 0, todos, pos, postagens.tamanho);
+			pos += postagens.tamanho;
+		}
+		Arrays.sort(todos);
+		int unicos = 0;
+		for (int i = 0; i < total; i++) {
+			if (unicos == 0 || todos[unicos - 1] != todos[i]) {
+				todos[unicos++] = todos[i];
+			}
+		}
+		return Arrays.copyOf(todos, unicos);
+	}
+
+	private static int[] uniaoPorBits(NavigableMap<String, Postagens> faixa, int total, int menor, int amplitude) {
+		long[] bits = new long[(amplitude + 63) >>> 6];
+		for (Postagens postagens : faixa.values()) {
+			for (int i = 0; i < postagens.tamanho; i++) {
+				int deslocamento = postagens.ids[i] - menor;
+				bits[deslocamento >>> 6] |= 1L << deslocamento;
+			}
+		}
+		int[] resultado = new int[total];
+		int quantos = 0;
+		for (int palavra = 0; palavra < bits.length; palavra++) {
+			long restantes = bits[palavra];
+			while (restantes != 0) {
+				resultado[quantos++] = menor + (palavra << 6) + Long.numberOfTrailingZeros(restantes);
+				restantes &= restantes - 1;
+			}
+		}
+		return Arrays.copyOf(resultado, quantos);
+	}
+
+	/** Interseção de dois vetores ordenados */
+	private static int[] intersecao(int[] a, int[] b) {
+		int[] resultado = new int[Math.min(a.length, b.length)];
+		int i = 0, j = 0, k = 0;
+		while (i < a.length && j < b.length) {
+			if (a[i] < b[j]) {
+				i++;
+			} else if (a[i] > b[j]) {
+				j++;
+			} else {
+				resultado[k++] = a[i];
+				i++;
+				j++;
+			}
+		}
+		return Arrays.copyOf(resultado, k);
+	}
+}
@@ -0,0 +1,147 @@
+import java.util.Arrays;
+
+/**
+ * Tabela hash de endereçamento aberto com chaves primitivas (int), sem boxing.
+ * Usa sondagem linear e remoção por deslocamento para trás (sem marcadores de remoção),
+ * mantendo as buscas em O(1) esperado mesmo após muitas remoções.
+ * A chave {@link #VAZIO} (Integer.MIN_VALUE) é reservada e não pode ser armazenada.
+ */
+public class MapaInt<V> {
+
+	/** Chave reservada para indicar posição livre na tabela */
+	static final int VAZIO = Integer.MIN_VALUE;
+
+	/** Fator de carga máximo antes de dobrar a tabela */
+	private static final double CARGA_MAXIMA = 0.5;
+
+	private int[] chaves;
+	private Object[] valores;
+	private int mascara;
+	private int quantidade;
+
+	public MapaInt() {
+		this(16);
+	}
+
+	/**
+	 * Cria o mapa já dimensionado para receber a quantidade esperada de pares sem redimensionar.
+	 * @param capacidadeEsperada Número de pares que se espera armazenar.
+	 */
+	public MapaInt(int capacidadeEsperada) {
+		int tamanho = 16;
+		while (tamanho * CARGA_MAXIMA < capacidadeEsperada) {
+			tamanho <<= 1;
+		}
+		alocar(tamanho);
+	}
+
+	private void alocar(int tamanho) {
+		chaves = new int[tamanho];
+		Arrays.fill(chaves, VAZIO);
+		valores = new Object[tamanho];
+		mascara = tamanho - 1;
+	}
+
+	/** Espalha os bits da chave para que ids sequenciais não formem agrupamentos na tabela */
+	private static int espalhar(int chave) {
+		int h = chave * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	private int posicao(int chave) {
+		int i = espalhar(chave) & mascara;
+		while (chaves[i] != VAZIO && chaves[i] != chave) {
+			i = (i + 1) & mascara;
+		}
+		return i;
+	}
+
+	public int tamanho() {
+		return quantidade;
+	}
+
+	public boolean vazio() {
+		return quantidade == 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	public V obter(int chave) {
+		verificarChave(chave);
+		return (V) valores[posicao(chave)];
+	}
+
+	public boolean contem(int chave) {
+		verificarChave(chave);
+		return chaves[posicao(chave)] == chave;
+	}
+
+	/**
+	 * Associa o valor à chave, substituindo o valor anterior, se houver.
+	 * @return O valor anterior associado à chave, ou null.
+	 */
+	@SuppressWarnings("unchecked")
+	public V inserir(int chave, V valor) {
+		verificarChave(chave);
+		int i = posicao(chave);
+		V anterior = (V) valores[i];
+		if (chaves[i] == VAZIO) {
+			chaves[i] = chave;
+			quantidade++;
+		}
+		valores[i] = valor;
+		if (quantidade > chaves.length * CARGA_MAXIMA) {
+			redimensionar(chaves.length << 1);
+		}
+		return anterior;
+	}
+
+	/**
+	 * Remove a chave do mapa, reposicionando as chaves seguintes do mesmo agrupamento.
+	 * @return O valor que estava associado à chave, ou null se a chave não existia.
+	 */
+	@SuppressWarnings("unchecked")
+	public V remover(int chave) {
+		verificarChave(chave);
+		int i = posicao(chave);
+		if (chaves[i] == VAZIO) {
+			return null;
+		}
+		V removido = (V) valores[i];
+		int livre = i;
+		int j = (i + 1) & mascara;
+		while (chaves[j] != VAZIO) {
+			int ideal = espalhar(chaves[j]) & mascara;
+			// A chave em j só pode ocupar a posição livre se o seu ideal não estiver entre (livre, j]
+			boolean podeMover = (livre <= j) ? (ideal <= livre || ideal > j) : (ideal <= livre && ideal > j);
+			if (podeMover) {
+				chaves[livre] = chaves[j];
+				valores[livre] = valores[j];
+				livre = j;
+			}
+			j = (j + 1) & mascara;
+		}
+		chaves[livre] = VAZIO;
+		valores[livre] = null;
+		quantidade--;
+		return removido;
+	}
+
+	private void redimensionar(int novoTamanho) {
+		int[] chavesAntigas = chaves;
+		Object[] valoresAntigos = valores;
+		alocar(novoTamanho);
+		for (int i = 0; i < chavesAntigas.length; i++) {
+			if (chavesAntigas[i] != VAZIO) {
+				int pos = posicao(chavesAntigas[i]);
+				chaves[pos] = chavesAntigas[i];
+				valores[pos] = valoresAntigos[i];
+			}
+		}
+	}
+
+	private static void verificarChave(int chave) {
+		if (chave == VAZIO) {
+			throw new IllegalArgumentException("Chave reservada não pode ser usada no mapa.");
+		}
+	}
+}
@@ -0,0 +1,315 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Métricas dos caminhos críticos: contadores, histogramas de latência e medidores (valores lidos na hora).
+ * - Contador: soma em um LongAdder, que distribui as atualizações de várias threads em células separadas.
+ * - Histograma: latências em nanossegundos em faixas logarítmicas, no estilo do HdrHistogram: 16 faixas por
+ *   potência de 2 (erro máximo de 1/16, ou 6,25%), de 0 a 2^63; registrar é um incremento atômico, sem alocação.
+ * - Medidor: função consultada só na hora do relatório (ex.: tamanho da fila de pedidos).
+ * As métricas são ativadas pela propriedade de sistema "metricas", com o nome do arquivo de relatório
+ * (ex.: -Dmetricas=metricas.json). Desativadas, ATIVAS é uma constante false e o compilador JIT elimina os
+ * registros dos caminhos críticos: nem o relógio é lido.
+ * O relatório é regravado a cada "metricas.periodo" segundos (padrão 10) e no encerramento, em JSON se o nome
+ * do arquivo terminar em ".json" e em texto nos demais casos.
+ * Uso nos caminhos críticos:
+ *   private static final Metricas.Histograma LATENCIA = Metricas.histograma("Classe.metodo");
+ *   long inicio = Metricas.inicio();
+ *   ...
+ *   LATENCIA.registrarDesde(inicio);
+ */
+public final class Metricas {
+
+	/** Se as métricas estão ativadas (propriedade "metricas" definida e não vazia) */
+	public static final boolean ATIVAS = !System.getProperty("metricas", "").isEmpty();
+
+	private static final ConcurrentSkipListMap<String, Contador> contadores = new ConcurrentSkipListMap<>();
+	private static final ConcurrentSkipListMap<String, Histograma> histogramas = new ConcurrentSkipListMap<>();
+	private static final ConcurrentSkipListMap<String, LongSupplier> medidores = new ConcurrentSkipListMap<>();
+
+	private static ScheduledExecutorService relator;
+
+	private Metricas() {
+	}
+
+	/** Contador com o nome informado, criado na primeira chamada */
+	public static Contador contador(String nome) {
+		return contadores.computeIfAbsent(nome, n -> new Contador());
+	}
+
+	/** Histograma de latências com o nome informado, criado na primeira chamada */
+	public static Histograma histograma(String nome) {
+		return histogramas.computeIfAbsent(nome, n -> new Histograma());
+	}
+
+	/** Registra (ou substitui) um medidor, consultado a cada relatório */
+	public static void medidor(String nome, LongSupplier leitura) {
+		if (ATIVAS) {
+			medidores.put(nome, leitura);
+		}
+	}
+
+	/** Instante de início de uma medição, para {@link Histograma#registrarDesde(long)}; 0 se desativadas */
+	public static long inicio() {
+		return ATIVAS ? System.nanoTime() : 0L;
+	}
+
+	/** Contador de eventos, seguro para várias threads */
+	public static final class Contador {
+
+		private final LongAdder soma = new LongAdder();
+
+		private Contador() {
+		}
+
+		public void incrementar() {
+			if (ATIVAS) {
+				soma.increment();
+			}
+		}
+
+		public void somar(long quantidade) {
+			if (ATIVAS) {
+				soma.add(quantidade);
+			}
+		}
+
+		public long valor() {
+			return soma.sum();
+		}
+	}
+
+	/** Histograma de latências em nanossegundos, em faixas logarítmicas com 16 subdivisões por potência de 2 */
+	public static final class Histograma {
+
+		private static final int BITS_SUBFAIXA = 4;
+		private static final int SUBFAIXAS = 1 << BITS_SUBFAIXA;
+		private static final int FAIXAS = (64 - BITS_SUBFAIXA + 1) * SUBFAIXAS;
+
+		private final AtomicLongArray contagens = new AtomicLongArray(FAIXAS);
+		private final LongAdder total = new LongAdder();
+		private final LongAdder soma = new LongAdder();
+		private final LongAccumulator maximo = new LongAccumulator(Math::max, 0L);
+
+		private Histograma() {
+		}
+
+		/** Faixa do valor: exata abaixo de 16; acima, o expoente e os 4 bits seguintes ao mais alto */
+		static int faixa(long valor) {
+			if (valor < SUBFAIXAS) {
+				return (int) Math.max(valor, 0);
+			}
+			int expoente = 63 - Long.numberOfLeadingZeros(valor);
+			int subfaixa = (int) (valor >>> (expoente - BITS_SUBFAIXA)) & (SUBFAIXAS - 1);
+			return (expoente - BITS_SUBFAIXA + 1) * SUBFAIXAS + subfaixa;
+		}
+
+		/** Maior valor que cai na faixa */
+		static long limiteSuperior(int faixa) {
+			if (faixa < SUBFAIXAS) {
+				return faixa;
+			}
+			int deslocamento = faixa / SUBFAIXAS - 1;
+			long inicio = (long) (SUBFAIXAS + faixa % SUBFAIXAS) << deslocamento;
+			return inicio + (1L << deslocamento) - 1;
+		}
+
+		/** Registra uma latência, em nanossegundos */
+		public void registrar(long nanos) {
+			if (ATIVAS) {
+				contagens.getAndIncrement(faixa(nanos));
+				total.increment();
+				soma.add(nanos);
+				maximo.accumulate(nanos);
+			}
+		}
+
+		/** Registra o tempo decorrido desde o instante obtido com {@link Metricas#inicio()} */
+		public void registrarDesde(long inicio) {
+			if (ATIVAS) {
+				registrar(System.nanoTime() - inicio);
+			}
+		}
+
+		public long contagem() {
+			return total.sum();
+		}
+
+		public double media() {
+			long n = total.sum();
+			return n == 0 ? 0.0 : (double) soma.sum() / n;
+		}
+
+		public long maximo() {
+			return maximo.get();
+		}
+
+		/**
+		 * Valor abaixo do qual (inclusive) estão 'percentual' % das latências registradas,
+		 * com a precisão das faixas. Retorna 0 se não houver registros.
+		 */
+		public long percentil(double percentual) {
+			long[] copia = new long[FAIXAS];
+			long n = 0;
+			for (int i = 0; i < FAIXAS; i++) {
+				copia[i] = contagens.get(i);
+				n += copia[i];
+			}
+			if (n == 0) {
+				return 0;
+			}
+			long posicao = Math.max(1, (long) Math.ceil(percentual / 100.0 * n));
+			long acumulado = 0;
+			for (int i = 0; i < FAIXAS; i++) {
+				acumulado += copia[i];
+				if (acumulado >= posicao) {
+					return Math.min(limiteSuperior(i), maximo());
+				}
+			}
+			return maximo();
+		}
+	}
+
+	/** Instantâneo de todas as métricas, em texto (latências em microssegundos) */
+	public static String instantaneoTexto() {
+		StringBuilder texto = new StringBuilder();
+		texto.append("Métricas em ").append(agora()).append('\n');
+		texto.append("Contadores:\n");
+		for (Map.Entry<String, Contador> contador : contadores.entrySet()) {
+			texto.append(String.format(Locale.ROOT, "  %-44s %14d%n", contador.getKey(), contador.getValue().valor()));
+		}
+		texto.append(String.format(Locale.ROOT, "%-46s %10s %10s %10s %10s %10s %10s%n", "Latências (µs):",
+				"contagem", "média", "p50", "p90", "p99", "máximo"));
+		for (Map.Entry<String, Histograma> entrada : histogramas.entrySet()) {
+			Histograma h = entrada.getValue();
+			texto.append(String.format(Locale.ROOT, "  %-44s %10d %10.2f %10.2f %10.2f %10.2f %10.2f%n",
+					entrada.getKey(), h.contagem(), h.media() / 1e3, h.percentil(50) / 1e3, h.percentil(90) / 1e3,
+					h.percentil(99) / 1e3, h.maximo() / 1e3));
+		}
+		texto.append("Medidores:\n");
+		for (Map.Entry<String, LongSupplier> medidor : medidores.entrySet()) {
+			texto.append(String.format(Locale.ROOT, "  %-44s %14d%n", medidor.getKey(), ler(medidor.getValue())));
+		}
+		return texto.toString();
+	}
+
+	/** Instantâneo de todas as métricas, em JSON (latências em nanossegundos) */
+	public static String instantaneoJson() {
+		StringBuilder json = new StringBuilder();
+		json.append("{\n  \"instante\": \"").append(agora()).append("\",\n  \"contadores\": {");
+		String separador = "\n";
+		for (Map.Entry<String, Contador> contador : contadores.entrySet()) {
+			json.append(separador).append("    ").append(textoJson(contador.getKey())).append(": ")
+					.append(contador.getValue().valor());
+			separador = ",\n";
+		}
+		json.append("\n  },\n  \"histogramas\": {");
+		separador = "\n";
+		for (Map.Entry<String, Histograma> entrada : histogramas.entrySet()) {
+			Histograma h = entrada.getValue();
+			json.append(separador).append("    ").append(textoJson(entrada.getKey())).append(": ");
+			json.append(String.format(Locale.ROOT, "{\"contagem\": %d, \"media_ns\": %.1f, \"p50_ns\": %d, "
+					+ "\"p90_ns\": %d, \"p99_ns\": %d, \"p999_ns\": %d, \"maximo_ns\": %d}", h.contagem(), h.media(),
+					h.percentil(50), h.percentil(90), h.percentil(99), h.percentil(99.9), h.maximo()));
+			separador = ",\n";
+		}
+		json.append("\n  },\n  \"medidores\": {");
+		separador = "\n";
+		for (Map.Entry<String, LongSupplier> medidor : medidores.entrySet()) {
+			json.append(separador).append("    ").append(textoJson(medidor.getKey())).append(": ")
+					.append(ler(medidor.getValue()));
+			separador = ",\n";
+		}
+		json.append("\n  }\n}\n");
+		return json.toString();
+	}
+
+	private static String agora() {
+		return LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+	}
+
+	private static long ler(LongSupplier medidor) {
+		try {
+			return medidor.getAsLong();
+		} catch (RuntimeException e) {
+			return -1;
+		}
+	}
+
+	private static String textoJson(String texto) {
+		StringBuilder json = new StringBuilder(texto.length() + 2).append('"');
+		for (int i = 0; i < texto.length(); i++) {
+			char c = texto.charAt(i);
+			if (c == '"' || c == '\\') {
+				json.append('\\').append(c);
+			} else if (c < 0x20) {
+				json.append(String.format("\\u%04x", (int) c));
+			} else {
+				json.append(c);
+			}
+		}
+		return json.append('"').toString();
+	}
+
+	/**
+	 * Inicia a gravação periódica do relatório no arquivo da propriedade "metricas", a cada "metricas.periodo"
+	 * segundos, por uma thread de fundo. Não faz nada se as métricas estiverem desativadas.
+	 */
+	public static synchronized void iniciarRelatorio() {
+		if (!ATIVAS || relator != null) {
+			return;
+		}
+		long periodo = Math.max(1L, Long.getLong("metricas.periodo", 10L));
+		relator = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+			Thread thread = new Thread(tarefa, "metricas");
+			thread.setDaemon(true);
+			return thread;
+		});
+		relator.scheduleAtFixedRate(Metricas::gravarRelatorio, periodo, periodo, TimeUnit.SECONDS);
+	}
+
+	/** Para a gravação periódica e grava o relatório final */
+	public static synchronized void encerrarRelatorio() {
+		if (relator == null) {
+			return;
+		}
+		relator.shutdownNow();
+		relator = null;
+		gravarRelatorio();
+	}
+
+	/**
+	 * Grava o relatório no arquivo da propriedade "metricas", por um arquivo temporário renomeado no final,
+	 * para que quem lê o arquivo nunca veja um relatório pela metade.
+	 */
+	static void gravarRelatorio() {
+		String nome = System.getProperty("metricas", "");
+		if (nome.isEmpty()) {
+			return;
+		}
+		Path arquivo = Path.of(nome).toAbsolutePath();
+		String conteudo = nome.endsWith(".json") ? instantaneoJson() : instantaneoTexto();
+		try {
+			Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+			Files.writeString(temporario, conteudo, StandardCharsets.UTF_8);
+			Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			System.err.println("Não foi possível gravar as métricas: " + e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,223 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Modo de comandos (sem interação): executa uma sequência de comandos lida de um arquivo ou da entrada padrão,
+ * sem menus, pausas ou limpeza de tela, para testes de carga e medições de ponta a ponta.
+ * Um comando por linha; linhas vazias e iniciadas por '#' são ignoradas:
+ * - pedido F              inicia um novo pedido com a forma de pagamento F (1, à vista; 2, parcelado)
+ * - produto C             inclui no pedido aberto o produto de código C
+ * - descricao TEXTO       inclui no pedido aberto o produto com a descrição TEXTO
+ * - finalizar             finaliza o pedido aberto (pilha, fila, índices e diário)
+ * - media N               valor total médio dos N primeiros pedidos
+ * - acima X N             quantidade de pedidos, dentre os N primeiros, com valor total acima de X
+ * As respostas saem, uma linha por comando, por uma única saída com buffer. Comandos inválidos são
+ * informados com o número da linha e não interrompem a execução. Ao final, são exibidos o tempo e a vazão
+ * de cada tipo de comando e do total.
+ */
+public class ModoComandos {
+
+	private static final int TAMANHO_BUFFER = 1 << 16;
+
+	private enum Comando {
+		PEDIDO("pedido"), PRODUTO("produto"), DESCRICAO("descricao"), FINALIZAR("finalizar"), MEDIA("media"),
+		ACIMA("acima");
+
+		final String nome;
+
+		Comando(String nome) {
+			this.nome = nome;
+		}
+
+		static Comando de(String nome) {
+			for (Comando comando : values()) {
+				if (comando.nome.equals(nome)) {
+					return comando;
+				}
+			}
+			return null;
+		}
+	}
+
+	/** Tempo acumulado de um tipo de comando */
+	private static final class Estatistica {
+
+		long quantidade;
+		long nanos;
+		long maximo;
+
+		void registrar(long duracao) {
+			quantidade++;
+			nanos += duracao;
+			maximo = Math.max(maximo, duracao);
+		}
+	}
+
+	private final PrintWriter saida;
+	private final Estatistica[] estatisticas = new Estatistica[Comando.values().length];
+	private Pedido pedido;
+	private long invalidos;
+
+	private ModoComandos(PrintWriter saida) {
+		this.saida = saida;
+		for (int i = 0; i < estatisticas.length; i++) {
+			estatisticas[i] = new Estatistica();
+		}
+	}
+
+	/**
+	 * Executa os comandos do arquivo e exibe as estatísticas de tempo ao final.
+	 * @param nomeArquivo Nome do arquivo de comandos, ou "-" para a entrada padrão.
+	 * @throws IOException em caso de erro de leitura.
+	 */
+	public static void executar(String nomeArquivo) throws IOException {
+
+		PrintWriter saida = new PrintWriter(new BufferedWriter(
+				new OutputStreamWriter(System.out, StandardCharsets.UTF_8), TAMANHO_BUFFER), false);
+		Reader origem = nomeArquivo.equals("-")
+				? new InputStreamReader(System.in, StandardCharsets.UTF_8)
+				: Files.newBufferedReader(Path.of(nomeArquivo), StandardCharsets.UTF_8);
+
+		try (BufferedReader leitor = new BufferedReader(origem, TAMANHO_BUFFER)) {
+			new ModoComandos(saida).executar(leitor);
+		} finally {
+			saida.flush();
+		}
+	}
+
+	private void executar(BufferedReader leitor) throws IOException {
+
+		long inicio = System.nanoTime();
+		long numeroLinha = 0;
+		String linha;
+		while ((linha = leitor.readLine()) != null) {
+			numeroLinha++;
+			linha = linha.trim();
+			if (linha.isEmpty() || linha.charAt(0) == '#') {
+				continue;
+			}
+			int espaco = linha.indexOf(' ');
+			String nome = (espaco < 0) ? linha : linha.substring(0, espaco);
+			String argumentos = (espaco < 0) ? "" : linha.substring(espaco + 1).trim();
+
+			Comando comando = Comando.de(nome);
+			if (comando == null) {
+				invalido(numeroLinha, "comando desconhecido: " + nome);
+				continue;
+			}
+			long antes = System.nanoTime();
+			try {
+				executar(comando, argumentos);
+				estatisticas[comando.ordinal()].registrar(System.nanoTime() - antes);
+			} catch (IllegalArgumentException | IllegalStateException | IOException e) {
+				invalido(numeroLinha, e.getMessage());
+			}
+		}
+		exibirEstatisticas(System.nanoTime() - inicio);
+	}
+
+	private void executar(Comando comando, String argumentos) throws IOException {
+
+		switch (comando) {
+			case PEDIDO -> pedido = new Pedido(RelogioPrecos.hoje(), inteiro(argumentos));
+			case PRODUTO -> incluir(App.catalogo.localizar(inteiro(argumentos)), argumentos);
+			case DESCRICAO -> incluir(App.catalogo.localizarDescricao(argumentos), argumentos);
+			case FINALIZAR -> {
+				Pedido finalizado = pedidoAberto();
+				try {
+					App.armazenarPedidoFinalizado(finalizado);
+				} catch (PedidoNaoDuravelException e) {
+					// o pedido já está na pilha, na fila e nos índices: finalizá-lo de novo o duplicaria
+					pedido = null;
+					throw e;
+				}
+				pedido = null;
+				saida.append("finalizado ").print(finalizado.getIdPedido());
+				saida.append(' ').println(finalizado.valorFinalCentavos());
+			}
+			case MEDIA -> {
+				int n = inteiro(argumentos);
+				double media = App.filaPedidos.calcularValorMedio(App.VALOR_FINAL, n);
+				saida.println(String.format("media %d %.2f", n, media));
+			}
+			case ACIMA -> {
+				String[] partes = argumentos.split("\\s+");
+				if (partes.length != 2) {
+					throw new IllegalArgumentException("uso: acima X N");
+				}
+				double limite = decimal(partes[0]);
+				int n = inteiro(partes[1]);
+				int quantos = App.pedidosPorValor.pedidosAPartirDe(App.menorCentavosAcimaDe(limite), n).size();
+				saida.append("acima ").append(partes[0]).append(' ').print(n);
+				saida.append(' ').println(quantos);
+			}
+		}
+	}
+
+	private Pedido pedidoAberto() {
+		if (pedido == null) {
+			throw new IllegalStateException("não há pedido em aberto");
+		}
+		return pedido;
+	}
+
+	private void incluir(Produto produto, String argumentos) {
+		Pedido aberto = pedidoAberto();
+		if (produto == null) {
+			throw new IllegalArgumentException("produto não encontrado: " + argumentos);
+		}
+		if (!aberto.incluirProduto(produto)) {
+			throw new IllegalStateException("o pedido já tem o máximo de produtos");
+		}
+	}
+
+	private static int inteiro(String texto) {
+		try {
+			return Integer.parseInt(texto.trim());
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("número inválido: " + texto);
+		}
+	}
+
+	private static double decimal(String texto) {
+		try {
+			return Double.parseDouble(texto.trim());
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("valor inválido: " + texto);
+		}
+	}
+
+	private void invalido(long numeroLinha, String motivo) {
+		invalidos++;
+		saida.append("linha ").print(numeroLinha);
+		saida.append(": ").println(motivo);
+	}
+
+	private void exibirEstatisticas(long nanosTotal) {
+
+		saida.println();
+		saida.println(String.format("%-12s %12s %14s %12s %12s %14s", "Comando", "Quantidade", "Tempo (ms)",
+				"Média (µs)", "Máximo (µs)", "Comandos/s"));
+		long quantidadeTotal = 0;
+		for (Comando comando : Comando.values()) {
+			Estatistica estatistica = estatisticas[comando.ordinal()];
+			if (estatistica.quantidade == 0) {
+				continue;
+			}
+			quantidadeTotal += estatistica.quantidade;
+			saida.println(String.format("%-12s %12d %14.3f %12.3f %12.3f %14.0f", comando.nome,
+					estatistica.quantidade, estatistica.nanos / 1e6, estatistica.nanos / 1e3 / estatistica.quantidade,
+					estatistica.maximo / 1e3, estatistica.quantidade * 1e9 / Math.max(estatistica.nanos, 1)));
+		}
+		saida.println(String.format("Total: %d comando(s) em %.3f ms (%.0f comandos/s), %d inválido(s).",
+				quantidadeTotal, nanosTotal / 1e6, quantidadeTotal * 1e9 / Math.max(nanosTotal, 1), invalidos));
+	}
+}
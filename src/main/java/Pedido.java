@@ -0,0 +1,286 @@
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class Pedido implements Comparable<Pedido>{
+
+	/** Gerador atômico de identificadores, seguro para pedidos criados em várias threads */
+	private static final AtomicInteger ultimoID = new AtomicInteger(1);
+	
+	private int idPedido;
+	
+	/** Quantidade máxima de produtos de um pedido */
+	static final int MAX_PRODUTOS = 10;
+	
+	/** Porcentagem de desconto para pagamentos à vista */
+	static final double DESCONTO_PG_A_VISTA = 0.15;
+	
+	/** Vetor para armazenar os produtos do pedido */
+	private Produto[] produtos;
+	
+	/** Data de criação do pedido */
+	private LocalDate dataPedido;
+	
+	/** Indica a quantidade total de produtos no pedido até o momento */
+	private int quantProdutos = 0;
+	
+	/** Indica a forma de pagamento do pedido sendo: 1, pagamento à vista; 2, pagamento parcelado */
+	private int formaDePagamento;
+	
+	/** Marca de valor final ainda não calculado */
+	private static final long SEM_VALOR = -1L;
+	
+	/** Bits do valor memorizado reservados aos centavos; os bits restantes guardam o dia do cálculo */
+	private static final int BITS_CENTAVOS = 40;
+	private static final long MASCARA_CENTAVOS = (1L << BITS_CENTAVOS) - 1;
+	
+	/** Latência dos cálculos do valor final que não estavam memorizados (com as métricas ativadas) */
+	private static final Metricas.Histograma LATENCIA_CALCULO = Metricas.histograma("Pedido.calcularValorFinal");
+	
+	/**
+	 * Valor final memorizado: (dia do RelogioPrecos << 40) | centavos. Descartado quando um produto é incluído
+	 * e recalculado quando o dia muda, pois o preço dos perecíveis depende da data.
+	 */
+	private volatile long valorFinalMemorizado = SEM_VALOR;
+	
+	/**
+	 * Valor final, em centavos, congelado na finalização do pedido (SEM_VALOR enquanto o pedido está aberto).
+	 * Depois de finalizado, o pedido não é mais reprecificado: a pilha, a fila, os índices e o toString
+	 * informam sempre o mesmo valor, o cobrado na finalização, mesmo depois da virada do dia.
+	 */
+	private volatile long valorFinalCongelado = SEM_VALOR;
+	
+	/** Construtor do pedido.
+	 *  Deve criar o vetor de produtos do pedido, 
+	 *  armazenar a data, o código identificador e a forma de pagamento informados para o pedido. 
+	 */  
+	public Pedido(LocalDate dataPedido, int formaDePagamento) {
+		
+		idPedido = ultimoID.getAndIncrement();
+		produtos = new Produto[MAX_PRODUTOS];
+		quantProdutos = 0;
+		this.dataPedido = dataPedido;
+		this.formaDePagamento = formaDePagamento;
+	}
+	
+	/**
+     * Construtor com identificador já definido, para restaurar pedidos gravados (ex.: diário de pedidos).
+     * Os próximos identificadores gerados passam a ser maiores que o informado.
+     * @param idPedido Identificador gravado do pedido
+     * @param dataPedido Data de criação do pedido
+     * @param formaDePagamento Forma de pagamento (1, à vista; 2, parcelado)
+     */
+	Pedido(int idPedido, LocalDate dataPedido, int formaDePagamento) {
+		
+		this.idPedido = idPedido;
+		ultimoID.accumulateAndGet(idPedido + 1, Math::max);
+		produtos = new Produto[MAX_PRODUTOS];
+		quantProdutos = 0;
+		this.dataPedido = dataPedido;
+		this.formaDePagamento = formaDePagamento;
+	}
+	
+	/**
+     * Inclui um produto neste pedido e aumenta a quantidade de produtos armazenados no pedido até o momento.
+     * @param novo O produto a ser incluído no pedido
+     * Pedidos finalizados (com o valor congelado) não aceitam novos produtos.
+     * @return true/false indicando se a inclusão do produto no pedido foi realizada com sucesso.
+     */
+	public boolean incluirProduto(Produto novo) {
+		
+		if (quantProdutos < MAX_PRODUTOS && valorFinalCongelado == SEM_VALOR) {
+			produtos[quantProdutos++] = novo;
+			valorFinalMemorizado = SEM_VALOR;
+			return true;
+		}
+		return false;
+	}
+	
+	/** Descarta o valor final memorizado, para que o próximo valorFinal() o recalcule (ex.: medições) */
+	void descartarValorMemorizado() {
+		valorFinalMemorizado = SEM_VALOR;
+	}
+	
+	/**
+     * Congela o valor final do pedido, calculado no dia corrente, ao finalizá-lo (App.registrarPedidoFinalizado).
+     * Daí em diante, valorFinal e valorFinalCentavos devolvem sempre esse valor. Chamadas repetidas mantêm o
+     * primeiro valor congelado.
+     * @return Valor final congelado, em centavos
+     */
+	synchronized long congelarValorFinal() {
+		
+		if (valorFinalCongelado == SEM_VALOR) {
+			valorFinalCongelado = valorFinalCentavos();
+		}
+		return valorFinalCongelado;
+	}
+	
+	/**
+     * Calcula e retorna o valor final do pedido (soma do valor de venda de todos os produtos do pedido).
+     * Caso a forma de pagamento do pedido seja à vista, aplica o desconto correspondente.
+     * O valor é memorizado até a inclusão de um novo produto ou a virada do dia; depois da finalização,
+     * é o valor congelado (ver {@link #congelarValorFinal()}).
+     * @return Valor final do pedido (double)
+     */
+	public double valorFinal() {
+		return valorFinalCentavos() / 100.0;
+	}
+	
+	/**
+     * Valor final do pedido em centavos, arredondado para cima a partir da metade (HALF_UP).
+     * O valor é memorizado até a inclusão de um novo produto ou a virada do dia; depois da finalização,
+     * é o valor congelado (ver {@link #congelarValorFinal()}).
+     * @return Valor final do pedido, em centavos
+     */
+	public long valorFinalCentavos() {
+		
+		long congelado = valorFinalCongelado;
+		if (congelado != SEM_VALOR) {
+			return congelado;
+		}
+		long dia = RelogioPrecos.diaAtual();
+		long memorizado = valorFinalMemorizado;
+		if (memorizado != SEM_VALOR && (memorizado >>> BITS_CENTAVOS) == dia) {
+			return memorizado & MASCARA_CENTAVOS;
+		}
+		
+		long inicio = Metricas.inicio();
+		long centavos = calcularValorFinalCentavos();
+		LATENCIA_CALCULO.registrarDesde(inicio);
+		if (dia >= 0 && centavos >= 0 && centavos <= MASCARA_CENTAVOS) {
+			valorFinalMemorizado = (dia << BITS_CENTAVOS) | centavos;
+		}
+		return centavos;
+	}
+	
+	private long calcularValorFinalCentavos() {
+		
+		double valorPedido = 0;
+		
+		for (int i = 0; i < quantProdutos; i++) {
+			valorPedido += produtos[i].valorDeVenda();
+		}
+		
+		if (formaDePagamento == 1) {
+			valorPedido = valorPedido * (1.0 - DESCONTO_PG_A_VISTA);
+		}
+		
+		return arredondarCentavos(valorPedido);
+	}
+	
+	/**
+     * Arredonda um valor em reais para centavos com o mesmo resultado de
+     * new BigDecimal(Double.toString(valor)).setScale(2, RoundingMode.HALF_UP), sem criar objetos.
+     * Valores cuja terceira casa fica praticamente na metade (empate decimal), negativos ou muito grandes
+     * seguem pelo BigDecimal, pois neles o erro de representação do double poderia mudar o arredondamento.
+     * A distância mínima da metade cresce com o valor: valor * 100.0 difere do decimal de Double.toString(valor)
+     * em até 1,5 ulp de valor * 100.0, e a margem é de 4 ulps (com mínimo de 1e-6).
+     * @param valor Valor em reais
+     * @return Valor em centavos
+     */
+	static long arredondarCentavos(double valor) {
+		
+		double centavos = valor * 100.0;
+		double fracao = centavos - Math.floor(centavos);
+		double margem = Math.max(1e-6, 4 * Math.ulp(centavos));
+		
+		if (valor >= 0 && centavos < 1e12 && Math.abs(fracao - 0.5) > margem) {
+			return (long) Math.floor(centavos + 0.5);
+		}
+		
+		return arredondarCentavosBigDecimal(valor);
+	}
+	
+	/** Arredondamento de referência: new BigDecimal(Double.toString(valor)).setScale(2, HALF_UP), em centavos */
+	static long arredondarCentavosBigDecimal(double valor) {
+		BigDecimal valorBD = new BigDecimal(Double.toString(valor)).setScale(2, RoundingMode.HALF_UP);
+		return valorBD.movePointRight(2).longValueExact();
+	}
+	
+	/**
+     * Representação, em String, do pedido.
+     * Contém um cabeçalho com seu código identificador, sua data e o número de produtos no pedido.
+     * Depois, em cada linha, a descrição de cada produto do pedido.
+     * Ao final, mostra a forma de pagamento, o percentual de desconto (se for o caso) e o valor a ser pago pelo pedido.
+     * Exemplo:
+     * Número do pedido: 01
+     * Data do pedido: 25/08/2025
+     * Pedido com 2 produtos.
+     * Produtos no pedido:
+     * NOME: Iogurte: R$ 8.00
+     * Válido até: 29/08/2025
+     * NOME: Guardanapos: R$ 2.75
+     * Pedido pago à vista. Percentual de desconto: 15,00%
+     * Valor total do pedido: R$ 10.75 
+     * @return Uma string contendo dados do pedido conforme especificado (cabeçalho, detalhes, forma de pagamento,
+     * percentual de desconto - se for o caso - e valor a pagar)
+     */
+	@Override
+	public String toString() {
+		
+		StringBuilder stringPedido = new StringBuilder();
+		
+		stringPedido.append(String.format("Número do pedido: %02d\n", idPedido));
+		
+		DateTimeFormatter formatoData = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+		stringPedido.append("Data do pedido: " + formatoData.format(dataPedido) + "\n");
+		
+		stringPedido.append("Pedido com " + quantProdutos + " produtos.\n");
+		stringPedido.append("Produtos no pedido:\n");
+		for (int i = 0; i < quantProdutos; i++ ) {
+			stringPedido.append(produtos[i].toString() + "\n");
+		}
+		
+		stringPedido.append("Pedido pago ");
+		if (formaDePagamento == 1) {
+			stringPedido.append("à vista. Percentual de desconto: " + String.format("%.2f", DESCONTO_PG_A_VISTA * 100) + "%\n");
+		} else {
+			stringPedido.append("parcelado.\n");
+		}
+		
+		stringPedido.append("Valor total do pedido: R$ " + String.format("%.2f", valorFinal()));
+		
+		return stringPedido.toString();
+	}
+	
+    /**
+     * Comparação padrão do pedido: identificador.
+     * Retorna um valor negativo se este pedido tiver um identificador anterior ao do outro pedido,
+     * valor positivo se o identificador for posterior ao do outro pedido. Para o mesmo pedido, o
+     * retorno é 0.
+     * @param outro Pedido a ser comparado
+     * @return Int de acordo com a regra padrão de Comparable (descrita acima)
+     */
+    @Override
+    public int compareTo(Pedido outro) {
+    	if (this.idPedido == outro.idPedido) {
+    		return 0;
+    	} else if (this.idPedido < outro.idPedido) {
+    		return -1;
+    	} else {
+    		return 1;
+    	}
+    }
+    
+    public LocalDate getDataPedido() {
+    	return dataPedido;
+    }
+    
+    public int getIdPedido() {
+    	return idPedido;
+    }
+    
+    public int getFormaDePagamento() {
+    	return formaDePagamento;
+    }
+    
+    public int getQuantosProdutos() {
+    	return quantProdutos;
+    }
+    
+    public Produto[] getProdutos() {
+    	return produtos;
+    }
+}
\ No newline at end of file
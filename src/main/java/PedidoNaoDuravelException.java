@@ -0,0 +1,15 @@
+import java.io.IOException;
+
+/**
+ * Falha de gravação no diário de pedidos que já foram armazenados na pilha, na fila e nos índices.
+ * Os pedidos continuam em memória, mas não estão no disco e serão perdidos ao reiniciar; quem recebe esta
+ * exceção não deve armazená-los de novo (isso os duplicaria).
+ */
+public class PedidoNaoDuravelException extends IOException {
+
+	private static final long serialVersionUID = 1L;
+
+	public PedidoNaoDuravelException(String mensagem, IOException causa) {
+		super(mensagem, causa);
+	}
+}
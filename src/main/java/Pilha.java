@@ -0,0 +1,157 @@
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Pilha genérica encadeada com sentinela (último a entrar, primeiro a sair).
+ * O iterador não desempilha itens e falha (ConcurrentModificationException) se a pilha for alterada durante o percurso.
+ */
+public class Pilha<E> implements IPilha<E> {
+
+	private Celula<E> topo;
+	private Celula<E> fundo;
+
+	/** Quantidade de alterações, para os iteradores detectarem alterações durante o percurso */
+	private int modificacoes;
+
+	public Pilha() {
+
+		Celula<E> sentinela = new Celula<E>();
+		fundo = sentinela;
+		topo = sentinela;
+
+	}
+
+	@Override
+	public boolean vazia() {
+		return fundo == topo;
+	}
+
+	@Override
+	public void empilhar(E item) {
+
+		topo = new Celula<E>(item, topo);
+		modificacoes++;
+	}
+
+	/**
+	 * Encadeia os itens em células, do último (novo topo) para o primeiro, e liga a sequência inteira sobre o topo.
+	 */
+	@Override
+	public void empilharTodos(Collection<? extends E> itens) {
+		Celula<E> fundoLote = null;
+		Celula<E> topoLote = null;
+		for (E item : itens) {
+			topoLote = new Celula<E>(item, topoLote);
+			if (fundoLote == null) {
+				fundoLote = topoLote;
+			}
+		}
+		if (topoLote != null) {
+			empilharTodos(topoLote, fundoLote);
+		}
+	}
+
+	/**
+	 * Liga sobre o topo da pilha, em O(1), uma sequência de células já encadeada de 'topoLote' (novo topo)
+	 * até 'fundoLote'. As células passam a pertencer à pilha; o encadeamento após 'fundoLote' é substituído.
+	 */
+	public void empilharTodos(Celula<E> topoLote, Celula<E> fundoLote) {
+		if (topoLote == null || fundoLote == null) {
+			throw new IllegalArgumentException("A sequência de células não pode ser nula.");
+		}
+		fundoLote.setProximo(topo);
+		topo = topoLote;
+		modificacoes++;
+	}
+
+	@Override
+	public E desempilhar() {
+
+		E desempilhado = consultarTopo();
+		topo = topo.getProximo();
+		modificacoes++;
+		return desempilhado;
+
+	}
+
+	@Override
+	public E consultarTopo() {
+
+		if (vazia()) {
+			throw new NoSuchElementException("Nao há nenhum item na pilha!");
+		}
+
+		return topo.getItem();
+
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+
+			private Celula<E> proxima = topo;
+			private final int esperadas = modificacoes;
+
+			@Override
+			public boolean hasNext() {
+				return proxima != fundo;
+			}
+
+			@Override
+			public E next() {
+				if (modificacoes != esperadas) {
+					throw new ConcurrentModificationException();
+				}
+				if (proxima == fundo) {
+					throw new NoSuchElementException();
+				}
+				E item = proxima.getItem();
+				proxima = proxima.getProximo();
+				return item;
+			}
+		};
+	}
+
+	/**
+	 * Tarefa 2 (Pilha): subPilha
+	 * Cria e devolve uma nova pilha com os 'numItens' elementos do topo,
+	 * preservando a ordem. Lança exceção se não houver itens suficientes.
+	 */
+	@Override
+	public Pilha<E> subPilha(int numItens) {
+		
+		if (numItens < 0) {
+			throw new IllegalArgumentException("O número de itens não pode ser negativo.");
+		}
+
+		// Verifica se há itens suficientes na pilha
+		int contador = 0;
+		Celula<E> cursor = topo;
+		while (cursor != fundo && contador < numItens) {
+			contador++;
+			cursor = cursor.getProximo();
+		}
+		if (contador < numItens) {
+			throw new IllegalArgumentException("A pilha não contém elementos suficientes.");
+		}
+
+		Pilha<E> nova = new Pilha<>();
+
+		// Copia os primeiros numItens itens preservando a ordem (topo permanece topo)
+		Object[] buffer = new Object[numItens];
+		cursor = topo;
+		for (int i = 0; i < numItens; i++) {
+			buffer[i] = cursor.getItem();
+			cursor = cursor.getProximo();
+		}
+		for (int i = numItens - 1; i >= 0; i--) {
+			@SuppressWarnings("unchecked")
+			E item = (E) buffer[i];
+			nova.empilhar(item);
+		}
+
+		return nova;
+	}
+}
\ No newline at end of file
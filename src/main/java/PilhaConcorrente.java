@@ -0,0 +1,157 @@
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pilha encadeada sem bloqueio (pilha de Treiber), segura para várias threads.
+ * As células não mudam depois de publicadas; empilhar e desempilhar trocam o topo com compare-and-set.
+ * O iterador percorre a pilha como estava no instante em que foi criado, sem bloquear as outras threads.
+ */
+public class PilhaConcorrente<E> implements IPilha<E> {
+
+	/** Célula da pilha; o encadeamento só é alterado antes da publicação pelo compare-and-set do topo */
+	private static final class No<E> {
+
+		private final E item;
+		private No<E> proximo;
+
+		No(E item, No<E> proximo) {
+			this.item = item;
+			this.proximo = proximo;
+		}
+	}
+
+	private final AtomicReference<No<E>> topo = new AtomicReference<>();
+
+	@Override
+	public boolean vazia() {
+		return topo.get() == null;
+	}
+
+	@Override
+	public void empilhar(E item) {
+		No<E> atual;
+		No<E> novo;
+		do {
+			atual = topo.get();
+			novo = new No<E>(item, atual);
+		} while (!topo.compareAndSet(atual, novo));
+	}
+
+	/**
+	 * Encadeia os itens em células, do último (novo topo) para o primeiro, e publica a sequência inteira
+	 * com um único compare-and-set do topo, de modo que os itens do lote ficam contíguos.
+	 */
+	@Override
+	public void empilharTodos(Collection<? extends E> itens) {
+		No<E> fundoLote = null;
+		No<E> topoLote = null;
+		for (E item : itens) {
+			topoLote = new No<E>(item, topoLote);
+			if (fundoLote == null) {
+				fundoLote = topoLote;
+			}
+		}
+		if (topoLote == null) {
+			return;
+		}
+		No<E> atual;
+		do {
+			atual = topo.get();
+			fundoLote.proximo = atual;
+		} while (!topo.compareAndSet(atual, topoLote));
+	}
+
+	@Override
+	public E desempilhar() {
+		No<E> atual;
+		do {
+			atual = topo.get();
+			if (atual == null) {
+				throw new NoSuchElementException("Nao há nenhum item na pilha!");
+			}
+		} while (!topo.compareAndSet(atual, atual.proximo));
+		return atual.item;
+	}
+
+	@Override
+	public E consultarTopo() {
+		No<E> atual = topo.get();
+		if (atual == null) {
+			throw new NoSuchElementException("Nao há nenhum item na pilha!");
+		}
+		return atual.item;
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+
+			private No<E> proximo = topo.get();
+
+			@Override
+			public boolean hasNext() {
+				return proximo != null;
+			}
+
+			@Override
+			public E next() {
+				if (proximo == null) {
+					throw new NoSuchElementException();
+				}
+				E item = proximo.item;
+				proximo = proximo.proximo;
+				return item;
+			}
+		};
+	}
+
+	@Override
+	public Spliterator<E> spliterator() {
+		return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED | Spliterator.IMMUTABLE);
+	}
+
+	/**
+	 * Cria e devolve uma nova pilha com os 'numItens' elementos do topo, preservando a ordem.
+	 * A cópia é feita sobre o estado da pilha no instante da leitura do topo.
+	 * Lança exceção se não houver itens suficientes.
+	 */
+	@Override
+	public PilhaConcorrente<E> subPilha(int numItens) {
+
+		if (numItens < 0) {
+			throw new IllegalArgumentException("O número de itens não pode ser negativo.");
+		}
+
+		No<E> inicio = topo.get();
+		No<E> cursor = inicio;
+		int contador = 0;
+		while (cursor != null && contador < numItens) {
+			contador++;
+			cursor = cursor.proximo;
+		}
+		if (contador < numItens) {
+			throw new IllegalArgumentException("A pilha não contém elementos suficientes.");
+		}
+
+		// Copia as células do topo na mesma ordem (topo permanece topo)
+		PilhaConcorrente<E> nova = new PilhaConcorrente<>();
+		Object[] buffer = new Object[numItens];
+		cursor = inicio;
+		for (int i = 0; i < numItens; i++) {
+			buffer[i] = cursor.item;
+			cursor = cursor.proximo;
+		}
+		No<E> primeiro = null;
+		for (int i = numItens - 1; i >= 0; i--) {
+			@SuppressWarnings("unchecked")
+			E item = (E) buffer[i];
+			primeiro = new No<E>(item, primeiro);
+		}
+		nova.topo.set(primeiro);
+		return nova;
+	}
+}
@@ -0,0 +1,149 @@
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Pilha de valores int em vetor de int redimensionável, sem objetos por item: nenhuma operação converte os
+ * valores em Integer (empilhar, desempilhar, subPilha, iterador e fluxo).
+ * Mesmas operações e regras da {@link PilhaVetor}.
+ * O iterador percorre do topo ao fundo sem desempilhar e falha (ConcurrentModificationException)
+ * se a pilha for alterada durante o percurso.
+ */
+public class PilhaInt {
+
+	private static final int CAPACIDADE_INICIAL = 16;
+
+	/** Valores da pilha; o topo está na posição quantidade - 1 */
+	private int[] itens;
+	private int quantidade;
+
+	/** Quantidade de alterações, para os iteradores detectarem alterações durante o percurso */
+	private int modificacoes;
+
+	public PilhaInt() {
+		this(CAPACIDADE_INICIAL);
+	}
+
+	public PilhaInt(int capacidadeInicial) {
+		if (capacidadeInicial < 1) {
+			throw new IllegalArgumentException("A capacidade inicial deve ser positiva.");
+		}
+		itens = new int[capacidadeInicial];
+	}
+
+	public boolean vazia() {
+		return quantidade == 0;
+	}
+
+	public int tamanho() {
+		return quantidade;
+	}
+
+	/** Coloca o valor no topo da pilha */
+	public void empilhar(int valor) {
+		if (quantidade == itens.length) {
+			itens = Arrays.copyOf(itens, itens.length * 2);
+		}
+		itens[quantidade++] = valor;
+		modificacoes++;
+	}
+
+	/** Empilha os valores na ordem do vetor (o último fica no topo), com no máximo um redimensionamento */
+	public void empilharTodos(int[] valores) {
+		if (quantidade + valores.length > itens.length) {
+			itens = Arrays.copyOf(itens, Math.max(itens.length * 2, quantidade + valores.length));
+		}
+		System.arraycopy(valores, 0, itens, quantidade, valores.length);
+		quantidade += valores.length;
+		modificacoes++;
+	}
+
+	/**
+	 * Retira e devolve o valor do topo da pilha.
+	 * @throws NoSuchElementException se a pilha estiver vazia.
+	 */
+	public int desempilhar() {
+		int desempilhado = consultarTopo();
+		quantidade--;
+		modificacoes++;
+		return desempilhado;
+	}
+
+	/**
+	 * Devolve, sem retirar, o valor do topo da pilha.
+	 * @throws NoSuchElementException se a pilha estiver vazia.
+	 */
+	public int consultarTopo() {
+		if (vazia()) {
+			throw new NoSuchElementException("Nao há nenhum item na pilha!");
+		}
+		return itens[quantidade - 1];
+	}
+
+	/**
+	 * Cria e devolve uma nova pilha com os 'numItens' valores do topo,
+	 * preservando a ordem (topo permanece topo). Lança exceção se não houver itens suficientes.
+	 */
+	public PilhaInt subPilha(int numItens) {
+
+		if (numItens < 0) {
+			throw new IllegalArgumentException("O número de itens não pode ser negativo.");
+		}
+		if (numItens > quantidade) {
+			throw new IllegalArgumentException("A pilha não contém elementos suficientes.");
+		}
+
+		PilhaInt nova = new PilhaInt(Math.max(numItens, 1));
+		System.arraycopy(itens, quantidade - numItens, nova.itens, 0, numItens);
+		nova.quantidade = numItens;
+		return nova;
+	}
+
+	/** Cópia dos valores, do topo ao fundo da pilha */
+	public int[] paraVetor() {
+		int[] copia = new int[quantidade];
+		for (int i = 0; i < quantidade; i++) {
+			copia[i] = itens[quantidade - 1 - i];
+		}
+		return copia;
+	}
+
+	/** Iterador dos valores, do topo ao fundo, sem desempilhá-los (use nextInt para não converter em Integer) */
+	public PrimitiveIterator.OfInt iterator() {
+		return new PrimitiveIterator.OfInt() {
+
+			private int proximo = quantidade - 1;
+			private final int esperadas = modificacoes;
+
+			@Override
+			public boolean hasNext() {
+				return proximo >= 0;
+			}
+
+			@Override
+			public int nextInt() {
+				if (modificacoes != esperadas) {
+					throw new ConcurrentModificationException();
+				}
+				if (proximo < 0) {
+					throw new NoSuchElementException();
+				}
+				return itens[proximo--];
+			}
+		};
+	}
+
+	public Spliterator.OfInt spliterator() {
+		return Spliterators.spliterator(iterator(), quantidade, Spliterator.ORDERED);
+	}
+
+	/** Fluxo (IntStream) sequencial dos valores, do topo ao fundo, sem desempilhá-los */
+	public IntStream stream() {
+		return StreamSupport.intStream(spliterator(), false);
+	}
+}
@@ -0,0 +1,143 @@
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * Pilha genérica em vetor redimensionável.
+ * - empilhar(E): grava na próxima posição livre; dobra o vetor quando cheio (sem alocação por item, custo amortizado O(1)).
+ * - desempilhar(): retira do topo; lança exceção se vazia.
+ * - subPilha(k): copia os k itens do topo com uma única cópia em bloco (System.arraycopy), em O(k).
+ * O iterador percorre do topo ao fundo sem desempilhar e falha (ConcurrentModificationException)
+ * se a pilha for alterada durante o percurso.
+ */
+public class PilhaVetor<E> implements IPilha<E> {
+
+	private static final int CAPACIDADE_INICIAL = 16;
+
+	/** Itens da pilha; o topo está na posição quantidade - 1 */
+	private Object[] itens;
+	private int quantidade;
+
+	/** Quantidade de alterações, para os iteradores detectarem alterações durante o percurso */
+	private int modificacoes;
+
+	public PilhaVetor() {
+		this(CAPACIDADE_INICIAL);
+	}
+
+	public PilhaVetor(int capacidadeInicial) {
+		if (capacidadeInicial < 1) {
+			throw new IllegalArgumentException("A capacidade inicial deve ser positiva.");
+		}
+		itens = new Object[capacidadeInicial];
+		quantidade = 0;
+	}
+
+	@Override
+	public boolean vazia() {
+		return quantidade == 0;
+	}
+
+	@Override
+	public int tamanho() {
+		return quantidade;
+	}
+
+	@Override
+	public void empilhar(E item) {
+		if (quantidade == itens.length) {
+			redimensionar(itens.length * 2);
+		}
+		itens[quantidade++] = item;
+		modificacoes++;
+	}
+
+	/** Copia o lote inteiro para o topo, com no máximo um redimensionamento */
+	@Override
+	public void empilharTodos(Collection<? extends E> novos) {
+		Object[] lote = novos.toArray();
+		if (quantidade + lote.length > itens.length) {
+			redimensionar(Math.max(itens.length * 2, quantidade + lote.length));
+		}
+		System.arraycopy(lote, 0, itens, quantidade, lote.length);
+		quantidade += lote.length;
+		modificacoes++;
+	}
+
+	private void redimensionar(int novaCapacidade) {
+		Object[] novos = new Object[novaCapacidade];
+		System.arraycopy(itens, 0, novos, 0, quantidade);
+		itens = novos;
+	}
+
+	@Override
+	public E desempilhar() {
+		E desempilhado = consultarTopo();
+		itens[--quantidade] = null;
+		modificacoes++;
+		return desempilhado;
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+
+			private int proximo = quantidade - 1;
+			private final int esperadas = modificacoes;
+
+			@Override
+			public boolean hasNext() {
+				return proximo >= 0;
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public E next() {
+				if (modificacoes != esperadas) {
+					throw new ConcurrentModificationException();
+				}
+				if (proximo < 0) {
+					throw new NoSuchElementException();
+				}
+				return (E) itens[proximo--];
+			}
+		};
+	}
+
+	@Override
+	public Spliterator<E> spliterator() {
+		return Spliterators.spliterator(iterator(), quantidade, Spliterator.ORDERED);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E consultarTopo() {
+		if (vazia()) {
+			throw new NoSuchElementException("Nao há nenhum item na pilha!");
+		}
+		return (E) itens[quantidade - 1];
+	}
+
+	/**
+	 * Cria e devolve uma nova pilha com os 'numItens' elementos do topo,
+	 * preservando a ordem (topo permanece topo). Lança exceção se não houver itens suficientes.
+	 */
+	@Override
+	public PilhaVetor<E> subPilha(int numItens) {
+
+		if (numItens < 0) {
+			throw new IllegalArgumentException("O número de itens não pode ser negativo.");
+		}
+		if (numItens > quantidade) {
+			throw new IllegalArgumentException("A pilha não contém elementos suficientes.");
+		}
+
+		PilhaVetor<E> nova = new PilhaVetor<>(Math.max(numItens, 1));
+		System.arraycopy(itens, quantidade - numItens, nova.itens, 0, numItens);
+		nova.quantidade = numItens;
+		return nova;
+	}
+}
@@ -1,11 +1,13 @@
 import java.text.NumberFormat;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public abstract class Produto implements Comparable<Produto>{
 	
 	private static final double MARGEM_PADRAO = 0.2;
-	private static int ultimoID = 10_000;
+	/** Gerador atômico de identificadores, seguro para criação de produtos em várias threads */
+	private static final AtomicInteger ultimoID = new AtomicInteger(10_000);
 	
 	protected int idProduto;
 	protected String descricao;
@@ -25,12 +27,47 @@ public abstract class Produto implements Comparable<Produto>{
 			descricao = desc;
 			this.precoCusto = precoCusto;
 			this.margemLucro = margemLucro;
-			idProduto = ultimoID++;
+			idProduto = ultimoID.getAndIncrement();
 		} else {
 			throw new IllegalArgumentException("Valores inválidos para os dados do produto.");
 		}
 	}
 	
+	/**
+     * Inicializador com identificador já definido (reservado previamente com {@link #reservarIds(int)}).
+     * Aplica as mesmas validações do inicializador padrão, mas não consome um novo identificador.
+     */
+	private void init(int idProduto, String desc, double precoCusto, double margemLucro) {
+		
+		if ((desc.length() >= 3) && (precoCusto > 0.0) && (margemLucro > 0.0)) {
+			descricao = desc;
+			this.precoCusto = precoCusto;
+			this.margemLucro = margemLucro;
+			this.idProduto = idProduto;
+		} else {
+			throw new IllegalArgumentException("Valores inválidos para os dados do produto.");
+		}
+	}
+	
+	/**
+     * Reserva um bloco contíguo de identificadores, para criação de produtos fora de ordem (ex.: carga paralela).
+     * Os identificadores devolvidos são [retorno, retorno + quantidade).
+     * @param quantidade Quantidade de identificadores a reservar
+     * @return O primeiro identificador do bloco reservado
+     */
+	static int reservarIds(int quantidade) {
+		return ultimoID.getAndAdd(quantidade);
+	}
+	
+	/**
+     * Garante que os próximos identificadores gerados sejam maiores ou iguais ao valor informado.
+     * Usado ao restaurar produtos com identificadores já gravados (ex.: snapshot do catálogo).
+     * @param minimo Menor identificador que ainda pode ser gerado
+     */
+	static void ajustarUltimoId(int minimo) {
+		ultimoID.accumulateAndGet(minimo, Math::max);
+	}
+	
 	/**
      * Construtor completo. Os valores default, em caso de erro, são:
      * "Produto sem descrição", R$ 0.00, 0.0  
@@ -53,6 +90,17 @@ public abstract class Produto implements Comparable<Produto>{
 		init(desc, precoCusto, MARGEM_PADRAO);
 	}
 	
+	/**
+     * Construtor com identificador já reservado com {@link #reservarIds(int)}.
+     * @param idProduto Identificador reservado para o produto
+     * @param desc Descrição do produto (mínimo de 3 caracteres)
+     * @param precoCusto Preço do produto (mínimo 0.01)
+     * @param margemLucro Margem de lucro (mínimo 0.01)
+     */
+	protected Produto(int idProduto, String desc, double precoCusto, double margemLucro) {
+		init(idProduto, desc, precoCusto, margemLucro);
+	}
+	
 	 /**
      * Retorna o valor de venda do produto, considerando seu preço de custo e margem de lucro.
      * @return Valor de venda do produto (double, positivo)
@@ -4,7 +4,7 @@ import java.time.format.DateTimeFormatter;
 public class ProdutoPerecivel extends Produto{
 
 	/** Desconto para proximidade de validade: 25% */
-	private static final double DESCONTO = 0.25;
+	static final double DESCONTO = 0.25;
 	
 	/** Prazo, em dias, para conceder o desconto por proximidade da validade */
 	private static final int PRAZO_DESCONTO = 7;
@@ -12,6 +12,21 @@ public class ProdutoPerecivel extends Produto{
 	/** Data de validade do produto. Não pode ser anterior à data da criação ou venda do produto. */
 	private LocalDate dataDeValidade;
 	
+	/** Preço de venda calculado para um dia (em dias desde 01/01/1970) */
+	private static final class PrecoDoDia {
+		
+		final long dia;
+		final double valor;
+		
+		PrecoDoDia(long dia, double valor) {
+			this.dia = dia;
+			this.valor = valor;
+		}
+	}
+	
+	/** Último preço calculado; vale enquanto o dia do relógio de preços for o mesmo */
+	private volatile PrecoDoDia precoDoDia;
+	
 	/**
      * Construtor completo. 
      * Causa exceção em caso de valores inválidos para os dados do produto.
@@ -25,7 +40,7 @@ public class ProdutoPerecivel extends Produto{
 		
 		super(desc, precoCusto, margemLucro);
 		
-		if (validade.isBefore(LocalDate.now())) {
+		if (validade.isBefore(RelogioPrecos.hoje())) {
 			throw new IllegalArgumentException("Data de validade do produto é anterior ao dia de hoje!");
 		}
 		dataDeValidade = validade;
@@ -42,7 +57,26 @@ public class ProdutoPerecivel extends Produto{
 		
 		super(desc, precoCusto);
 		
-		if (validade.isBefore(LocalDate.now())) {
+		if (validade.isBefore(RelogioPrecos.hoje())) {
+			throw new IllegalArgumentException("Data de validade do produto é anterior ao dia de hoje!");
+		}
+		dataDeValidade = validade;
+	}
+	
+	/**
+     * Construtor com identificador já reservado (usado pelas cargas em lote).
+     * @param idProduto Identificador reservado com Produto.reservarIds
+     * @param desc Descrição do produto (mínimo de 3 caracteres)
+     * @param precoCusto Preço de compra do produto (mínimo 0.01)
+     * @param margemLucro Margem de lucro para a venda (mínimo 0.01)
+     * @param validade Data de validade do produto, que deve ser posterior à data atual.
+     * @throws IllegalArgumentException em caso dos limites acima serem desrespeitados.
+     */
+	ProdutoPerecivel(int idProduto, String desc, double precoCusto, double margemLucro, LocalDate validade) {
+		
+		super(idProduto, desc, precoCusto, margemLucro);
+		
+		if (validade.isBefore(RelogioPrecos.hoje())) {
 			throw new IllegalArgumentException("Data de validade do produto é anterior ao dia de hoje!");
 		}
 		dataDeValidade = validade;
@@ -51,26 +85,63 @@ public class ProdutoPerecivel extends Produto{
 	/**
      * Retorna o valor de venda do produto, considerando seu preço de custo, margem de lucro e
      * dias de validade. Se o prazo de validade estiver a menos de 7 dias, será concedido desconto de 25%.
+     * O preço é calculado uma vez por dia do {@link RelogioPrecos} e reaproveitado nas leituras seguintes.
      * @return Valor de venda do produto (double, positivo)
      */
 	@Override
 	public double valorDeVenda() {
 		
+		long dia = RelogioPrecos.diaAtual();
+		PrecoDoDia preco = precoDoDia;
+		
+		if (preco == null || preco.dia != dia) {
+			preco = new PrecoDoDia(dia, calcularValorDeVenda(RelogioPrecos.hoje()));
+			precoDoDia = preco;
+		}
+		
+		return preco.valor;
+	}
+	
+	/**
+     * Calcula o valor de venda para a data informada.
+     * @throws IllegalArgumentException se a validade for anterior à data.
+     */
+	private double calcularValorDeVenda(LocalDate hoje) {
+		
 		double precoVenda;
 		
-		if (dataDeValidade.isBefore(LocalDate.now())) {
+		if (dataDeValidade.isBefore(hoje)) {
 			throw new IllegalArgumentException("Data de validade do produto é anterior ao dia de hoje!");
 		}
 		
 		precoVenda = (precoCusto * (1.0 + margemLucro));
 				
-		if (LocalDate.now().until(dataDeValidade).getDays() <= PRAZO_DESCONTO) {
+		if (comDesconto(dataDeValidade, hoje)) {
 			precoVenda = precoVenda * (1.0 - DESCONTO);
 		}
 		
 		return precoVenda;
 	}
 	
+	/**
+     * Indica se um produto com a validade informada recebe, na data 'hoje', o desconto por proximidade da validade.
+     * Regra compartilhada com o {@link CatalogoColunar}.
+     */
+	static boolean comDesconto(LocalDate validade, LocalDate hoje) {
+		return hoje.until(validade).getDays() <= PRAZO_DESCONTO;
+	}
+	
+	/**
+     * Recalcula e memoriza o preço para o dia informado (usado na reprecificação em lote do RelogioPrecos).
+     * Produtos vencidos não são memorizados: a próxima leitura do preço lança a exceção de validade.
+     */
+	void reprecificar(LocalDate hoje, long dia) {
+		
+		if (!dataDeValidade.isBefore(hoje)) {
+			precoDoDia = new PrecoDoDia(dia, calcularValorDeVenda(hoje));
+		}
+	}
+	
 	/**
      * Descrição, em string, do produto, contendo sua descrição, o valor de venda e sua data de validade.
      *  @return String com o formato:
@@ -88,6 +159,11 @@ public class ProdutoPerecivel extends Produto{
         return dados;
     }
     
+    /** Data de validade do produto */
+    LocalDate getDataDeValidade() {
+    	return dataDeValidade;
+    }
+    
     /**
      * Gera uma linha de texto a partir dos dados do produto. Preço e margem de lucro são formatados com 2 casas decimais.
      * Data de validade é formatada no formato dd/mm/aaaa
@@ -0,0 +1,121 @@
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Relógio de preços: informa o dia corrente para o cálculo de preços e detecta a virada do dia.
+ * A consulta custa uma leitura de System.currentTimeMillis e uma comparação; a data só é recalculada
+ * quando o instante atual sai do intervalo do dia corrente.
+ * Na virada do dia, a thread que a detecta reprecifica de uma vez os produtos perecíveis do catálogo
+ * registrado (regra de desconto por proximidade da validade) e só então publica o novo dia.
+ */
+public final class RelogioPrecos {
+
+	/** Dia corrente e o intervalo [inicio, fim) em milissegundos que ele cobre */
+	private static final class Dia {
+
+		final long epochDay;
+		final LocalDate data;
+		final long inicio;
+		final long fim;
+
+		Dia(LocalDate data, ZoneId zona) {
+			this.epochDay = data.toEpochDay();
+			this.data = data;
+			this.inicio = data.atStartOfDay(zona).toInstant().toEpochMilli();
+			this.fim = data.plusDays(1).atStartOfDay(zona).toInstant().toEpochMilli();
+		}
+
+		boolean contem(long instante) {
+			return instante >= inicio && instante < fim;
+		}
+	}
+
+	private static volatile Clock relogio = Clock.systemDefaultZone();
+	private static volatile Dia atual = new Dia(LocalDate.now(relogio), relogio.getZone());
+
+	/** Catálogo reprecificado em lote a cada virada do dia */
+	private static volatile Produto[] catalogo;
+	private static volatile int quantosNoCatalogo;
+
+	private RelogioPrecos() {
+	}
+
+	/**
+	 * Substitui o relógio usado para determinar o dia (ex.: para simulações ou testes).
+	 * Os preços são reprecificados para o dia do novo relógio.
+	 */
+	public static synchronized void usarRelogio(Clock novoRelogio) {
+		if (novoRelogio == null) {
+			throw new IllegalArgumentException("O relógio não pode ser nulo.");
+		}
+		relogio = novoRelogio;
+		publicarNovoDia();
+	}
+
+	/**
+	 * Registra o catálogo a ser reprecificado em lote a cada virada do dia.
+	 * @param produtos Vetor de produtos (pode ser null para cancelar o registro).
+	 * @param quantos Quantidade de posições válidas no vetor.
+	 */
+	public static void registrarCatalogo(Produto[] produtos, int quantos) {
+		catalogo = produtos;
+		quantosNoCatalogo = (produtos == null) ? 0 : quantos;
+	}
+
+	/** Dia corrente, em dias desde 01/01/1970 */
+	public static long diaAtual() {
+		return diaCorrente().epochDay;
+	}
+
+	/** Data corrente */
+	public static LocalDate hoje() {
+		return diaCorrente().data;
+	}
+
+	private static Dia diaCorrente() {
+		Dia dia = atual;
+		long agora = relogio.millis();
+		if (!dia.contem(agora)) {
+			dia = virarDia(agora);
+		}
+		return dia;
+	}
+
+	private static synchronized Dia virarDia(long agora) {
+		Dia dia = atual;
+		if (dia.contem(agora)) {
+			// outra thread já virou o dia
+			return dia;
+		}
+		return publicarNovoDia();
+	}
+
+	private static Dia publicarNovoDia() {
+		Dia novo = new Dia(LocalDate.now(relogio), relogio.getZone());
+		reprecificar(catalogo, quantosNoCatalogo, novo.data);
+		atual = novo;
+		return novo;
+	}
+
+	/**
+	 * Reprecifica em uma única passada todos os produtos perecíveis do vetor para o dia corrente.
+	 * @param produtos Vetor de produtos (pode ser null).
+	 * @param quantos Quantidade de posições válidas no vetor.
+	 */
+	public static void reprecificar(Produto[] produtos, int quantos) {
+		reprecificar(produtos, quantos, hoje());
+	}
+
+	private static void reprecificar(Produto[] produtos, int quantos, LocalDate data) {
+		if (produtos == null) {
+			return;
+		}
+		long dia = data.toEpochDay();
+		for (int i = 0; i < quantos; i++) {
+			if (produtos[i] instanceof ProdutoPerecivel perecivel) {
+				perecivel.reprecificar(data, dia);
+			}
+		}
+	}
+}
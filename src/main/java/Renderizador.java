@@ -0,0 +1,296 @@
+import java.io.PrintStream;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Renderização de listagens de produtos e pedidos em um único StringBuilder reaproveitado, descarregado na saída
+ * em blocos grandes em vez de uma escrita por linha.
+ * O texto gerado é idêntico, byte a byte, ao de toString() e String.format no locale padrão; a diferença está no custo:
+ * - o formato de moeda, o de data e o percentual de desconto são obtidos uma única vez;
+ * - valores em moeda, totais de pedidos, datas e números são escritos diretamente a partir dos centavos e dígitos,
+ *   sem objetos intermediários.
+ * Sempre que o caminho direto poderia divergir do original (valores perto de empate no arredondamento, locale
+ * com dígitos ou padrões não usuais, descrições com '%', que o toString original interpreta como formato,
+ * ou subclasses desconhecidas), o item é formatado pelos formatadores guardados ou pelo próprio toString().
+ * Não é seguro para várias threads: cada thread deve usar o seu renderizador.
+ */
+public class Renderizador {
+
+	/** Tamanho do buffer a partir do qual o conteúdo é descarregado na saída */
+	private static final int LIMITE_BUFFER = 1 << 16;
+
+	/** Valores em moeda a partir deste limite são formatados pelo NumberFormat */
+	private static final double LIMITE_MOEDA = 1e7;
+
+	/** Totais de pedidos, em centavos, a partir deste limite são formatados pelo String.format */
+	private static final long LIMITE_CENTAVOS = 1_000_000_000_000L;
+
+	private final PrintStream saida;
+	private final StringBuilder buffer = new StringBuilder(LIMITE_BUFFER + 4096);
+	private final String quebraDeLinha = System.lineSeparator();
+
+	private final NumberFormat moeda = NumberFormat.getCurrencyInstance();
+	private final DateTimeFormatter formatoData = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+	private final String textoAVista = "à vista. Percentual de desconto: "
+			+ String.format("%.2f", Pedido.DESCONTO_PG_A_VISTA * 100) + "%\n";
+
+	/** Formato de moeda do locale, para a escrita direta; 'moedaDireta' indica se ela reproduz o NumberFormat */
+	private boolean moedaDireta;
+	private String prefixoMoeda = "";
+	private String sufixoMoeda = "";
+	private char separadorDecimalMoeda;
+	private char separadorMilharMoeda;
+	private int tamanhoGrupoMoeda;
+
+	/** Separador decimal de String.format("%.2f") e se %d / %02d usam dígitos ASCII no locale padrão */
+	private char separadorDecimalFormato;
+	private boolean numerosDiretos;
+
+	private final char[] digitos = new char[32];
+
+	/**
+	 * Cria um renderizador que escreve na saída informada (ex.: System.out).
+	 * Os formatos são os do locale padrão no momento da criação.
+	 */
+	public Renderizador(PrintStream saida) {
+		if (saida == null) {
+			throw new IllegalArgumentException("A saída não pode ser nula.");
+		}
+		this.saida = saida;
+		configurarMoeda();
+		configurarNumeros();
+	}
+
+	private void configurarMoeda() {
+		if (!(moeda instanceof DecimalFormat formato)) {
+			return;
+		}
+		DecimalFormatSymbols simbolos = formato.getDecimalFormatSymbols();
+		if (formato.getMinimumFractionDigits() != 2 || formato.getMaximumFractionDigits() != 2
+				|| formato.getMultiplier() != 1 || formato.getMinimumIntegerDigits() != 1
+				|| simbolos.getZeroDigit() != '0') {
+			return;
+		}
+		prefixoMoeda = formato.getPositivePrefix();
+		sufixoMoeda = formato.getPositiveSuffix();
+		separadorDecimalMoeda = simbolos.getMonetaryDecimalSeparator();
+		boolean agrupa = formato.isGroupingUsed() && formato.getGroupingSize() > 0;
+		separadorMilharMoeda = simbolos.getMonetaryGroupingSeparator();
+		tamanhoGrupoMoeda = agrupa ? formato.getGroupingSize() : Integer.MAX_VALUE;
+
+		// confirma, em valores de amostra, que a escrita direta reproduz o NumberFormat
+		moedaDireta = true;
+		for (double amostra : new double[] {0, 0.07, 0.5, 1, 12.34, 999.99, 1000, 1234.5, 98765.43, 1234567.89}) {
+			buffer.setLength(0);
+			escreverMoeda(Math.round(amostra * 100));
+			if (!buffer.toString().equals(moeda.format(amostra))) {
+				moedaDireta = false;
+				break;
+			}
+		}
+		buffer.setLength(0);
+	}
+
+	private void configurarNumeros() {
+		String amostra = String.format("%.2f", 1234.5);
+		if (amostra.length() != 7) {
+			return;
+		}
+		separadorDecimalFormato = amostra.charAt(4);
+		numerosDiretos = true;
+		for (int inteiro : new int[] {0, 7, 42, 1234567}) {
+			buffer.setLength(0);
+			numero2(inteiro);
+			buffer.append(' ');
+			inteiro(inteiro);
+			if (!buffer.toString().equals(String.format("%02d %d", inteiro, inteiro))) {
+				numerosDiretos = false;
+			}
+		}
+		buffer.setLength(0);
+		if (numerosDiretos) {
+			escreverDecimal(123456789L);
+			numerosDiretos = buffer.toString().equals(String.format("%.2f", 1234567.89));
+		}
+		buffer.setLength(0);
+	}
+
+	/** Acrescenta um texto */
+	public Renderizador texto(String texto) {
+		buffer.append(texto);
+		return this;
+	}
+
+	/** Acrescenta uma quebra de linha, como System.out.println(), e descarrega o buffer se estiver cheio */
+	public Renderizador linha() {
+		buffer.append(quebraDeLinha);
+		if (buffer.length() >= LIMITE_BUFFER) {
+			descarregar();
+		}
+		return this;
+	}
+
+	/** Acrescenta um texto seguido de quebra de linha, como System.out.println(texto) */
+	public Renderizador linha(String texto) {
+		return texto(texto).linha();
+	}
+
+	/** Acrescenta um inteiro com pelo menos dois dígitos, como String.format("%02d", numero) */
+	public Renderizador numero2(int numero) {
+		if (numerosDiretos && numero >= 0) {
+			if (numero < 10) {
+				buffer.append('0');
+			}
+			buffer.append(numero);
+		} else {
+			buffer.append(String.format("%02d", numero));
+		}
+		return this;
+	}
+
+	/** Acrescenta um inteiro, como String.format("%d", numero) */
+	public Renderizador inteiro(int numero) {
+		if (numerosDiretos && numero >= 0) {
+			buffer.append(numero);
+		} else {
+			buffer.append(String.format("%d", numero));
+		}
+		return this;
+	}
+
+	/** Acrescenta um valor em moeda, como NumberFormat.getCurrencyInstance().format(valor) */
+	public Renderizador moeda(double valor) {
+		if (moedaDireta && valor >= 0 && valor < LIMITE_MOEDA) {
+			double centavos = valor * 100.0;
+			double fracao = centavos - Math.floor(centavos);
+			// o NumberFormat arredonda empates para o par; perto do empate, o cálculo em double não decide
+			if (Math.abs(fracao - 0.5) > 1e-6) {
+				escreverMoeda((long) Math.floor(centavos + 0.5));
+				return this;
+			}
+		}
+		buffer.append(moeda.format(valor));
+		return this;
+	}
+
+	/** Acrescenta uma data no formato dd/MM/yyyy */
+	public Renderizador data(LocalDate data) {
+		int ano = data.getYear();
+		if (ano >= 1000 && ano <= 9999) {
+			dois(data.getDayOfMonth()).append('/');
+			dois(data.getMonthValue()).append('/').append(ano);
+		} else {
+			formatoData.formatTo(data, buffer);
+		}
+		return this;
+	}
+
+	/** Acrescenta o mesmo texto de produto.toString() */
+	public Renderizador produto(Produto produto) {
+		int marca = buffer.length();
+		try {
+			escreverProduto(produto);
+		} catch (RuntimeException e) {
+			buffer.setLength(marca);
+			throw e;
+		}
+		return this;
+	}
+
+	/** Acrescenta o mesmo texto de pedido.toString() */
+	public Renderizador pedido(Pedido pedido) {
+		int marca = buffer.length();
+		try {
+			escreverPedido(pedido);
+		} catch (RuntimeException e) {
+			buffer.setLength(marca);
+			throw e;
+		}
+		return this;
+	}
+
+	/** Escreve na saída o conteúdo acumulado */
+	public void descarregar() {
+		if (buffer.length() > 0) {
+			saida.print(buffer);
+			buffer.setLength(0);
+		}
+		saida.flush();
+	}
+
+	private void escreverProduto(Produto produto) {
+		Class<?> classe = produto.getClass();
+		if ((classe != ProdutoNaoPerecivel.class && classe != ProdutoPerecivel.class)
+				|| produto.descricao.indexOf('%') >= 0) {
+			buffer.append(produto.toString());
+			return;
+		}
+		double valor = produto.valorDeVenda();
+		buffer.append("NOME: ").append(produto.descricao).append(": ");
+		moeda(valor);
+		if (produto instanceof ProdutoPerecivel perecivel) {
+			buffer.append("\nVálido até ");
+			data(perecivel.getDataDeValidade());
+		}
+	}
+
+	private void escreverPedido(Pedido pedido) {
+		if (pedido.getClass() != Pedido.class) {
+			buffer.append(pedido.toString());
+			return;
+		}
+		buffer.append("Número do pedido: ");
+		numero2(pedido.getIdPedido());
+		buffer.append("\nData do pedido: ");
+		data(pedido.getDataPedido());
+		buffer.append("\nPedido com ").append(pedido.getQuantosProdutos()).append(" produtos.\n");
+		buffer.append("Produtos no pedido:\n");
+		Produto[] produtos = pedido.getProdutos();
+		for (int i = 0; i < pedido.getQuantosProdutos(); i++) {
+			escreverProduto(produtos[i]);
+			buffer.append('\n');
+		}
+		buffer.append("Pedido pago ");
+		buffer.append(pedido.getFormaDePagamento() == 1 ? textoAVista : "parcelado.\n");
+		buffer.append("Valor total do pedido: R$ ");
+		long centavos = pedido.valorFinalCentavos();
+		if (numerosDiretos && centavos >= 0 && centavos < LIMITE_CENTAVOS) {
+			escreverDecimal(centavos);
+		} else {
+			buffer.append(String.format("%.2f", centavos / 100.0));
+		}
+	}
+
+	private StringBuilder dois(int numero) {
+		return buffer.append((char) ('0' + numero / 10)).append((char) ('0' + numero % 10));
+	}
+
+	/** Escreve os centavos como String.format("%.2f") escreveria o valor em reais */
+	private void escreverDecimal(long centavos) {
+		buffer.append(centavos / 100).append(separadorDecimalFormato);
+		dois((int) (centavos % 100));
+	}
+
+	/** Escreve os centavos no formato de moeda do locale: prefixo, milhares agrupados, decimais e sufixo */
+	private void escreverMoeda(long centavos) {
+		buffer.append(prefixoMoeda);
+		long inteiros = centavos / 100;
+		int pos = digitos.length;
+		int noGrupo = 0;
+		do {
+			if (noGrupo == tamanhoGrupoMoeda) {
+				digitos[--pos] = separadorMilharMoeda;
+				noGrupo = 0;
+			}
+			digitos[--pos] = (char) ('0' + inteiros % 10);
+			inteiros /= 10;
+			noGrupo++;
+		} while (inteiros > 0);
+		buffer.append(digitos, pos, digitos.length - pos).append(separadorDecimalMoeda);
+		dois((int) (centavos % 100));
+		buffer.append(sufixoMoeda);
+	}
+}
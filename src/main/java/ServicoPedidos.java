@@ -0,0 +1,195 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Serviço de pedidos para muitas sessões simultâneas (ex.: milhares de pontos de venda), no mesmo processo.
+ * Cada sessão tem o seu próprio pedido em aberto, em vez da variável única do menu do {@link App}, e roda em
+ * uma thread virtual quando a JVM as oferece (Java 21 ou superior); nas versões anteriores, em uma thread
+ * de plataforma de um conjunto que cresce sob demanda.
+ * As sessões compartilham as estruturas do App, já seguras para várias threads: o catálogo (bloqueio de
+ * leitura e escrita), a pilha de pedidos sem bloqueio, a fila de pedidos sincronizada, os índices e o diário,
+ * que grava em grupo os pedidos finalizados ao mesmo tempo por várias sessões.
+ * Uso:
+ *   try (ServicoPedidos servico = new ServicoPedidos()) {
+ *       servico.iniciarSessao(sessao -> {
+ *           sessao.iniciarPedido(1);
+ *           sessao.incluirProduto(10005);
+ *           sessao.finalizar();
+ *       });
+ *   }
+ */
+public class ServicoPedidos implements Closeable {
+
+	private final ExecutorService sessoes;
+	private final boolean threadsVirtuais;
+	private final AtomicInteger ativas = new AtomicInteger();
+
+	/** Sessões iniciadas (com as métricas ativadas); a latência das finalizações fica em App.armazenarPedidoFinalizado */
+	private static final Metricas.Contador SESSOES_INICIADAS = Metricas.contador("ServicoPedidos.sessoes");
+
+	public ServicoPedidos() {
+		ExecutorService virtuais = executorVirtual();
+		threadsVirtuais = virtuais != null;
+		sessoes = threadsVirtuais ? virtuais : Executors.newCachedThreadPool(new FabricaThreads());
+		Metricas.medidor("ServicoPedidos.sessoesAtivas", ativas::get);
+	}
+
+	/**
+	 * Executor com uma thread virtual por tarefa (Executors.newVirtualThreadPerTaskExecutor), obtido por
+	 * reflexão para que o código compile e rode também no Java 17; null se a JVM não oferecer threads virtuais
+	 * (ou só como recurso experimental desativado).
+	 */
+	private static ExecutorService executorVirtual() {
+		try {
+			Method fabrica = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) fabrica.invoke(null);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	/** Threads de plataforma nomeadas "sessao-N", que não impedem o encerramento da JVM */
+	private static final class FabricaThreads implements ThreadFactory {
+
+		private final AtomicInteger criadas = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable tarefa) {
+			Thread thread = new Thread(tarefa, "sessao-" + criadas.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+	/** Se as sessões rodam em threads virtuais */
+	public boolean usaThreadsVirtuais() {
+		return threadsVirtuais;
+	}
+
+	/** Quantidade de sessões em andamento */
+	public int sessoesAtivas() {
+		return ativas.get();
+	}
+
+	/**
+	 * Inicia uma sessão, em uma thread própria, que executa o roteiro com um pedido em aberto exclusivo dela.
+	 * @param roteiro Operações da sessão (ex.: um cliente conectado ou um gerador de carga).
+	 * @return O resultado da sessão; get() lança ExecutionException se o roteiro lançar uma exceção.
+	 */
+	public Future<?> iniciarSessao(Consumer<Sessao> roteiro) {
+		if (roteiro == null) {
+			throw new IllegalArgumentException("O roteiro da sessão não pode ser nulo.");
+		}
+		SESSOES_INICIADAS.incrementar();
+		return sessoes.submit(() -> {
+			ativas.incrementAndGet();
+			try {
+				roteiro.accept(new Sessao());
+			} finally {
+				ativas.decrementAndGet();
+			}
+		});
+	}
+
+	/** Não aceita novas sessões e espera as sessões em andamento terminarem */
+	@Override
+	public void close() {
+		sessoes.shutdown();
+		boolean interrompida = false;
+		while (true) {
+			try {
+				if (sessoes.awaitTermination(1, TimeUnit.MINUTES)) {
+					break;
+				}
+			} catch (InterruptedException e) {
+				interrompida = true;
+			}
+		}
+		if (interrompida) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Sessão de um ponto de venda: um pedido em aberto por vez, como no modo de comandos.
+	 * Pertence à thread da sessão e não deve ser compartilhada com outras threads.
+	 */
+	public static final class Sessao {
+
+		private Pedido pedido;
+
+		private Sessao() {
+		}
+
+		/**
+		 * Inicia um novo pedido, descartando o pedido em aberto, se houver.
+		 * @param formaDePagamento 1, à vista; 2, parcelado.
+		 */
+		public void iniciarPedido(int formaDePagamento) {
+			if (formaDePagamento != 1 && formaDePagamento != 2) {
+				throw new IllegalArgumentException("Forma de pagamento inválida: " + formaDePagamento);
+			}
+			pedido = new Pedido(RelogioPrecos.hoje(), formaDePagamento);
+		}
+
+		/** Inclui no pedido em aberto o produto com o código informado */
+		public void incluirProduto(int idProduto) {
+			incluir(App.catalogo.localizar(idProduto), String.valueOf(idProduto));
+		}
+
+		/** Inclui no pedido em aberto o produto com a descrição informada */
+		public void incluirProdutoDescricao(String descricao) {
+			incluir(App.catalogo.localizarDescricao(descricao), descricao);
+		}
+
+		private void incluir(Produto produto, String referencia) {
+			Pedido aberto = pedidoAberto();
+			if (produto == null) {
+				throw new IllegalArgumentException("Produto não encontrado: " + referencia);
+			}
+			if (!aberto.incluirProduto(produto)) {
+				throw new IllegalStateException("O pedido já tem o máximo de produtos.");
+			}
+		}
+
+		/**
+		 * Finaliza o pedido em aberto (pilha, fila, índices e diário) e o devolve.
+		 * Retorna depois que o pedido é gravado no diário.
+		 * @throws PedidoNaoDuravelException se a falha foi na gravação do lote: o pedido já está em memória, mas
+		 * não é durável (ver App.armazenarPedidoFinalizado), e deixa de estar em aberto.
+		 * @throws IOException se o diário estava com erro; o pedido não foi armazenado e continua em aberto.
+		 */
+		public Pedido finalizar() throws IOException {
+			Pedido finalizado = pedidoAberto();
+			try {
+				App.armazenarPedidoFinalizado(finalizado);
+			} catch (PedidoNaoDuravelException e) {
+				// o pedido já está na pilha, na fila e nos índices: finalizá-lo de novo o duplicaria
+				pedido = null;
+				throw e;
+			}
+			pedido = null;
+			return finalizado;
+		}
+
+		/** Pedido em aberto, ou null se não houver */
+		public Pedido getPedido() {
+			return pedido;
+		}
+
+		private Pedido pedidoAberto() {
+			if (pedido == null) {
+				throw new IllegalStateException("Não há pedido em aberto.");
+			}
+			return pedido;
+		}
+	}
+}
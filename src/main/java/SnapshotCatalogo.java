@@ -0,0 +1,242 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Snapshot binário e versionado do catálogo de produtos, para reinícios rápidos sem reinterpretar o texto.
+ * Formato (little-endian):
+ * - Cabeçalho (32 bytes): assinatura "CATS", versão, quantidade de produtos, tamanho do registro,
+ *   posição e tamanho da tabela de descrições.
+ * - Registros de tamanho fixo (32 bytes), um por produto, na ordem do catálogo:
+ *   tipo (byte) + 3 bytes livres, idProduto (int), precoCusto (double), margemLucro (double),
+ *   validade em dias desde a época (int, {@link #SEM_VALIDADE} para não perecíveis),
+ *   posição da descrição na tabela de descrições (int).
+ * - Tabela de descrições: bytes UTF-8 concatenados. O tamanho de cada descrição é a distância até a próxima.
+ * A leitura mapeia o arquivo em memória e lê os campos por posição, sem nenhuma interpretação de texto.
+ * A gravação escreve um arquivo temporário e o renomeia sobre o snapshot no final, para que uma falha no meio
+ * da gravação nunca deixe um snapshot incompleto mais novo que o arquivo-texto.
+ */
+public class SnapshotCatalogo {
+
+	/** Assinatura do arquivo: "CATS" */
+	private static final int ASSINATURA = 0x53544143;
+
+	static final int VERSAO = 1;
+
+	private static final int TAMANHO_CABECALHO = 32;
+	private static final int TAMANHO_REGISTRO = 32;
+
+	/** Valor de validade gravado para produtos não perecíveis */
+	static final int SEM_VALIDADE = Integer.MIN_VALUE;
+
+	private static final byte TIPO_NAO_PERECIVEL = 1;
+	private static final byte TIPO_PERECIVEL = 2;
+
+	/** Tamanho do buffer de escrita */
+	private static final int TAMANHO_BUFFER = 1 << 20;
+
+	private SnapshotCatalogo() {
+	}
+
+	/**
+	 * Grava os produtos no arquivo de snapshot, substituindo o conteúdo anterior de uma só vez
+	 * (arquivo temporário sincronizado com o disco e renomeado sobre o snapshot).
+	 * @param produtos Vetor de produtos.
+	 * @param quantos Quantidade de posições válidas no vetor.
+	 * @param nomeArquivo Nome do arquivo de snapshot.
+	 * @throws IOException em caso de erro de escrita.
+	 */
+	public static void gravar(Produto[] produtos, int quantos, String nomeArquivo) throws IOException {
+
+		byte[][] descricoes = new byte[quantos][];
+		long tamanhoTextos = 0;
+		for (int i = 0; i < quantos; i++) {
+			descricoes[i] = produtos[i].descricao.getBytes(StandardCharsets.UTF_8);
+			tamanhoTextos += descricoes[i].length;
+		}
+		if (tamanhoTextos > Integer.MAX_VALUE) {
+			throw new IOException("Tabela de descrições excede o limite do formato.");
+		}
+		long posicaoTextos = TAMANHO_CABECALHO + (long) quantos * TAMANHO_REGISTRO;
+
+		Path arquivo = Path.of(nomeArquivo).toAbsolutePath();
+		Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+		try {
+			gravar(produtos, quantos, descricoes, posicaoTextos, tamanhoTextos, temporario);
+			Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temporario);
+		}
+	}
+
+	private static void gravar(Produto[] produtos, int quantos, byte[][] descricoes, long posicaoTextos,
+			long tamanhoTextos, Path destino) throws IOException {
+
+		try (FileChannel canal = FileChannel.open(destino, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+			ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANHO_BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+
+			buffer.putInt(ASSINATURA);
+			buffer.putInt(VERSAO);
+			buffer.putInt(quantos);
+			buffer.putInt(TAMANHO_REGISTRO);
+			buffer.putLong(posicaoTextos);
+			buffer.putLong(tamanhoTextos);
+
+			int posicaoDescricao = 0;
+			for (int i = 0; i < quantos; i++) {
+				if (buffer.remaining() < TAMANHO_REGISTRO) {
+					descarregar(canal, buffer);
+				}
+				Produto produto = produtos[i];
+				int validade = SEM_VALIDADE;
+				byte tipo = TIPO_NAO_PERECIVEL;
+				if (produto instanceof ProdutoPerecivel perecivel) {
+					tipo = TIPO_PERECIVEL;
+					validade = (int) perecivel.getDataDeValidade().toEpochDay();
+				}
+				buffer.put(tipo);
+				buffer.put((byte) 0).put((byte) 0).put((byte) 0);
+				buffer.putInt(produto.idProduto);
+				buffer.putDouble(produto.precoCusto);
+				buffer.putDouble(produto.margemLucro);
+				buffer.putInt(validade);
+				buffer.putInt(posicaoDescricao);
+				posicaoDescricao += descricoes[i].length;
+			}
+
+			for (int i = 0; i < quantos; i++) {
+				byte[] descricao = descricoes[i];
+				int escrito = 0;
+				while (escrito < descricao.length) {
+					if (!buffer.hasRemaining()) {
+						descarregar(canal, buffer);
+					}
+					int parte = Math.min(buffer.remaining(), descricao.length - escrito);
+					buffer.put(descricao, escrito, parte);
+					escrito += parte;
+				}
+			}
+			descarregar(canal, buffer);
+			canal.force(false);
+		}
+	}
+
+	private static void descarregar(FileChannel canal, ByteBuffer buffer) throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			canal.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	/**
+	 * Lê o snapshot e recria os produtos, com os mesmos identificadores gravados.
+	 * Os próximos identificadores gerados passam a ser posteriores ao maior identificador lido.
+	 * @param nomeArquivo Nome do arquivo de snapshot.
+	 * @return Um vetor com os produtos, na ordem em que foram gravados.
+	 * @throws IOException em caso de erro de leitura, assinatura ou versão incompatível, ou de arquivo
+	 *         corrompido (tamanhos, posições de descrição, tipos ou campos fora dos limites do formato).
+	 */
+	public static Produto[] ler(String nomeArquivo) throws IOException {
+
+		try (FileChannel canal = FileChannel.open(Path.of(nomeArquivo), StandardOpenOption.READ)) {
+
+			if (canal.size() < TAMANHO_CABECALHO) {
+				throw new IOException("Arquivo de snapshot incompleto.");
+			}
+			ByteBuffer cabecalho = canal.map(FileChannel.MapMode.READ_ONLY, 0, TAMANHO_CABECALHO)
+					.order(ByteOrder.LITTLE_ENDIAN);
+			if (cabecalho.getInt(0) != ASSINATURA) {
+				throw new IOException("Arquivo não é um snapshot do catálogo.");
+			}
+			if (cabecalho.getInt(4) != VERSAO) {
+				throw new IOException("Versão de snapshot não suportada: " + cabecalho.getInt(4));
+			}
+			int quantos = cabecalho.getInt(8);
+			int tamanhoRegistro = cabecalho.getInt(12);
+			long posicaoTextos = cabecalho.getLong(16);
+			long tamanhoTextos = cabecalho.getLong(24);
+			long tamanhoRegistros = (long) quantos * tamanhoRegistro;
+			if (quantos < 0 || tamanhoRegistro < TAMANHO_REGISTRO || tamanhoRegistros > Integer.MAX_VALUE
+					|| tamanhoTextos < 0 || tamanhoTextos > Integer.MAX_VALUE
+					|| posicaoTextos < TAMANHO_CABECALHO + tamanhoRegistros
+					|| posicaoTextos + tamanhoTextos > canal.size()) {
+				throw new IOException("Arquivo de snapshot corrompido.");
+			}
+
+			MappedByteBuffer registros = canal.map(FileChannel.MapMode.READ_ONLY, TAMANHO_CABECALHO, tamanhoRegistros);
+			registros.order(ByteOrder.LITTLE_ENDIAN);
+			byte[] textos = new byte[(int) tamanhoTextos];
+			canal.map(FileChannel.MapMode.READ_ONLY, posicaoTextos, tamanhoTextos).get(0, textos);
+			validarRegistros(registros, tamanhoRegistro, quantos, textos.length);
+
+			Produto[] produtos = new Produto[quantos];
+			try {
+				Arrays.parallelSetAll(produtos, i -> criarDoRegistro(registros, i, tamanhoRegistro, quantos, textos));
+			} catch (RuntimeException excecao) {
+				// valores que os construtores dos produtos recusam
+				throw new IOException("Arquivo de snapshot corrompido: " + excecao.getMessage(), excecao);
+			}
+
+			int maiorId = Integer.MIN_VALUE;
+			for (int i = 0; i < quantos; i++) {
+				maiorId = Math.max(maiorId, produtos[i].idProduto);
+			}
+			if (quantos > 0) {
+				Produto.ajustarUltimoId(maiorId + 1);
+			}
+			return produtos;
+		}
+	}
+
+	/**
+	 * Confere, antes de criar os produtos, os campos que poderiam levar a leituras fora dos limites:
+	 * tipo conhecido e posições de descrição não decrescentes dentro da tabela de descrições.
+	 */
+	private static void validarRegistros(ByteBuffer registros, int tamanhoRegistro, int quantos, int tamanhoTextos)
+			throws IOException {
+
+		int anterior = 0;
+		for (int i = 0; i < quantos; i++) {
+			int base = i * tamanhoRegistro;
+			byte tipo = registros.get(base);
+			int inicioDescricao = registros.getInt(base + 28);
+			if (tipo != TIPO_PERECIVEL && tipo != TIPO_NAO_PERECIVEL) {
+				throw new IOException("Arquivo de snapshot corrompido: tipo inválido no registro " + i + ".");
+			}
+			if (inicioDescricao < anterior || inicioDescricao > tamanhoTextos) {
+				throw new IOException("Arquivo de snapshot corrompido: descrição inválida no registro " + i + ".");
+			}
+			anterior = inicioDescricao;
+		}
+	}
+
+	private static Produto criarDoRegistro(ByteBuffer registros, int indice, int tamanhoRegistro, int quantos, byte[] textos) {
+
+		int base = indice * tamanhoRegistro;
+		byte tipo = registros.get(base);
+		int idProduto = registros.getInt(base + 4);
+		double precoCusto = registros.getDouble(base + 8);
+		double margemLucro = registros.getDouble(base + 16);
+		int validade = registros.getInt(base + 24);
+		int inicioDescricao = registros.getInt(base + 28);
+		int fimDescricao = (indice + 1 < quantos) ? registros.getInt(base + tamanhoRegistro + 28) : textos.length;
+		String descricao = new String(textos, inicioDescricao, fimDescricao - inicioDescricao, StandardCharsets.UTF_8);
+
+		if (tipo == TIPO_PERECIVEL) {
+			return new ProdutoPerecivel(idProduto, descricao, precoCusto, margemLucro, LocalDate.ofEpochDay(validade));
+		}
+		return new ProdutoNaoPerecivel(idProduto, descricao, precoCusto, margemLucro);
+	}
+}
@@ -0,0 +1,1682 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.NumberFormat;
+import java.text.Normalizer;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Verificações que se conferem sozinhas, sem framework de testes: cada verificação compara uma implementação
+ * otimizada com a implementação de referência, sobre dados sorteados, e falha na primeira divergência.
+ * A partir da raiz do projeto:
+ *   ./gradlew verificar (executada também por ./gradlew build)
+ *   java -cp bin Verificacoes [nome...]
+ * Sem nomes, executa todas. O sorteio é reproduzível pela semente "-Dverificacao.semente" (padrão 42).
+ * Termina com código 1 se alguma verificação falhar.
+ */
+public class Verificacoes {
+
+	private static final Map<String, Runnable> verificacoes = new LinkedHashMap<>();
+
+	private static final long SEMENTE = Long.getLong("verificacao.semente", 42L);
+
+	static {
+		verificacoes.put("arredondamento", Verificacoes::arredondamento);
+		verificacoes.put("indicePorValor", Verificacoes::indicePorValor);
+		verificacoes.put("filas", Verificacoes::filas);
+		verificacoes.put("filaAgregada", Verificacoes::filaAgregada);
+		verificacoes.put("concorrentes", Verificacoes::concorrentes);
+		verificacoes.put("carregador", Verificacoes::carregador);
+		verificacoes.put("diario", Verificacoes::diario);
+		verificacoes.put("renderizador", Verificacoes::renderizador);
+		verificacoes.put("historico", Verificacoes::historico);
+		verificacoes.put("indiceTextual", Verificacoes::indiceTextual);
+		verificacoes.put("indicePorProduto", Verificacoes::indicePorProduto);
+	}
+
+	public static void main(String[] args) {
+
+		String[] nomes = args.length > 0 ? args : verificacoes.keySet().toArray(new String[0]);
+		int falhas = 0;
+		for (String nome : nomes) {
+			Runnable verificacao = verificacoes.get(nome);
+			if (verificacao == null) {
+				System.out.println(String.format("%-24s desconhecida (disponíveis: %s)", nome, verificacoes.keySet()));
+				falhas++;
+				continue;
+			}
+			long inicio = System.nanoTime();
+			try {
+				verificacao.run();
+				System.out.println(String.format("%-24s ok (%.0f ms)", nome, (System.nanoTime() - inicio) / 1e6));
+			} catch (AssertionError | RuntimeException e) {
+				System.out.println(String.format("%-24s FALHOU: %s", nome, e));
+				falhas++;
+			}
+		}
+		if (falhas > 0) {
+			System.exit(1);
+		}
+	}
+
+	/** Falha com a mensagem informada se a condição for falsa */
+	static void verificar(boolean condicao, String mensagem) {
+		if (!condicao) {
+			throw new AssertionError(mensagem);
+		}
+	}
+
+	/**
+	 * Pedido.arredondarCentavos (caminho rápido em double) deve dar o mesmo resultado do BigDecimal para
+	 * valores de todas as magnitudes, inclusive empates decimais (terceira casa 5) e totais com desconto.
+	 */
+	static void arredondamento() {
+		Random sorteio = new Random(SEMENTE);
+		double[] casos = { 0.0, 0.005, 0.015, 1.005, 2.675, 1234.565, 2.96770839775E8, 9.99999999995E9 };
+		for (double valor : casos) {
+			compararArredondamento(valor);
+		}
+		for (int i = 0; i < 4_000_000; i++) {
+			double valor = switch (i % 4) {
+				case 0 -> sorteio.nextDouble() * 1e3;
+				case 1 -> sorteio.nextDouble() * 1e10;
+				case 2 -> Math.round(sorteio.nextDouble() * 1e12) / 1000.0;
+				default -> Math.round(sorteio.nextDouble() * 1e9) / 1000.0 * (1.0 - Pedido.DESCONTO_PG_A_VISTA);
+			};
+			compararArredondamento(valor);
+		}
+	}
+
+	private static void compararArredondamento(double valor) {
+		long rapido = Pedido.arredondarCentavos(valor);
+		long referencia = Pedido.arredondarCentavosBigDecimal(valor);
+		verificar(rapido == referencia, "arredondarCentavos(" + valor + ") = " + rapido + ", BigDecimal = " + referencia);
+	}
+
+	/**
+	 * IndicePedidosPorValor.pedidosAPartirDe deve devolver os mesmos pedidos, na mesma ordem, que o filtro
+	 * linear dos N primeiros pedidos, registrados um a um e em lotes, com valores repetidos.
+	 */
+	static void indicePorValor() {
+		Random sorteio = new Random(SEMENTE);
+		IndicePedidosPorValor indice = new IndicePedidosPorValor();
+		List<Pedido> pedidos = new ArrayList<>();
+		List<Long> valores = new ArrayList<>();
+		LocalDate hoje = LocalDate.now();
+		while (pedidos.size() < 20_000) {
+			int lote = sorteio.nextInt(4) == 0 ? 1 + sorteio.nextInt(50) : 1;
+			List<Pedido> novos = new ArrayList<>(lote);
+			long[] centavos = new long[lote];
+			for (int i = 0; i < lote; i++) {
+				novos.add(new Pedido(hoje, 1));
+				centavos[i] = sorteio.nextInt(10) == 0 ? 5_000 : sorteio.nextInt(100_000);
+				valores.add(centavos[i]);
+			}
+			if (lote == 1) {
+				indice.registrar(novos.get(0), centavos[0], pedidos.size());
+			} else {
+				indice.registrarTodos(novos, centavos, pedidos.size());
+			}
+			pedidos.addAll(novos);
+
+			if (sorteio.nextInt(20) == 0) {
+				long minimo = sorteio.nextInt(10) == 0 ? 5_000 : sorteio.nextInt(110_000);
+				int primeiros = sorteio.nextInt(pedidos.size() + 10);
+				List<Pedido> esperados = new ArrayList<>();
+				for (int i = 0; i < Math.min(primeiros, pedidos.size()); i++) {
+					if (valores.get(i) >= minimo) {
+						esperados.add(pedidos.get(i));
+					}
+				}
+				List<Pedido> obtidos = indice.pedidosAPartirDe(minimo, primeiros);
+				verificar(esperados.equals(obtidos), "pedidosAPartirDe(" + minimo + ", " + primeiros + ") com "
+						+ pedidos.size() + " pedidos: " + obtidos.size() + " pedidos, esperados " + esperados.size());
+			}
+		}
+		verificar(indice.pedidosAPartirDe(0, 0).isEmpty(), "pedidosAPartirDe com 0 primeiros não é vazio");
+		verificar(indice.tamanho() == pedidos.size(), "tamanho " + indice.tamanho() + " != " + pedidos.size());
+		indicePorValorNaViradaDoDia();
+	}
+
+	/**
+	 * Virada do dia: pedidos com perecíveis que entram na janela de desconto no dia seguinte são finalizados por
+	 * App.registrarPedidoFinalizado; depois da virada, o índice por valor, valorFinalCentavos e o toString devem
+	 * continuar informando o valor da finalização, enquanto um pedido em aberto com os mesmos produtos muda de valor.
+	 */
+	private static void indicePorValorNaViradaDoDia() {
+		Random sorteio = new Random(SEMENTE);
+		ZoneId zona = ZoneId.systemDefault();
+		LocalDate hoje = LocalDate.now(zona);
+		Instant meioDia = hoje.atTime(12, 0).atZone(zona).toInstant();
+		EstruturasPedidos originais = new EstruturasPedidos();
+		try {
+			RelogioPrecos.usarRelogio(Clock.fixed(meioDia, zona));
+			new EstruturasPedidos(new PilhaConcorrente<>(), new FilaAgregada<>(App.VALOR_FINAL),
+					new IndicePedidosPorProduto(), new IndicePedidosPorValor()).instalar();
+			// amanhã faltarão 7 dias para a validade: o perecível passa a ter o desconto de proximidade
+			Produto[] produtos = {
+				new ProdutoPerecivel("Iogurte natural", 7.35, 0.3, hoje.plusDays(8)),
+				new ProdutoPerecivel("Queijo minas", 21.99, 0.25, hoje.plusDays(8)),
+				new ProdutoPerecivel("Leite integral", 4.19, 0.2, hoje.plusDays(30)),
+				new ProdutoNaoPerecivel("Guardanapos", 2.29, 0.2)
+			};
+			List<Pedido> pedidos = new ArrayList<>();
+			List<Long> finalizados = new ArrayList<>();
+			Pedido aberto = new Pedido(hoje, 2);
+			aberto.incluirProduto(produtos[0]);
+			long abertoAntes = aberto.valorFinalCentavos();
+			for (int i = 0; i < 500; i++) {
+				Pedido pedido = new Pedido(hoje, 1 + sorteio.nextInt(2));
+				for (int j = 1 + sorteio.nextInt(Pedido.MAX_PRODUTOS); j > 0; j--) {
+					pedido.incluirProduto(produtos[sorteio.nextInt(produtos.length)]);
+				}
+				if (i % 10 == 0) {
+					App.registrarPedidosFinalizados(List.of(pedido));
+				} else {
+					App.registrarPedidoFinalizado(pedido);
+				}
+				pedidos.add(pedido);
+				finalizados.add(pedido.valorFinalCentavos());
+			}
+
+			RelogioPrecos.usarRelogio(Clock.fixed(meioDia.plus(Duration.ofDays(1)), zona));
+			verificar(aberto.valorFinalCentavos() != abertoAntes, "o pedido em aberto não foi reprecificado na virada");
+			for (int i = 0; i < pedidos.size(); i++) {
+				Pedido pedido = pedidos.get(i);
+				long centavos = finalizados.get(i);
+				String total = "Valor total do pedido: R$ " + String.format("%.2f", centavos / 100.0);
+				verificar(pedido.valorFinalCentavos() == centavos && pedido.toString().endsWith(total),
+						"pedido finalizado " + pedido.getIdPedido() + " reprecificado na virada: "
+								+ pedido.valorFinalCentavos() + ", finalizado com " + centavos);
+			}
+			for (int consulta = 0; consulta < 200; consulta++) {
+				long minimo = finalizados.get(sorteio.nextInt(finalizados.size())) + sorteio.nextInt(3) - 1;
+				int primeiros = sorteio.nextInt(pedidos.size() + 10);
+				List<Pedido> esperados = new ArrayList<>();
+				for (int i = 0; i < Math.min(primeiros, pedidos.size()); i++) {
+					if (pedidos.get(i).valorFinalCentavos() >= minimo) {
+						esperados.add(pedidos.get(i));
+					}
+				}
+				List<Pedido> obtidos = App.pedidosPorValor.pedidosAPartirDe(minimo, primeiros);
+				verificar(esperados.equals(obtidos), "pedidosAPartirDe(" + minimo + ", " + primeiros
+						+ ") depois da virada: " + obtidos.size() + " pedidos, esperados " + esperados.size());
+			}
+		} finally {
+			originais.instalar();
+			RelogioPrecos.usarRelogio(Clock.systemDefaultZone());
+		}
+	}
+
+	/** Estruturas de pedidos do App, trocadas pelas verificações que passam pelo caminho real de finalização */
+	private static final class EstruturasPedidos {
+
+		private final IPilha<Pedido> pilha;
+		private final IFila<Pedido> fila;
+		private final IndicePedidosPorProduto porProduto;
+		private final IndicePedidosPorValor porValor;
+
+		/** As estruturas em uso pelo App */
+		EstruturasPedidos() {
+			this(App.pilhaPedidos, App.filaPedidos, App.pedidosPorProduto, App.pedidosPorValor);
+		}
+
+		EstruturasPedidos(IPilha<Pedido> pilha, IFila<Pedido> fila, IndicePedidosPorProduto porProduto,
+				IndicePedidosPorValor porValor) {
+			this.pilha = pilha;
+			this.fila = fila;
+			this.porProduto = porProduto;
+			this.porValor = porValor;
+		}
+
+		void instalar() {
+			App.pilhaPedidos = pilha;
+			App.filaPedidos = fila;
+			App.pedidosPorProduto = porProduto;
+			App.pedidosPorValor = porValor;
+		}
+	}
+
+	/**
+	 * Fila (encadeada), FilaCircular (vetor circular) e as filas primitivas FilaInt, FilaLong e FilaDouble devem se
+	 * comportar como a ArrayDeque de referência numa sequência sorteada de inserções (uma a uma e em lotes, passando
+	 * pelos redimensionamentos e pela volta do vetor), remoções até esvaziar, médias e filtros dos N primeiros,
+	 * inclusive com N maior que a fila ou negativo. A PilhaInt recebe as mesmas inserções e remoções, conferidas
+	 * contra o fim da referência usada como pilha.
+	 * A FilaLimitada é conferida, em cada política de excesso, contra uma referência que aplica a mesma política.
+	 */
+	static void filas() {
+		Random sorteio = new Random(SEMENTE);
+		Function<Integer, Double> extrator = i -> i % 7 == 0 ? null : i * 0.5;
+		Predicate<Integer> condicao = i -> i % 3 == 0;
+		Fila<Integer> encadeada = new Fila<>();
+		FilaCircular<Integer> circular = new FilaCircular<>(4);
+		FilaInt inteiros = new FilaInt(4);
+		FilaLong longos = new FilaLong(4);
+		FilaDouble reais = new FilaDouble(4);
+		PilhaInt pilha = new PilhaInt(4);
+		ArrayDeque<Integer> referencia = new ArrayDeque<>();
+		ArrayDeque<Integer> referenciaPilha = new ArrayDeque<>();
+		for (int passo = 0; passo < 200_000; passo++) {
+			// alterna fases em que a fila cresce e em que esvazia
+			int insercoes = passo / 20_000 % 2 == 0 ? 50 : 30;
+			int operacao = sorteio.nextInt(100);
+			if (operacao < insercoes) {
+				int item = sorteio.nextInt(1_000_000);
+				encadeada.inserir(item);
+				circular.inserir(item);
+				inteiros.inserir(item);
+				longos.inserir(item);
+				reais.inserir(item);
+				pilha.empilhar(item);
+				referencia.addLast(item);
+				referenciaPilha.addLast(item);
+			} else if (operacao < insercoes + 2) {
+				List<Integer> lote = new ArrayList<>();
+				for (int i = sorteio.nextInt(10); i > 0; i--) {
+					lote.add(sorteio.nextInt(1_000_000));
+				}
+				encadeada.inserirTodos(lote);
+				circular.inserirTodos(lote);
+				inteiros.inserirTodos(lote.stream().mapToInt(Integer::intValue).toArray());
+				longos.inserirTodos(lote.stream().mapToLong(Integer::longValue).toArray());
+				reais.inserirTodos(lote.stream().mapToDouble(Integer::doubleValue).toArray());
+				pilha.empilharTodos(lote.stream().mapToInt(Integer::intValue).toArray());
+				referencia.addAll(lote);
+				referenciaPilha.addAll(lote);
+			} else if (operacao < 97) {
+				if (referencia.isEmpty()) {
+					verificar(lancaFilaVazia(encadeada) && lancaFilaVazia(circular) && lancaVazia(inteiros::remover)
+							&& lancaVazia(longos::remover) && lancaVazia(reais::remover) && lancaVazia(pilha::desempilhar),
+							"remover de fila ou pilha vazia não lançou NoSuchElementException");
+				} else {
+					Integer esperado = referencia.removeFirst();
+					Integer daEncadeada = encadeada.remover();
+					Integer daCircular = circular.remover();
+					int daInt = inteiros.remover();
+					long daLong = longos.remover();
+					double daDouble = reais.remover();
+					verificar(esperado.equals(daEncadeada) && esperado.equals(daCircular) && daInt == esperado
+							&& daLong == esperado && daDouble == esperado, "remover no passo " + passo + ": Fila "
+							+ daEncadeada + ", FilaCircular " + daCircular + ", FilaInt " + daInt + ", FilaLong "
+							+ daLong + ", FilaDouble " + daDouble + ", esperado " + esperado);
+					Integer topo = referenciaPilha.removeLast();
+					int daPilha = pilha.desempilhar();
+					verificar(daPilha == topo, "desempilhar no passo " + passo + ": PilhaInt " + daPilha + ", esperado " + topo);
+				}
+			} else {
+				int quantidade = sorteio.nextInt(referencia.size() + 20) - 5;
+				List<Integer> primeiros = new ArrayList<>();
+				for (Integer item : referencia) {
+					if (primeiros.size() >= quantidade) {
+						break;
+					}
+					primeiros.add(item);
+				}
+				if (operacao < 98) {
+					double esperada = media(primeiros, extrator);
+					double daEncadeada = encadeada.calcularValorMedio(extrator, quantidade);
+					double daCircular = circular.calcularValorMedio(extrator, quantidade);
+					verificar(daEncadeada == esperada && daCircular == esperada, "calcularValorMedio(" + quantidade
+							+ ") no passo " + passo + ": Fila " + daEncadeada + ", FilaCircular " + daCircular
+							+ ", esperada " + esperada);
+					// nas filas primitivas o extrator não devolve null: o 0.0 equivale ao null que conta como 0
+					double daInt = inteiros.calcularValorMedio(i -> i % 7 == 0 ? 0.0 : i * 0.5, quantidade);
+					double daLong = longos.calcularValorMedio(l -> l % 7 == 0 ? 0.0 : l * 0.5, quantidade);
+					double daDouble = reais.calcularValorMedio(d -> d % 7 == 0 ? 0.0 : d * 0.5, quantidade);
+					verificar(daInt == esperada && daLong == esperada && daDouble == esperada, "calcularValorMedio("
+							+ quantidade + ") no passo " + passo + ": FilaInt " + daInt + ", FilaLong " + daLong
+							+ ", FilaDouble " + daDouble + ", esperada " + esperada);
+					double simples = media(primeiros, Integer::doubleValue);
+					verificar(inteiros.calcularValorMedio(quantidade) == simples
+							&& longos.calcularValorMedio(quantidade) == simples
+							&& reais.calcularValorMedio(quantidade) == simples,
+							"calcularValorMedio(" + quantidade + ") sem extrator no passo " + passo);
+				} else {
+					List<Integer> esperados = new ArrayList<>(primeiros);
+					esperados.removeIf(condicao.negate());
+					List<Integer> daEncadeada = conteudo(encadeada.filtrar(condicao, quantidade));
+					List<Integer> daCircular = conteudo(circular.filtrar(condicao, quantidade));
+					verificar(esperados.equals(daEncadeada) && esperados.equals(daCircular), "filtrar(" + quantidade
+							+ ") no passo " + passo + ": Fila " + daEncadeada.size() + " itens, FilaCircular "
+							+ daCircular.size() + ", esperados " + esperados.size());
+					verificar(Arrays.equals(inteiros.filtrar(i -> i % 3 == 0, quantidade).paraVetor(), vetorInt(esperados))
+							&& Arrays.equals(longos.filtrar(l -> l % 3 == 0, quantidade).paraVetor(), vetorLong(esperados))
+							&& Arrays.equals(reais.filtrar(d -> d % 3 == 0, quantidade).paraVetor(), vetorDouble(esperados)),
+							"filtrar(" + quantidade + ") das filas primitivas no passo " + passo);
+				}
+			}
+			verificar(encadeada.tamanho() == referencia.size() && circular.tamanho() == referencia.size()
+					&& encadeada.vazia() == referencia.isEmpty() && circular.vazia() == referencia.isEmpty(),
+					"tamanho no passo " + passo + ": Fila " + encadeada.tamanho() + ", FilaCircular "
+							+ circular.tamanho() + ", esperado " + referencia.size());
+			verificar(inteiros.tamanho() == referencia.size() && longos.tamanho() == referencia.size()
+					&& reais.tamanho() == referencia.size() && pilha.tamanho() == referenciaPilha.size()
+					&& inteiros.vazia() == referencia.isEmpty() && longos.vazia() == referencia.isEmpty()
+					&& reais.vazia() == referencia.isEmpty() && pilha.vazia() == referenciaPilha.isEmpty(),
+					"tamanho no passo " + passo + ": FilaInt " + inteiros.tamanho() + ", FilaLong " + longos.tamanho()
+							+ ", FilaDouble " + reais.tamanho() + ", PilhaInt " + pilha.tamanho());
+			if (passo % 5000 == 0) {
+				List<Integer> esperados = new ArrayList<>(referencia);
+				verificar(esperados.equals(conteudo(encadeada)) && esperados.equals(conteudo(circular)),
+						"itens diferentes da referência no passo " + passo);
+				// paraVetor e o fluxo (iterador) das filas primitivas; a pilha, do topo ao fundo
+				verificar(Arrays.equals(inteiros.paraVetor(), vetorInt(esperados))
+						&& Arrays.equals(inteiros.stream().toArray(), vetorInt(esperados))
+						&& Arrays.equals(longos.paraVetor(), vetorLong(esperados))
+						&& Arrays.equals(longos.stream().toArray(), vetorLong(esperados))
+						&& Arrays.equals(reais.paraVetor(), vetorDouble(esperados))
+						&& Arrays.equals(reais.stream().toArray(), vetorDouble(esperados)),
+						"itens das filas primitivas diferentes da referência no passo " + passo);
+				List<Integer> empilhados = new ArrayList<>(referenciaPilha);
+				Collections.reverse(empilhados);
+				verificar(Arrays.equals(pilha.paraVetor(), vetorInt(empilhados))
+						&& Arrays.equals(pilha.stream().toArray(), vetorInt(empilhados)),
+						"itens da PilhaInt diferentes da referência no passo " + passo);
+			}
+		}
+		try {
+			for (FilaLimitada.PoliticaExcesso politica : FilaLimitada.PoliticaExcesso.values()) {
+				filaLimitada(politica, sorteio);
+			}
+			filaLimitadaBloqueando();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * FilaLimitada contra uma ArrayDeque que aplica a mesma política de excesso, sem threads: inserções uma a uma
+	 * (inserir e colocar) e em lotes (com REJEITAR, os itens anteriores ao que não coube ficam), oferecer com e sem prazo, remoções,
+	 * drenagens, médias e filtros, e os contadores de rejeitados, descartados e esperas.
+	 */
+	private static void filaLimitada(FilaLimitada.PoliticaExcesso politica, Random sorteio) throws InterruptedException {
+		int capacidade = 1 + sorteio.nextInt(60);
+		FilaLimitada<Integer> fila = new FilaLimitada<>(capacidade, politica);
+		ArrayDeque<Integer> referencia = new ArrayDeque<>();
+		long rejeitados = 0;
+		long descartados = 0;
+		long esperas = 0;
+		Function<Integer, Double> extrator = i -> i * 0.25;
+		for (int passo = 0; passo < 50_000; passo++) {
+			int operacao = sorteio.nextInt(100);
+			int item = sorteio.nextInt(1_000_000);
+			boolean cheia = referencia.size() == capacidade;
+			String contexto = politica + ", passo " + passo;
+			if (operacao < 30) {
+				// inserir na fila cheia com BLOQUEAR esperaria para sempre: vale o oferecer sem espera
+				if (politica == FilaLimitada.PoliticaExcesso.BLOQUEAR && cheia) {
+					verificar(!fila.oferecer(item), contexto + ": oferecer aceitou com a fila cheia");
+					rejeitados++;
+					continue;
+				}
+				boolean rejeitado = false;
+				try {
+					if (sorteio.nextBoolean()) {
+						fila.inserir(item);
+					} else {
+						fila.colocar(item);
+					}
+				} catch (IllegalStateException e) {
+					rejeitado = true;
+				}
+				verificar(rejeitado == (cheia && politica == FilaLimitada.PoliticaExcesso.REJEITAR),
+						contexto + ": inserir " + (rejeitado ? "rejeitou" : "aceitou") + " com tamanho " + referencia.size());
+				if (rejeitado) {
+					rejeitados++;
+				} else {
+					if (cheia) {
+						referencia.removeFirst();
+						descartados++;
+					}
+					referencia.addLast(item);
+				}
+			} else if (operacao < 40) {
+				boolean aceito = sorteio.nextBoolean() ? fila.oferecer(item) : fila.oferecer(item, 0, TimeUnit.MILLISECONDS);
+				verificar(aceito == (!cheia || politica == FilaLimitada.PoliticaExcesso.DESCARTAR_MAIS_ANTIGO),
+						contexto + ": oferecer " + (aceito ? "aceitou" : "rejeitou") + " com tamanho " + referencia.size());
+				if (aceito) {
+					if (cheia) {
+						referencia.removeFirst();
+						descartados++;
+					}
+					referencia.addLast(item);
+				} else {
+					rejeitados++;
+				}
+			} else if (operacao < 43 && politica != FilaLimitada.PoliticaExcesso.BLOQUEAR) {
+				List<Integer> lote = new ArrayList<>();
+				for (int i = sorteio.nextInt(capacidade + 5); i > 0; i--) {
+					lote.add(sorteio.nextInt(1_000_000));
+				}
+				try {
+					fila.inserirTodos(lote);
+				} catch (IllegalStateException e) {
+					// os que couberam ficam; o primeiro que não coube é rejeitado
+				}
+				for (Integer novo : lote) {
+					if (referencia.size() == capacidade) {
+						if (politica == FilaLimitada.PoliticaExcesso.REJEITAR) {
+							rejeitados++;
+							break;
+						}
+						referencia.removeFirst();
+						descartados++;
+					}
+					referencia.addLast(novo);
+				}
+			} else if (operacao < 80) {
+				Integer esperado = referencia.pollFirst();
+				Integer retirado = sorteio.nextBoolean() ? fila.retirar() : (esperado == null ? null : fila.remover());
+				verificar(Objects.equals(esperado, retirado), contexto + ": retirado " + retirado + ", esperado " + esperado);
+			} else if (operacao < 85) {
+				int maximo = sorteio.nextInt(capacidade + 2);
+				List<Integer> drenados = new ArrayList<>();
+				int quantos = fila.drenarPara(drenados, maximo);
+				List<Integer> esperados = new ArrayList<>();
+				while (esperados.size() < maximo && !referencia.isEmpty()) {
+					esperados.add(referencia.removeFirst());
+				}
+				verificar(quantos == esperados.size() && drenados.equals(esperados), contexto + ": drenarPara(" + maximo + ")");
+			} else {
+				int quantidade = sorteio.nextInt(capacidade + 4) - 2;
+				List<Integer> primeiros = new ArrayList<>(referencia).subList(0, Math.max(0, Math.min(quantidade, referencia.size())));
+				List<Integer> filtrados = new ArrayList<>(primeiros);
+				filtrados.removeIf(i -> i % 2 != 0);
+				verificar(fila.calcularValorMedio(extrator, quantidade) == media(primeiros, extrator)
+						&& conteudo(fila.filtrar(i -> i % 2 == 0, quantidade)).equals(filtrados),
+						contexto + ": média ou filtro dos " + quantidade + " primeiros");
+			}
+			verificar(fila.tamanho() == referencia.size() && fila.espacoLivre() == capacidade - referencia.size()
+					&& fila.vazia() == referencia.isEmpty(), contexto + ": tamanho " + fila.tamanho() + ", esperado "
+							+ referencia.size());
+		}
+		if (politica == FilaLimitada.PoliticaExcesso.BLOQUEAR) {
+			// oferecer com prazo na fila cheia espera o prazo e conta a espera
+			while (fila.oferecer(0)) {
+				referencia.addLast(0);
+			}
+			rejeitados++;
+			verificar(!fila.oferecer(1, 1, TimeUnit.MILLISECONDS), "oferecer com prazo aceitou com a fila cheia");
+			rejeitados++;
+			esperas++;
+		}
+		verificar(conteudo(fila).equals(new ArrayList<>(referencia)), politica + ": itens diferentes da referência");
+		verificar(fila.getRejeitados() == rejeitados && fila.getDescartados() == descartados && fila.getEsperas() == esperas,
+				politica + ": contadores " + fila.getRejeitados() + "/" + fila.getDescartados() + "/" + fila.getEsperas()
+						+ ", esperados " + rejeitados + "/" + descartados + "/" + esperas);
+	}
+
+	/**
+	 * FilaLimitada com BLOQUEAR e threads: inserir espera um consumidor liberar espaço (e, interrompido, ainda
+	 * insere e restaura o estado de interrupção); colocar interrompido lança InterruptedException sem inserir;
+	 * as esperas e o tempo esperado são contados.
+	 */
+	private static void filaLimitadaBloqueando() throws InterruptedException {
+		FilaLimitada<Integer> fila = new FilaLimitada<>(2, FilaLimitada.PoliticaExcesso.BLOQUEAR);
+		fila.inserir(1);
+		fila.inserir(2);
+		AtomicReference<Object> resultado = new AtomicReference<>();
+		// colocar interrompido: não insere
+		Thread colocando = new Thread(() -> {
+			try {
+				fila.colocar(3);
+				resultado.set("inserido");
+			} catch (InterruptedException e) {
+				resultado.set(e);
+			}
+		});
+		colocando.start();
+		esperarEstado(colocando, Thread.State.WAITING);
+		colocando.interrupt();
+		colocando.join(TimeUnit.SECONDS.toMillis(10));
+		verificar(!colocando.isAlive(), "colocar interrompido continuou esperando");
+		verificar(resultado.get() instanceof InterruptedException && conteudo(fila).equals(List.of(1, 2)),
+				"colocar interrompido: " + resultado.get() + ", fila " + conteudo(fila));
+
+		// inserir interrompido: continua esperando, insere quando houver espaço e restaura a interrupção
+		Thread inserindo = new Thread(() -> {
+			fila.inserir(4);
+			resultado.set(Thread.currentThread().isInterrupted());
+		});
+		inserindo.start();
+		esperarEstado(inserindo, Thread.State.WAITING);
+		inserindo.interrupt();
+		Thread.sleep(20);
+		verificar(inserindo.isAlive(), "inserir interrompido deixou de esperar com a fila cheia");
+		verificar(fila.remover() == 1, "remover da fila limitada cheia");
+		inserindo.join(TimeUnit.SECONDS.toMillis(10));
+		verificar(!inserindo.isAlive(), "inserir não terminou depois de liberado o espaço");
+		verificar(Boolean.TRUE.equals(resultado.get()) && conteudo(fila).equals(List.of(2, 4)),
+				"inserir interrompido: interrupção " + resultado.get() + ", fila " + conteudo(fila));
+
+		// colocar com espaço liberado por um consumidor
+		Thread consumidor = new Thread(() -> {
+			try {
+				Thread.sleep(20);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			fila.retirar();
+		});
+		consumidor.start();
+		fila.colocar(5);
+		consumidor.join();
+		verificar(conteudo(fila).equals(List.of(4, 5)), "colocar depois do consumidor: " + conteudo(fila));
+		verificar(fila.getEsperas() == 3 && fila.getNanosEsperando() >= TimeUnit.MILLISECONDS.toNanos(20)
+				&& fila.getRejeitados() == 0, "esperas " + fila.getEsperas() + ", " + fila.getNanosEsperando() + " ns");
+	}
+
+	private static void esperarEstado(Thread thread, Thread.State estado) throws InterruptedException {
+		long prazo = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (thread.getState() != estado) {
+			verificar(System.nanoTime() < prazo, thread.getName() + " não chegou ao estado " + estado);
+			Thread.sleep(1);
+		}
+	}
+
+	/**
+	 * FilaAgregada.mediaPrimeiros (somas de prefixo, O(1)) deve dar a mesma média que o percurso sequencial de
+	 * FilaCircular.calcularValorMedio sobre os mesmos pedidos, com inserções, lotes e remoções, antes e depois de
+	 * viradas do dia que reprecificam os perecíveis (os pedidos são congelados ao entrar, como na finalização).
+	 */
+	static void filaAgregada() {
+		Random sorteio = new Random(SEMENTE);
+		ZoneId zona = ZoneId.systemDefault();
+		LocalDate hoje = LocalDate.now(zona);
+		Instant meioDia = hoje.atTime(12, 0).atZone(zona).toInstant();
+		try {
+			RelogioPrecos.usarRelogio(Clock.fixed(meioDia, zona));
+			Produto[] produtos = {
+				new ProdutoPerecivel("Iogurte natural", 7.35, 0.3, hoje.plusDays(8)),
+				new ProdutoPerecivel("Pão de forma", 9.49, 0.35, hoje.plusDays(9)),
+				new ProdutoPerecivel("Leite integral", 4.19, 0.2, hoje.plusDays(30)),
+				new ProdutoNaoPerecivel("Guardanapos", 2.29, 0.2)
+			};
+			FilaAgregada<Pedido> agregada = new FilaAgregada<>(App.VALOR_FINAL);
+			FilaCircular<Pedido> referencia = new FilaCircular<>();
+			for (int passo = 0; passo < 30_000; passo++) {
+				if (passo % 10_000 == 9_999) {
+					// vira o dia: os perecíveis entram na janela de desconto um a um
+					RelogioPrecos.usarRelogio(Clock.fixed(meioDia.plus(Duration.ofDays(passo / 10_000 + 1)), zona));
+				}
+				int operacao = sorteio.nextInt(100);
+				if (operacao < 45) {
+					Pedido pedido = pedidoSorteado(sorteio, produtos);
+					agregada.inserir(pedido);
+					referencia.inserir(pedido);
+				} else if (operacao < 50) {
+					List<Pedido> lote = new ArrayList<>();
+					for (int i = sorteio.nextInt(8); i > 0; i--) {
+						lote.add(pedidoSorteado(sorteio, produtos));
+					}
+					agregada.inserirTodos(lote);
+					referencia.inserirTodos(lote);
+				} else if (operacao < 90) {
+					if (!referencia.vazia()) {
+						verificar(agregada.remover() == referencia.remover(), "remover no passo " + passo);
+					}
+				} else {
+					int quantidade = sorteio.nextInt(referencia.tamanho() + 10) - 5;
+					double esperada = referencia.calcularValorMedio(App.VALOR_FINAL, quantidade);
+					double obtida = agregada.mediaPrimeiros(quantidade);
+					verificar(Math.abs(obtida - esperada) <= 1e-9 * Math.max(1.0, Math.abs(esperada))
+							&& agregada.calcularValorMedio(App.VALOR_FINAL, quantidade) == obtida,
+							"mediaPrimeiros(" + quantidade + ") no passo " + passo + ": " + obtida + ", esperada "
+									+ esperada);
+				}
+			}
+		} finally {
+			RelogioPrecos.usarRelogio(Clock.systemDefaultZone());
+		}
+	}
+
+	/** Pedido com produtos sorteados, finalizado (valor congelado) como em App.registrarPedidoFinalizado */
+	private static Pedido pedidoSorteado(Random sorteio, Produto[] produtos) {
+		Pedido pedido = new Pedido(RelogioPrecos.hoje(), 1 + sorteio.nextInt(2));
+		for (int j = 1 + sorteio.nextInt(Pedido.MAX_PRODUTOS); j > 0; j--) {
+			pedido.incluirProduto(produtos[sorteio.nextInt(produtos.length)]);
+		}
+		pedido.congelarValorFinal();
+		return pedido;
+	}
+
+	private static boolean lancaFilaVazia(IFila<?> fila) {
+		return lancaVazia(fila::remover);
+	}
+
+	private static boolean lancaVazia(Runnable remocao) {
+		try {
+			remocao.run();
+			return false;
+		} catch (NoSuchElementException e) {
+			return true;
+		}
+	}
+
+	private static int[] vetorInt(List<Integer> itens) {
+		return itens.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	private static long[] vetorLong(List<Integer> itens) {
+		return itens.stream().mapToLong(Integer::longValue).toArray();
+	}
+
+	private static double[] vetorDouble(List<Integer> itens) {
+		return itens.stream().mapToDouble(Integer::doubleValue).toArray();
+	}
+
+	/** Média sequencial, na ordem da lista, com nulos contando como 0 (como as filas calculam) */
+	private static double media(List<Integer> itens, Function<Integer, Double> extrator) {
+		if (itens.isEmpty()) {
+			return 0.0;
+		}
+		double soma = 0.0;
+		for (Integer item : itens) {
+			Double valor = extrator.apply(item);
+			soma += (valor == null ? 0.0 : valor.doubleValue());
+		}
+		return soma / itens.size();
+	}
+
+	private static <E> List<E> conteudo(IFila<E> fila) {
+		List<E> itens = new ArrayList<>();
+		for (E item : fila) {
+			itens.add(item);
+		}
+		return itens;
+	}
+
+	/**
+	 * FilaConcorrente e PilhaConcorrente sob carga: produtores inserem, um a um e em lotes, itens numerados
+	 * enquanto o mesmo número de consumidores os retira; nenhum item pode se perder nem sair duas vezes, e na
+	 * fila cada consumidor deve receber os itens de cada produtor na ordem em que foram inseridos.
+	 * Exibe a vazão (itens inseridos e retirados por ms) para 1, 2, 4 e 8 produtores.
+	 */
+	static void concorrentes() {
+		for (int produtores : new int[] { 1, 2, 4, 8 }) {
+			FilaConcorrente<Integer> fila = new FilaConcorrente<>();
+			double vazaoFila = estressar("FilaConcorrente", produtores, fila::inserir, fila::inserirTodos,
+					fila::remover, fila::vazia, true);
+			PilhaConcorrente<Integer> pilha = new PilhaConcorrente<>();
+			double vazaoPilha = estressar("PilhaConcorrente", produtores, pilha::empilhar, pilha::empilharTodos,
+					pilha::desempilhar, pilha::vazia, false);
+			System.out.println(String.format("  %d produtor(es) e consumidor(es): FilaConcorrente %,.0f itens/ms, "
+					+ "PilhaConcorrente %,.0f itens/ms", produtores, vazaoFila, vazaoPilha));
+		}
+	}
+
+	/**
+	 * Executa 'produtores' produtores e outros tantos consumidores sobre a estrutura e confere que cada item saiu
+	 * exatamente uma vez (e, se 'fifo', na ordem de cada produtor); devolve a vazão em itens por ms.
+	 */
+	private static double estressar(String nome, int produtores, Consumer<Integer> inserir,
+			Consumer<List<Integer>> inserirTodos, Supplier<Integer> remover, BooleanSupplier vazia, boolean fifo) {
+		final int porProdutor = 2_000_000 / produtores;
+		final int total = porProdutor * produtores;
+		AtomicIntegerArray retiradas = new AtomicIntegerArray(total);
+		AtomicInteger removidos = new AtomicInteger();
+		AtomicReference<Throwable> erro = new AtomicReference<>();
+		CountDownLatch largada = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<>();
+		for (int p = 0; p < produtores; p++) {
+			int primeiro = p * porProdutor;
+			threads.add(new Thread(() -> {
+				aguardar(largada);
+				Random sorteio = new Random(SEMENTE + primeiro);
+				int proximo = primeiro;
+				while (proximo < primeiro + porProdutor) {
+					if (sorteio.nextInt(4) == 0) {
+						List<Integer> lote = new ArrayList<>();
+						for (int i = 1 + sorteio.nextInt(16); i > 0 && proximo < primeiro + porProdutor; i--) {
+							lote.add(proximo++);
+						}
+						inserirTodos.accept(lote);
+					} else {
+						inserir.accept(proximo++);
+					}
+				}
+			}));
+		}
+		for (int c = 0; c < produtores; c++) {
+			threads.add(new Thread(() -> {
+				aguardar(largada);
+				int[] ultimoPorProdutor = new int[produtores];
+				Arrays.fill(ultimoPorProdutor, -1);
+				while (removidos.get() < total && erro.get() == null) {
+					Integer item;
+					try {
+						item = remover.get();
+					} catch (NoSuchElementException e) {
+						Thread.yield();
+						continue;
+					}
+					if (item < 0 || item >= total) {
+						erro.compareAndSet(null, new AssertionError(nome + ": item inesperado " + item));
+						break;
+					}
+					if (retiradas.getAndIncrement(item) != 0) {
+						erro.compareAndSet(null, new AssertionError(nome + ": item " + item + " retirado duas vezes"));
+					} else if (fifo && item <= ultimoPorProdutor[item / porProdutor]) {
+						erro.compareAndSet(null, new AssertionError(nome + ": item " + item + " retirado depois do "
+								+ ultimoPorProdutor[item / porProdutor] + ", do mesmo produtor"));
+					}
+					ultimoPorProdutor[item / porProdutor] = item;
+					removidos.incrementAndGet();
+				}
+			}));
+		}
+		for (Thread thread : threads) {
+			thread.setDaemon(true);
+			thread.setUncaughtExceptionHandler((t, e) -> erro.compareAndSet(null, e));
+			thread.start();
+		}
+		long inicio = System.nanoTime();
+		largada.countDown();
+		for (Thread thread : threads) {
+			try {
+				thread.join(TimeUnit.MINUTES.toMillis(2));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(e);
+			}
+			if (thread.isAlive()) {
+				erro.compareAndSet(null, new AssertionError(nome + ": " + removidos.get() + " de " + total
+						+ " itens retirados em 2 minutos (itens perdidos?)"));
+				break;
+			}
+		}
+		double ms = (System.nanoTime() - inicio) / 1e6;
+		if (erro.get() instanceof AssertionError falha) {
+			throw falha;
+		}
+		if (erro.get() != null) {
+			throw new IllegalStateException(nome + ": " + erro.get(), erro.get());
+		}
+		verificar(removidos.get() == total && vazia.getAsBoolean(),
+				nome + ": " + removidos.get() + " de " + total + " itens retirados, vazia = " + vazia.getAsBoolean());
+		for (int i = 0; i < total; i++) {
+			verificar(retiradas.get(i) == 1, nome + ": item " + i + " retirado " + retiradas.get(i) + " vez(es)");
+		}
+		return total / ms;
+	}
+
+	private static void aguardar(CountDownLatch largada) {
+		try {
+			largada.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * CarregadorProdutos (blocos mapeados em paralelo, tokenizador sobre bytes) deve produzir os mesmos produtos
+	 * que App.lerProdutos (Scanner e Produto.criarDoTexto), na mesma ordem, num arquivo sorteado com vários blocos,
+	 * descrições acentuadas, decimais com '.' e ',' e de até 20 dígitos, linhas terminadas em "\r\n" e a última
+	 * linha sem quebra.
+	 */
+	static void carregador() {
+		Random sorteio = new Random(SEMENTE);
+		String[] nomes = { "Fita adesiva", "Pão de açúcar", "Caderno espiral", "Maçã", "Café torrado", "Óleo" };
+		int quantos = 20_000;
+		StringBuilder texto = new StringBuilder().append(quantos).append('\n');
+		for (int i = 0; i < quantos; i++) {
+			boolean perecivel = sorteio.nextBoolean();
+			texto.append(perecivel ? 2 : 1).append(';').append(nomes[sorteio.nextInt(nomes.length)]).append(' ')
+					.append(i).append(';').append(decimalSorteado(sorteio, 1000)).append(';')
+					.append(decimalSorteado(sorteio, 1));
+			if (perecivel) {
+				texto.append(String.format(";%02d/%02d/%04d", 1 + sorteio.nextInt(28), 1 + sorteio.nextInt(12),
+						LocalDate.now().getYear() + 1 + sorteio.nextInt(50)));
+			}
+			if (i < quantos - 1) {
+				texto.append(sorteio.nextInt(10) == 0 ? "\r\n" : "\n");
+			}
+		}
+		Path arquivo = null;
+		try {
+			arquivo = Files.createTempFile("produtos", ".txt");
+			Files.writeString(arquivo, texto, StandardCharsets.UTF_8);
+			Produto[] referencia = App.lerProdutos(arquivo.toString());
+			Produto[] mapeados = new CarregadorProdutos().carregar(arquivo.toString());
+			verificar(mapeados.length == referencia.length, mapeados.length + " produtos, esperados " + referencia.length);
+			for (int i = 0; i < referencia.length; i++) {
+				Produto esperado = referencia[i];
+				Produto obtido = mapeados[i];
+				verificar(obtido.getClass() == esperado.getClass() && obtido.descricao.equals(esperado.descricao)
+						&& obtido.precoCusto == esperado.precoCusto && obtido.margemLucro == esperado.margemLucro
+						&& obtido.gerarDadosTexto().equals(esperado.gerarDadosTexto()),
+						"produto " + i + ": " + obtido.gerarDadosTexto() + " (" + obtido.precoCusto + ", "
+								+ obtido.margemLucro + "), esperado " + esperado.gerarDadosTexto() + " ("
+								+ esperado.precoCusto + ", " + esperado.margemLucro + ")");
+				verificar(obtido.idProduto == mapeados[0].idProduto + i, "identificadores fora de sequência no produto " + i);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			if (arquivo != null) {
+				try {
+					Files.deleteIfExists(arquivo);
+				} catch (IOException e) {
+					// arquivo temporário; o sistema o remove depois
+				}
+			}
+		}
+	}
+
+	/**
+	 * Decimal sorteado entre 0.01 e 'escala', com '.' ou ',' e de 2 a 20 casas (acima de 15 dígitos significativos,
+	 * o carregador recorre a Double.parseDouble)
+	 */
+	private static String decimalSorteado(Random sorteio, int escala) {
+		String valor = new BigDecimal(0.01 + sorteio.nextDouble() * escala)
+				.setScale(2 + sorteio.nextInt(19), RoundingMode.HALF_UP).toPlainString();
+		return sorteio.nextInt(5) == 0 ? valor.replace('.', ',') : valor;
+	}
+
+	/**
+	 * DiarioPedidos: gravação em grupo por várias threads, recuperada na ordem das sequências; ida e volta por
+	 * App.registrarPedidosFinalizados (mesmos pedidos, produtos, valores e índices); final rasgado e soma de
+	 * verificação inválida (recupera o prefixo válido e trunca o arquivo); catálogo diferente e produto
+	 * inexistente (nada é recuperado); e lote com falha de gravação (descartado, sem impedir os seguintes).
+	 */
+	static void diario() {
+		Random sorteio = new Random(SEMENTE);
+		Produto[] catalogo = new Produto[60];
+		Map<Integer, Produto> porCodigo = new HashMap<>();
+		for (int i = 0; i < catalogo.length; i++) {
+			catalogo[i] = i % 3 == 0
+					? new ProdutoPerecivel("Perecível " + i, 1 + i, 0.2, RelogioPrecos.hoje().plusDays(30))
+					: new ProdutoNaoPerecivel("Produto " + i, 1 + i * 0.5, 0.3);
+			porCodigo.put(catalogo[i].idProduto, catalogo[i]);
+		}
+		long impressao = DiarioPedidos.impressaoDigital(catalogo, catalogo.length);
+		Path arquivo = null;
+		try {
+			arquivo = Files.createTempFile("pedidos", ".wal");
+			String nome = arquivo.toString();
+
+			// gravação em grupo: 4 threads anexando pedidos e lotes ao mesmo tempo
+			Map<Long, Pedido> porSequencia = new ConcurrentSkipListMap<>();
+			DiarioPedidos diario = new DiarioPedidos(nome, 1024, 200, impressao);
+			List<Thread> threads = new ArrayList<>();
+			AtomicReference<Throwable> erro = new AtomicReference<>();
+			for (int t = 0; t < 4; t++) {
+				long semente = SEMENTE + t;
+				Thread thread = new Thread(() -> {
+					Random sorteioThread = new Random(semente);
+					try {
+						for (int i = 0; i < 300; i++) {
+							if (sorteioThread.nextInt(4) == 0) {
+								List<Pedido> lote = new ArrayList<>();
+								for (int j = 1 + sorteioThread.nextInt(5); j > 0; j--) {
+									lote.add(pedidoDoCatalogo(sorteioThread, catalogo));
+								}
+								long ultima = diario.anexarTodos(lote);
+								for (int j = 0; j < lote.size(); j++) {
+									porSequencia.put(ultima - lote.size() + 1 + j, lote.get(j));
+								}
+								diario.aguardarGravacao(ultima);
+							} else {
+								Pedido pedido = pedidoDoCatalogo(sorteioThread, catalogo);
+								long sequencia = diario.anexar(pedido);
+								porSequencia.put(sequencia, pedido);
+								diario.aguardarGravacao(sequencia);
+							}
+						}
+					} catch (IOException | RuntimeException e) {
+						erro.compareAndSet(null, e);
+					}
+				});
+				threads.add(thread);
+				thread.start();
+			}
+			for (Thread thread : threads) {
+				thread.join();
+			}
+			diario.close();
+			verificar(erro.get() == null, "gravação em grupo falhou: " + erro.get());
+			List<Pedido> gravados = new ArrayList<>(porSequencia.values());
+
+			List<Pedido> recuperados = new ArrayList<>();
+			int quantos = DiarioPedidos.recuperar(nome, impressao, porCodigo::get, recuperados::add);
+			verificar(quantos == gravados.size() && descrever(recuperados).equals(descrever(gravados)),
+					"recuperados " + quantos + " pedidos fora da ordem das sequências (gravados " + gravados.size() + ")");
+			verificarIdaEVolta(gravados, recuperados);
+
+			// final rasgado: o último registro, incompleto, é descartado e o arquivo é truncado
+			long tamanho = Files.size(arquivo);
+			truncar(arquivo, tamanho - 1 - sorteio.nextInt(10));
+			recuperados.clear();
+			DiarioPedidos.recuperar(nome, impressao, porCodigo::get, recuperados::add);
+			List<Long> posicoes = posicoesDosRegistros(arquivo);
+			verificar(descrever(recuperados).equals(descrever(gravados.subList(0, gravados.size() - 1)))
+					&& Files.size(arquivo) == posicoes.get(posicoes.size() - 1),
+					"final rasgado: " + recuperados.size() + " pedidos recuperados, esperados " + (gravados.size() - 1));
+			Pedido depois = pedidoDoCatalogo(sorteio, catalogo);
+			try (DiarioPedidos reaberto = new DiarioPedidos(nome, 1024, 0, impressao)) {
+				reaberto.registrar(depois);
+			}
+			List<Pedido> esperados = new ArrayList<>(gravados.subList(0, gravados.size() - 1));
+			esperados.add(depois);
+			recuperados.clear();
+			DiarioPedidos.recuperar(nome, impressao, porCodigo::get, recuperados::add);
+			verificar(descrever(recuperados).equals(descrever(esperados)), "pedido anexado depois do final rasgado perdido");
+
+			// soma de verificação inválida no meio: recupera os registros anteriores e trunca o arquivo nele
+			posicoes = posicoesDosRegistros(arquivo);
+			int corrompido = esperados.size() / 2;
+			try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+				ByteBuffer byteLido = ByteBuffer.allocate(1);
+				long posicao = posicoes.get(corrompido) + 8 + 2;
+				canal.read(byteLido, posicao);
+				canal.write(ByteBuffer.wrap(new byte[] { (byte) (byteLido.get(0) ^ 0x5A) }), posicao);
+			}
+			recuperados.clear();
+			DiarioPedidos.recuperar(nome, impressao, porCodigo::get, recuperados::add);
+			verificar(descrever(recuperados).equals(descrever(esperados.subList(0, corrompido)))
+					&& Files.size(arquivo) == posicoes.get(corrompido),
+					"soma inválida no registro " + corrompido + ": " + recuperados.size() + " pedidos recuperados");
+			esperados = new ArrayList<>(esperados.subList(0, corrompido));
+
+			// catálogo diferente ou produto inexistente: nada é recuperado e o arquivo não muda
+			tamanho = Files.size(arquivo);
+			recuperados.clear();
+			verificar(falhaAoRecuperar(nome, impressao + 1, porCodigo::get, recuperados)
+					&& falhaAoAbrir(nome, impressao + 1), "diário aceito com outro catálogo");
+			int ausente = esperados.get(esperados.size() - 1).getProdutos()[0].idProduto;
+			verificar(falhaAoRecuperar(nome, impressao, id -> id == ausente ? null : porCodigo.get(id), recuperados),
+					"diário recuperado sem o produto " + ausente);
+			verificar(recuperados.isEmpty() && Files.size(arquivo) == tamanho,
+					"recuperação recusada entregou pedidos ou alterou o arquivo");
+
+			// falha na gravação de um lote: o lote é descartado e o diário continua aceitando pedidos
+			Files.delete(arquivo);
+			AtomicInteger gravacoes = new AtomicInteger();
+			List<Pedido> duraveis = new ArrayList<>();
+			Pedido descartado = null;
+			try (DiarioPedidos comFalha = new DiarioPedidos(nome, 1024, 0, impressao) {
+				@Override
+				void gravarNoDisco(FileChannel canal, ByteBuffer lote) throws IOException {
+					if (gravacoes.incrementAndGet() == 3) {
+						// grava só parte do lote, como uma gravação interrompida
+						canal.write(lote.slice(lote.position(), lote.remaining() / 2));
+						throw new IOException("falha simulada");
+					}
+					super.gravarNoDisco(canal, lote);
+				}
+			}) {
+				for (int i = 0; i < 6; i++) {
+					Pedido pedido = pedidoDoCatalogo(sorteio, catalogo);
+					try {
+						comFalha.registrar(pedido);
+						duraveis.add(pedido);
+					} catch (IOException e) {
+						verificar(descartado == null && e.getMessage().equals("falha simulada"),
+								"falha inesperada no pedido " + i + ": " + e);
+						descartado = pedido;
+					}
+				}
+			}
+			recuperados.clear();
+			DiarioPedidos.recuperar(nome, impressao, porCodigo::get, recuperados::add);
+			verificar(descartado != null && descrever(recuperados).equals(descrever(duraveis)),
+					"depois da falha simulada: " + recuperados.size() + " pedidos recuperados, esperados "
+							+ duraveis.size());
+
+			Files.delete(arquivo);
+			verificarSessaoComFalha(nome, impressao);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} finally {
+			if (arquivo != null) {
+				try {
+					Files.deleteIfExists(arquivo);
+				} catch (IOException e) {
+					// arquivo temporário; o sistema o remove depois
+				}
+			}
+		}
+	}
+
+	/**
+	 * Sessão do ServicoPedidos com o diário falhando em todas as gravações: a finalização lança
+	 * PedidoNaoDuravelException, o pedido fica na fila uma única vez e deixa de estar em aberto, e finalizar de
+	 * novo não o duplica.
+	 */
+	private static void verificarSessaoComFalha(String nome, long impressao) throws IOException, InterruptedException {
+		EstruturasPedidos originais = new EstruturasPedidos();
+		DiarioPedidos diarioOriginal = App.diarioPedidos;
+		try (DiarioPedidos semDisco = new DiarioPedidos(nome, 1024, 0, impressao) {
+			@Override
+			void gravarNoDisco(FileChannel canal, ByteBuffer lote) throws IOException {
+				throw new IOException("falha simulada");
+			}
+		}; ServicoPedidos servico = new ServicoPedidos()) {
+			new EstruturasPedidos(new PilhaConcorrente<>(), new FilaAgregada<>(App.VALOR_FINAL),
+					new IndicePedidosPorProduto(), new IndicePedidosPorValor()).instalar();
+			App.diarioPedidos = semDisco;
+			List<String> resultados = new ArrayList<>();
+			servico.iniciarSessao(sessao -> {
+				sessao.iniciarPedido(1);
+				for (int tentativa = 0; tentativa < 2; tentativa++) {
+					try {
+						sessao.finalizar();
+						resultados.add("finalizado");
+					} catch (IOException | IllegalStateException e) {
+						resultados.add(e.getClass().getSimpleName());
+					}
+				}
+			}).get();
+			List<Pedido> naFila = new ArrayList<>();
+			App.filaPedidos.forEach(naFila::add);
+			verificar(resultados.equals(List.of("PedidoNaoDuravelException", "IllegalStateException"))
+					&& naFila.size() == 1, "sessão com falha de gravação: " + resultados + ", " + naFila.size()
+							+ " pedido(s) na fila");
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			App.diarioPedidos = diarioOriginal;
+			originais.instalar();
+		}
+	}
+
+	/**
+	 * Registra os pedidos recuperados por App.registrarPedidosFinalizados, em estruturas novas, e confere a fila,
+	 * os índices e os valores congelados contra os pedidos gravados.
+	 */
+	private static void verificarIdaEVolta(List<Pedido> gravados, List<Pedido> recuperados) {
+		EstruturasPedidos originais = new EstruturasPedidos();
+		try {
+			new EstruturasPedidos(new PilhaConcorrente<>(), new FilaAgregada<>(App.VALOR_FINAL),
+					new IndicePedidosPorProduto(), new IndicePedidosPorValor()).instalar();
+			App.registrarPedidosFinalizados(recuperados);
+			List<Pedido> naFila = new ArrayList<>();
+			App.filaPedidos.forEach(naFila::add);
+			verificar(naFila.equals(recuperados), "a fila não tem os pedidos recuperados, na ordem");
+			verificar(App.pedidosPorValor.pedidosAPartirDe(0, naFila.size()).equals(recuperados),
+					"o índice por valor não tem os pedidos recuperados, na ordem");
+			for (int i = 0; i < gravados.size(); i++) {
+				verificar(recuperados.get(i).valorFinalCentavos() == gravados.get(i).valorFinalCentavos(),
+						"valor do pedido recuperado " + recuperados.get(i).getIdPedido() + " difere do gravado");
+			}
+			int idProduto = gravados.get(0).getProdutos()[0].idProduto;
+			List<Pedido> comProduto = new ArrayList<>();
+			for (Pedido pedido : recuperados) {
+				if (Arrays.stream(pedido.getProdutos(), 0, pedido.getQuantosProdutos())
+						.anyMatch(produto -> produto.idProduto == idProduto)) {
+					comProduto.add(pedido);
+				}
+			}
+			verificar(App.pedidosPorProduto.pedidosCom(new int[] { idProduto }, naFila.size()).equals(comProduto),
+					"o índice por produto não tem os pedidos recuperados com o produto " + idProduto);
+		} finally {
+			originais.instalar();
+		}
+	}
+
+	private static Pedido pedidoDoCatalogo(Random sorteio, Produto[] catalogo) {
+		Pedido pedido = new Pedido(RelogioPrecos.hoje().minusDays(sorteio.nextInt(30)), 1 + sorteio.nextInt(2));
+		for (int j = 1 + sorteio.nextInt(Pedido.MAX_PRODUTOS); j > 0; j--) {
+			pedido.incluirProduto(catalogo[sorteio.nextInt(catalogo.length)]);
+		}
+		return pedido;
+	}
+
+	/** Identificador, data, forma de pagamento e códigos dos produtos de cada pedido, para comparar listas */
+	private static List<String> descrever(List<Pedido> pedidos) {
+		List<String> descricoes = new ArrayList<>(pedidos.size());
+		for (Pedido pedido : pedidos) {
+			StringBuilder descricao = new StringBuilder().append(pedido.getIdPedido()).append(';')
+					.append(pedido.getDataPedido()).append(';').append(pedido.getFormaDePagamento());
+			for (int i = 0; i < pedido.getQuantosProdutos(); i++) {
+				descricao.append(';').append(pedido.getProdutos()[i].idProduto);
+			}
+			descricoes.add(descricao.toString());
+		}
+		return descricoes;
+	}
+
+	/** Posição de cada registro do diário e, por último, a posição logo após o último */
+	private static List<Long> posicoesDosRegistros(Path arquivo) throws IOException {
+		ByteBuffer dados = ByteBuffer.wrap(Files.readAllBytes(arquivo)).order(ByteOrder.LITTLE_ENDIAN);
+		List<Long> posicoes = new ArrayList<>();
+		int posicao = 16;
+		while (posicao + 8 <= dados.limit()) {
+			posicoes.add((long) posicao);
+			posicao += 8 + dados.getInt(posicao);
+		}
+		posicoes.add((long) posicao);
+		return posicoes;
+	}
+
+	private static void truncar(Path arquivo, long tamanho) throws IOException {
+		try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.WRITE)) {
+			canal.truncate(tamanho);
+		}
+	}
+
+	private static boolean falhaAoRecuperar(String nome, long impressao, IntFunction<Produto> produtos,
+			List<Pedido> destino) {
+		try {
+			DiarioPedidos.recuperar(nome, impressao, produtos, destino::add);
+			return false;
+		} catch (IOException e) {
+			return true;
+		}
+	}
+
+	private static boolean falhaAoAbrir(String nome, long impressao) {
+		try {
+			new DiarioPedidos(nome, 1024, 0, impressao).close();
+			return false;
+		} catch (IOException e) {
+			return true;
+		}
+	}
+
+	/**
+	 * Renderizador: em vários locales (inclusive os que a criação deve recusar, com dígitos não ASCII ou moeda
+	 * sem centavos) e, numa amostra menor, em 100 locales sorteados da JVM, o texto gerado deve ser idêntico, byte a byte, ao de toString(),
+	 * NumberFormat e String.format para os produtos do produtos.txt, perecíveis dentro e fora do prazo de desconto,
+	 * descrições com '%', pedidos sorteados, valores perto do empate no arredondamento, números e datas.
+	 */
+	static void renderizador() {
+		Random sorteio = new Random(SEMENTE);
+		ZoneId zona = ZoneId.systemDefault();
+		LocalDate hoje = LocalDate.now(zona);
+		Instant meioDia = hoje.atTime(12, 0).atZone(zona).toInstant();
+		Locale localeOriginal = Locale.getDefault();
+		try {
+			RelogioPrecos.usarRelogio(Clock.fixed(meioDia, zona));
+			List<Produto> produtos = new ArrayList<>(Arrays.asList(App.lerProdutos("produtos.txt")));
+			verificar(produtos.size() > 1000, "produtos.txt não foi carregado");
+			for (int i = 0; i < 500; i++) {
+				// validade de hoje até 30 dias: metade dentro do prazo de desconto
+				produtos.add(new ProdutoPerecivel("Perecível " + i, 0.01 + sorteio.nextInt(100_000) / 100.0 + 0.005,
+						0.05 + sorteio.nextInt(100) / 100.0, hoje.plusDays(sorteio.nextInt(31))));
+			}
+			produtos.add(new ProdutoNaoPerecivel("Algodão 100%% puro", 12.5, 0.3));
+			produtos.add(new ProdutoNaoPerecivel("Linha%nDupla", 3.2, 0.4));
+			produtos.add(new ProdutoPerecivel("Iogurte 0%% lactose", 4.1, 0.2, hoje.plusDays(3)));
+			produtos.add(new ProdutoNaoPerecivel("Cofre", 4_999_999.99, 2.5));
+
+			List<Pedido> pedidos = new ArrayList<>();
+			for (int i = 0; i < 200; i++) {
+				Pedido pedido = new Pedido(hoje.minusDays(sorteio.nextInt(2000)), 1 + sorteio.nextInt(2));
+				for (int j = sorteio.nextInt(Pedido.MAX_PRODUTOS + 1); j > 0; j--) {
+					pedido.incluirProduto(produtos.get(sorteio.nextInt(produtos.size())));
+				}
+				pedidos.add(pedido);
+			}
+
+			String[] locales = { "pt-BR", "en-US", "de-DE", "fr-FR", "de-CH", "es-ES", "hi-IN", "ja-JP", "ar-SA",
+					"th-TH-u-nu-thai", "en-IN" };
+			for (String etiqueta : locales) {
+				Locale.setDefault(Locale.forLanguageTag(etiqueta));
+				compararRenderizacao(etiqueta, produtos, pedidos, 3000, new Random(SEMENTE));
+			}
+			// amostra menor em 100 locales sorteados da JVM, para exercitar a amostragem de formatos da criação
+			List<Produto> amostraProdutos = new ArrayList<>(produtos.subList(0, 20));
+			amostraProdutos.addAll(produtos.subList(produtos.size() - 30, produtos.size()));
+			List<Locale> disponiveis = new ArrayList<>(Arrays.asList(Locale.getAvailableLocales()));
+			disponiveis.sort((a, b) -> a.toLanguageTag().compareTo(b.toLanguageTag()));
+			Collections.shuffle(disponiveis, sorteio);
+			for (Locale locale : disponiveis.subList(0, Math.min(100, disponiveis.size()))) {
+				Locale.setDefault(locale);
+				compararRenderizacao(locale.toLanguageTag(), amostraProdutos, pedidos.subList(0, 5), 60,
+						new Random(SEMENTE));
+			}
+
+			// descrição com '%' que não é um formato válido: o toString lança a exceção e o renderizador também,
+			// sem deixar texto pela metade no buffer
+			Locale.setDefault(Locale.forLanguageTag("pt-BR"));
+			Produto invalido = new ProdutoNaoPerecivel("Desconto de 50%", 10, 0.5);
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			Renderizador renderizador = new Renderizador(new PrintStream(bytes, false, StandardCharsets.UTF_8));
+			renderizador.texto("antes");
+			RuntimeException doToString = null;
+			RuntimeException doRenderizador = null;
+			try {
+				invalido.toString();
+			} catch (RuntimeException e) {
+				doToString = e;
+			}
+			try {
+				renderizador.produto(invalido);
+			} catch (RuntimeException e) {
+				doRenderizador = e;
+			}
+			renderizador.descarregar();
+			verificar(doToString != null && doRenderizador != null && doToString.getClass() == doRenderizador.getClass()
+					&& bytes.toString(StandardCharsets.UTF_8).equals("antes"),
+					"descrição com formato inválido: " + doToString + " / " + doRenderizador);
+		} finally {
+			Locale.setDefault(localeOriginal);
+			RelogioPrecos.usarRelogio(Clock.systemDefaultZone());
+		}
+	}
+
+	/** Renderiza tudo no locale padrão atual e compara, byte a byte, com os formatadores originais */
+	private static void compararRenderizacao(String etiqueta, List<Produto> produtos, List<Pedido> pedidos,
+			int valores, Random sorteio) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		Renderizador renderizador = new Renderizador(new PrintStream(bytes, false, StandardCharsets.UTF_8));
+		StringBuilder esperado = new StringBuilder();
+		String quebra = System.lineSeparator();
+		NumberFormat moeda = NumberFormat.getCurrencyInstance();
+
+		for (Produto produto : produtos) {
+			renderizador.produto(produto).linha();
+			esperado.append(produto.toString()).append(quebra);
+		}
+		for (Pedido pedido : pedidos) {
+			renderizador.pedido(pedido).linha();
+			esperado.append(pedido.toString()).append(quebra);
+		}
+		for (int i = 0; i < valores; i++) {
+			// metade exatamente no meio centavo (em decimal), metade a um ulp dele, e alguns acima do limite direto
+			double valor = sorteio.nextInt(1_000_000_000) / 100.0 + 0.005;
+			if (i % 2 == 1) {
+				valor = sorteio.nextBoolean() ? Math.nextUp(valor) : Math.nextDown(valor);
+			}
+			if (i % 100 == 0) {
+				valor *= 1000;
+			}
+			renderizador.moeda(valor).linha();
+			esperado.append(moeda.format(valor)).append(quebra);
+		}
+		for (int i = 0; i < valores / 2; i++) {
+			int numero = i < 50 ? i - 25 : sorteio.nextInt();
+			renderizador.numero2(numero).texto(" ").inteiro(numero).linha();
+			esperado.append(String.format("%02d", numero)).append(' ').append(String.format("%d", numero)).append(quebra);
+		}
+		DateTimeFormatter formatoData = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+		for (int i = 0; i < valores / 2; i++) {
+			LocalDate data = LocalDate.ofEpochDay(sorteio.nextInt(4_000_000) - 1_000_000);
+			renderizador.data(data).linha();
+			esperado.append(formatoData.format(data)).append(quebra);
+		}
+		renderizador.descarregar();
+
+		String obtido = bytes.toString(StandardCharsets.UTF_8);
+		if (!obtido.equals(esperado.toString())) {
+			String[] linhasObtidas = obtido.split(quebra, -1);
+			String[] linhasEsperadas = esperado.toString().split(quebra, -1);
+			int linha = 0;
+			while (linha < Math.min(linhasObtidas.length, linhasEsperadas.length)
+					&& linhasObtidas[linha].equals(linhasEsperadas[linha])) {
+				linha++;
+			}
+			verificar(false, etiqueta + ", linha " + (linha + 1) + ": \""
+					+ (linha < linhasObtidas.length ? linhasObtidas[linha] : "") + "\" em vez de \""
+					+ (linha < linhasEsperadas.length ? linhasEsperadas[linha] : "") + "\"");
+		}
+		verificar(Arrays.equals(bytes.toByteArray(), esperado.toString().getBytes(StandardCharsets.UTF_8)),
+				etiqueta + ": bytes diferentes");
+	}
+
+	/**
+	 * HistoricoPedidos com segmentos pequenos deve se comportar como a Fila de referência numa sequência sorteada
+	 * de inserções e remoções, passando pelo crescimento do primeiro segmento, pelas fronteiras entre segmentos,
+	 * pelo reaproveitamento da reserva ao esvaziar e pelos filtros (que não reservam segmentos inteiros), e contar
+	 * os produtos omitidos por não estarem no catálogo.
+	 */
+	static void historico() {
+		Random sorteio = new Random(SEMENTE);
+		Produto[] catalogo = new Produto[40];
+		Map<Integer, Produto> porCodigo = new HashMap<>();
+		for (int i = 0; i < catalogo.length; i++) {
+			catalogo[i] = new ProdutoNaoPerecivel("Produto " + i, 1 + i * 0.37, 0.25);
+			porCodigo.put(catalogo[i].idProduto, catalogo[i]);
+		}
+		int ausente = catalogo[catalogo.length - 1].idProduto;
+		Function<Pedido, Double> extrator = App.VALOR_FINAL;
+		Predicate<Pedido> condicao = pedido -> pedido.getIdPedido() % 3 != 0;
+
+		for (int registrosPorSegmento : new int[] { 1, 3, 64, 100, 1000 }) {
+			HistoricoPedidos historico = new HistoricoPedidos(id -> id == ausente ? null : porCodigo.get(id),
+					registrosPorSegmento);
+			Fila<Pedido> referencia = new Fila<>();
+			long omitidos = 0;
+			int maiorTamanho = 0;
+			for (int passo = 0; passo < 20_000; passo++) {
+				int sorteado = sorteio.nextInt(100);
+				// fases de crescimento e de esvaziamento, para passar várias vezes pelo histórico vazio
+				boolean crescendo = (passo / 2000) % 2 == 0;
+				if (sorteado < (crescendo ? 70 : 25)) {
+					Pedido pedido = new Pedido(RelogioPrecos.hoje().minusDays(sorteio.nextInt(400)), 1 + sorteio.nextInt(2));
+					for (int j = sorteio.nextInt(Pedido.MAX_PRODUTOS + 1); j > 0; j--) {
+						pedido.incluirProduto(catalogo[sorteio.nextInt(catalogo.length)]);
+					}
+					pedido.congelarValorFinal();
+					historico.inserir(pedido);
+					referencia.inserir(pedido);
+				} else if (sorteado < 97) {
+					if (referencia.vazia()) {
+						verificar(lancaFilaVazia(historico), "remover do histórico vazio não lançou a exceção");
+						continue;
+					}
+					Pedido esperado = referencia.remover();
+					Pedido lido = historico.remover();
+					omitidos += omitidos(esperado, ausente);
+					verificar(mesmoPedidoSemAusente(esperado, lido, ausente),
+							"histórico (" + registrosPorSegmento + "): removido " + lido.getIdPedido() + ", esperado "
+									+ esperado.getIdPedido());
+				} else {
+					int quantidade = sorteio.nextInt(referencia.tamanho() + 5) - 2;
+					List<Pedido> esperados = new ArrayList<>();
+					referencia.filtrar(condicao, quantidade).forEach(esperados::add);
+					HistoricoPedidos filtrado = historico.filtrar(condicao, quantidade);
+					List<Pedido> lidos = new ArrayList<>();
+					filtrado.forEach(lidos::add);
+					boolean iguais = lidos.size() == esperados.size();
+					for (int i = 0; iguais && i < lidos.size(); i++) {
+						iguais = mesmoPedidoSemAusente(esperados.get(i), lidos.get(i), ausente)
+								&& filtrado.valorFinalCentavosGravado(i) == esperados.get(i).valorFinalCentavos();
+					}
+					verificar(iguais, "filtrar(" + quantidade + ") do histórico (" + registrosPorSegmento + ") difere da Fila");
+					verificar(filtrado.bytesForaDoHeap() <= (2L * lidos.size() + 64) * HistoricoPedidos.TAMANHO_REGISTRO,
+							"filtrar com " + lidos.size() + " pedidos reservou " + filtrado.bytesForaDoHeap() + " bytes");
+					int n = sorteio.nextInt(referencia.tamanho() + 3) - 1;
+					double media = referencia.calcularValorMedio(extrator, n);
+					// recriados sem o produto ausente, os pedidos que o têm valem menos; o valor gravado não muda
+					boolean comAusente = conteudo(referencia).stream().limit(Math.max(n, 0))
+							.anyMatch(pedido -> omitidos(pedido, ausente) > 0);
+					verificar(Math.abs(historico.calcularValorMedioGravado(n) - media) < 1e-9
+							&& (comAusente || Math.abs(historico.calcularValorMedio(extrator, n) - media) < 1e-9),
+							"média dos " + n + " primeiros do histórico (" + registrosPorSegmento + ") difere da Fila");
+				}
+				verificar(historico.tamanho() == referencia.tamanho(), "tamanho do histórico difere da Fila");
+				maiorTamanho = Math.max(maiorTamanho, historico.tamanho());
+			}
+			List<Pedido> esperados = conteudo(referencia);
+			int i = 0;
+			for (Pedido lido : historico) {
+				verificar(mesmoPedidoSemAusente(esperados.get(i), lido, ausente)
+						&& historico.idPedido(i) == esperados.get(i).getIdPedido(),
+						"iteração do histórico (" + registrosPorSegmento + ") difere da Fila na posição " + i);
+				i++;
+			}
+			// o histórico não guarda mais que os segmentos em uso, um de reserva e a sobra do último
+			long porSegmento = (long) registrosPorSegmento * HistoricoPedidos.TAMANHO_REGISTRO;
+			long segmentosNecessarios = (historico.tamanho() + 2L * registrosPorSegmento - 1) / registrosPorSegmento + 1;
+			verificar(historico.bytesForaDoHeap() <= segmentosNecessarios * porSegmento,
+					"histórico (" + registrosPorSegmento + ") com " + historico.tamanho() + " pedidos reservou "
+							+ historico.bytesForaDoHeap() + " bytes");
+			verificar(maiorTamanho > 3L * registrosPorSegmento || registrosPorSegmento >= 1000,
+					"sequência não passou por várias fronteiras de segmento");
+			verificar(omitidos > 0 && historico.produtosOmitidos() >= omitidos,
+					"produtos omitidos: " + historico.produtosOmitidos() + ", removidos com o produto ausente: " + omitidos);
+		}
+	}
+
+	/** Quantas vezes o produto ausente aparece no pedido */
+	private static int omitidos(Pedido pedido, int ausente) {
+		int quantos = 0;
+		for (int i = 0; i < pedido.getQuantosProdutos(); i++) {
+			if (pedido.getProdutos()[i].idProduto == ausente) {
+				quantos++;
+			}
+		}
+		return quantos;
+	}
+
+	/** Mesmo pedido (código, data, pagamento e produtos, na ordem), sem as ocorrências do produto ausente */
+	private static boolean mesmoPedidoSemAusente(Pedido esperado, Pedido lido, int ausente) {
+		if (esperado.getIdPedido() != lido.getIdPedido() || !esperado.getDataPedido().equals(lido.getDataPedido())
+				|| esperado.getFormaDePagamento() != lido.getFormaDePagamento()) {
+			return false;
+		}
+		int j = 0;
+		for (int i = 0; i < esperado.getQuantosProdutos(); i++) {
+			Produto produto = esperado.getProdutos()[i];
+			if (produto.idProduto != ausente) {
+				if (j >= lido.getQuantosProdutos() || lido.getProdutos()[j] != produto) {
+					return false;
+				}
+				j++;
+			}
+		}
+		return j == lido.getQuantosProdutos();
+	}
+
+	/**
+	 * IndiceTextual e Catalogo (buscar e localizarCodigosDescricao) contra a filtragem linear das descrições, com
+	 * termos de prefixos comuns, acentos, dígitos e caixa variada: faixas de prefixo com um e com vários termos,
+	 * uniões pelo mapa de bits (códigos próximos) e pela ordenação (termos raros em códigos distantes), descrições
+	 * repetidas e remoções.
+	 */
+	static void indiceTextual() {
+		Random sorteio = new Random(SEMENTE);
+		String[] comuns = { "Fita", "fitas", "Fiação", "fio", "Café", "cafeteira", "Caderno", "cadeado", "Azul",
+				"azulejo", "Branco", "branca", "10", "100", "1000x", "Maçã", "macarrão", "Óleo", "olho", "Pão" };
+		String[] raros = { "zarabatana", "zarolho", "zebu", "zênite" };
+		List<Produto> produtos = new ArrayList<>();
+		Catalogo catalogo = new Catalogo();
+		IndiceTextual indice = new IndiceTextual();
+		for (int i = 0; i < 12_000; i++) {
+			StringBuilder descricao = new StringBuilder();
+			for (int j = 1 + sorteio.nextInt(4); j > 0; j--) {
+				String termo = comuns[sorteio.nextInt(comuns.length)];
+				if (sorteio.nextInt(8) == 0) {
+					termo = termo.toUpperCase(Locale.ROOT);
+				}
+				descricao.append(termo).append(sorteio.nextBoolean() ? " " : "-");
+			}
+			if (i % 3_000 == 3) {
+				// termos raros em códigos distantes: a união da faixa "z" é feita por ordenação, com produtos
+				// que têm dois termos da faixa (repetidos na união)
+				descricao.append(raros[i % raros.length]).append(' ').append(raros[(i + 1) % raros.length]).append(' ');
+			}
+			Produto produto = new ProdutoNaoPerecivel(descricao.toString().trim() + " ", 1 + sorteio.nextInt(100), 0.3);
+			produtos.add(produto);
+			catalogo.adicionar(produto);
+			indice.adicionar(produto);
+		}
+		List<Produto> removidos = new ArrayList<>();
+		for (int i = 0; i < 1_000; i++) {
+			Produto produto = produtos.get(sorteio.nextInt(produtos.size()));
+			if (catalogo.remover(produto.idProduto) != null) {
+				indice.remover(produto);
+				removidos.add(produto);
+			}
+		}
+		produtos.removeAll(removidos);
+		List<String[]> termosPorProduto = new ArrayList<>();
+		for (Produto produto : produtos) {
+			termosPorProduto.add(semAcentos(produto.descricao).split("[^\\p{L}\\p{Nd}]+"));
+		}
+
+		List<String> consultas = new ArrayList<>(List.of("z", "za", "ze", "zen", "fi", "f", "caf", "1", "10", "fita bran",
+				"FITA   azul", "maca", "maçã", "oleo ol", "zz", "", "  -- ", "fita z"));
+		for (int i = 0; i < 400; i++) {
+			StringBuilder consulta = new StringBuilder();
+			for (int j = 1 + sorteio.nextInt(3); j > 0; j--) {
+				String termo = sorteio.nextInt(10) == 0 ? raros[sorteio.nextInt(raros.length)]
+						: comuns[sorteio.nextInt(comuns.length)];
+				consulta.append(termo, 0, 1 + sorteio.nextInt(termo.length())).append(' ');
+			}
+			consultas.add(consulta.toString());
+		}
+		for (String consulta : consultas) {
+			String[] prefixos = Arrays.stream(semAcentos(consulta).split("[^\\p{L}\\p{Nd}]+"))
+					.filter(prefixo -> !prefixo.isEmpty()).toArray(String[]::new);
+			List<Integer> esperados = new ArrayList<>();
+			for (int i = 0; i < produtos.size() && prefixos.length > 0; i++) {
+				boolean todos = true;
+				for (String prefixo : prefixos) {
+					todos &= Arrays.stream(termosPorProduto.get(i)).anyMatch(termo -> termo.startsWith(prefixo));
+				}
+				if (todos) {
+					esperados.add(produtos.get(i).idProduto);
+				}
+			}
+			List<Integer> doIndice = Arrays.stream(indice.buscar(consulta)).boxed().toList();
+			List<Integer> doCatalogo = Arrays.stream(catalogo.buscar(consulta)).map(produto -> produto.idProduto).toList();
+			verificar(doIndice.equals(esperados) && doCatalogo.equals(esperados), "busca \"" + consulta + "\": "
+					+ doIndice.size() + " (índice) / " + doCatalogo.size() + " (catálogo) produtos, esperados "
+					+ esperados.size());
+		}
+
+		// descrições repetidas, com caixa e espaços diferentes, na ordem de inclusão
+		for (int i = 0; i < 200; i++) {
+			Produto produto = produtos.get(sorteio.nextInt(produtos.size()));
+			String consulta = "  " + produto.descricao.toUpperCase(Locale.ROOT) + " ";
+			List<Integer> esperados = new ArrayList<>();
+			for (Produto outro : produtos) {
+				if (outro.descricao.trim().equalsIgnoreCase(produto.descricao.trim())) {
+					esperados.add(outro.idProduto);
+				}
+			}
+			verificar(Arrays.stream(catalogo.localizarCodigosDescricao(consulta)).boxed().toList().equals(esperados),
+					"localizarCodigosDescricao(\"" + consulta + "\") difere da filtragem linear");
+		}
+	}
+
+	/** Texto sem acentos e em minúsculas, para a filtragem linear das verificações de busca */
+	private static String semAcentos(String texto) {
+		return Normalizer.normalize(texto, Normalizer.Form.NFD).replaceAll("\\p{M}+", "").toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * IndicePedidosPorProduto contra a filtragem linear dos pedidos, registrados um a um e em lotes: produtos
+	 * repetidos no mesmo pedido, diferenças de posição nos limites dos inteiros de tamanho variável (127/128 e
+	 * 16383/16384), consultas com vários produtos (inclusive repetidos, para a mescla sem repetição) e limites
+	 * negativos, nulos, no meio e além do total.
+	 */
+	static void indicePorProduto() {
+		Random sorteio = new Random(SEMENTE);
+		Produto[] catalogo = new Produto[30];
+		for (int i = 0; i < catalogo.length; i++) {
+			catalogo[i] = new ProdutoNaoPerecivel("Produto " + i, 1 + i, 0.3);
+		}
+		// o produto 0 só aparece nestas posições: diferenças 1, 127, 128, 16383, 16384, 16385 e 129
+		int[] posicoesRaro = { 0, 1, 128, 256, 16639, 33023, 49408, 49537 };
+		Produto raro = catalogo[0];
+		IndicePedidosPorProduto indice = new IndicePedidosPorProduto();
+		List<Pedido> pedidos = new ArrayList<>();
+		int total = 50_000;
+		int proximoRaro = 0;
+		while (pedidos.size() < total) {
+			List<Pedido> lote = new ArrayList<>();
+			for (int j = sorteio.nextInt(4) == 0 ? 1 + sorteio.nextInt(300) : 1; j > 0 && pedidos.size() + lote.size() < total; j--) {
+				Pedido pedido = new Pedido(RelogioPrecos.hoje(), 1);
+				if (proximoRaro < posicoesRaro.length && posicoesRaro[proximoRaro] == pedidos.size() + lote.size()) {
+					pedido.incluirProduto(raro);
+					pedido.incluirProduto(raro);
+					proximoRaro++;
+				}
+				for (int k = sorteio.nextInt(4); k > 0; k--) {
+					// produtos de frequências bem diferentes: 1 é raro, os mais altos são comuns
+					int produto = 1 + (int) Math.sqrt(sorteio.nextInt((catalogo.length - 1) * (catalogo.length - 1)));
+					pedido.incluirProduto(catalogo[produto]);
+				}
+				lote.add(pedido);
+			}
+			int primeira;
+			if (lote.size() == 1) {
+				primeira = indice.registrar(lote.get(0));
+			} else {
+				primeira = indice.registrarTodos(lote);
+			}
+			verificar(primeira == pedidos.size(), "posição " + primeira + " atribuída, esperada " + pedidos.size());
+			pedidos.addAll(lote);
+		}
+		verificar(proximoRaro == posicoesRaro.length && indice.quantidadePedidos() == total,
+				"pedidos registrados: " + indice.quantidadePedidos());
+
+		for (Produto produto : catalogo) {
+			long comProduto = pedidos.stream().filter(pedido -> contem(pedido, produto.idProduto)).count();
+			verificar(indice.quantidadePedidosCom(produto.idProduto) == comProduto,
+					"quantidadePedidosCom(" + produto.idProduto + ") difere da filtragem linear");
+		}
+		List<int[]> consultas = new ArrayList<>();
+		consultas.add(new int[] { raro.idProduto });
+		consultas.add(new int[] { raro.idProduto, raro.idProduto });
+		consultas.add(new int[] { raro.idProduto, catalogo[1].idProduto, raro.idProduto });
+		consultas.add(new int[] { -1 });
+		consultas.add(new int[0]);
+		for (int i = 0; i < 150; i++) {
+			int[] ids = new int[1 + sorteio.nextInt(4)];
+			for (int j = 0; j < ids.length; j++) {
+				ids[j] = catalogo[sorteio.nextInt(catalogo.length)].idProduto;
+			}
+			consultas.add(ids);
+		}
+		int[] limites = { -5, 0, 1, 2, 128, 129, 256, 257, 16639, 16640, 33023, 33024, 49537, 49538, total, total + 10 };
+		for (int i = 0; i < consultas.size(); i++) {
+			int[] ids = consultas.get(i);
+			int limite = i < 5 ? limites[sorteio.nextInt(limites.length)] : sorteio.nextInt(total + 100) - 50;
+			for (int primeiros : new int[] { limite, limites[i % limites.length] }) {
+				List<Pedido> esperados = new ArrayList<>();
+				for (int posicao = 0; posicao < Math.min(primeiros, total); posicao++) {
+					Pedido pedido = pedidos.get(posicao);
+					if (Arrays.stream(ids).anyMatch(id -> contem(pedido, id))) {
+						esperados.add(pedido);
+					}
+				}
+				List<Pedido> encontrados = indice.pedidosCom(ids, primeiros);
+				boolean mesmos = encontrados.size() == esperados.size();
+				for (int j = 0; mesmos && j < esperados.size(); j++) {
+					mesmos = encontrados.get(j) == esperados.get(j);
+				}
+				verificar(mesmos, "pedidosCom(" + Arrays.toString(ids) + ", " + primeiros + "): " + encontrados.size()
+						+ " pedidos, esperados " + esperados.size());
+			}
+		}
+	}
+
+	private static boolean contem(Pedido pedido, int idProduto) {
+		for (int i = 0; i < pedido.getQuantosProdutos(); i++) {
+			if (pedido.getProdutos()[i].idProduto == idProduto) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,162 @@
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Visão de leitura sobre uma fila ou pilha: percorre os itens da estrutura sob demanda, sem copiá-los
+ * e sem alterar a estrutura. As operações (filtrar, limitar, pular) são aplicadas na ordem em que foram
+ * encadeadas; por exemplo, fila.visao().limitar(n).filtrar(p) percorre, dentre os n primeiros, os que satisfazem p,
+ * como fila.filtrar(p, n), mas sem montar uma nova fila.
+ * Cada percurso começa um novo iterador da estrutura; os iteradores de Fila, FilaCircular, Pilha e PilhaVetor
+ * falham com ConcurrentModificationException se a estrutura for alterada durante o percurso.
+ */
+public final class Visao<E> implements Iterable<E> {
+
+	private final Supplier<Iterator<E>> origem;
+
+	/**
+	 * Cria uma visão sobre os iteradores fornecidos pela origem (ex.: fila::iterator).
+	 * @param origem Fornece um novo iterador a cada percurso.
+	 */
+	public Visao(Supplier<Iterator<E>> origem) {
+		if (origem == null) {
+			throw new IllegalArgumentException("A origem da visão não pode ser nula.");
+		}
+		this.origem = origem;
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return origem.get();
+	}
+
+	@Override
+	public Spliterator<E> spliterator() {
+		return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED);
+	}
+
+	public Stream<E> stream() {
+		return StreamSupport.stream(spliterator(), false);
+	}
+
+	/** Visão só com os itens que satisfazem a condição, avaliada durante o percurso */
+	public Visao<E> filtrar(Predicate<? super E> condicional) {
+		if (condicional == null) {
+			throw new IllegalArgumentException("A condição de filtro não pode ser nula.");
+		}
+		return new Visao<>(() -> new Filtrado<>(origem.get(), condicional));
+	}
+
+	/** Visão com no máximo 'quantidade' itens; o percurso para ao atingir o limite */
+	public Visao<E> limitar(int quantidade) {
+		if (quantidade < 0) {
+			throw new IllegalArgumentException("A quantidade não pode ser negativa.");
+		}
+		return new Visao<>(() -> new Limitado<>(origem.get(), quantidade));
+	}
+
+	/** Visão sem os 'quantidade' primeiros itens */
+	public Visao<E> pular(int quantidade) {
+		if (quantidade < 0) {
+			throw new IllegalArgumentException("A quantidade não pode ser negativa.");
+		}
+		return new Visao<>(() -> {
+			Iterator<E> iterador = origem.get();
+			for (int i = 0; i < quantidade && iterador.hasNext(); i++) {
+				iterador.next();
+			}
+			return iterador;
+		});
+	}
+
+	/**
+	 * Itens de uma página da visão, sem percorrer além dela.
+	 * @param numero Número da página, a partir de 0.
+	 * @param tamanho Quantidade de itens por página.
+	 * @return Os itens da página (vazia se a visão terminar antes dela).
+	 */
+	public List<E> pagina(int numero, int tamanho) {
+		if (numero < 0 || tamanho <= 0) {
+			throw new IllegalArgumentException("Página inválida.");
+		}
+		List<E> itens = new ArrayList<>(tamanho);
+		long primeiro = (long) numero * tamanho;
+		Iterator<E> iterador = iterator();
+		for (long i = 0; i < primeiro && iterador.hasNext(); i++) {
+			iterador.next();
+		}
+		while (itens.size() < tamanho && iterador.hasNext()) {
+			itens.add(iterador.next());
+		}
+		return itens;
+	}
+
+	private static final class Filtrado<E> implements Iterator<E> {
+
+		private final Iterator<E> origem;
+		private final Predicate<? super E> condicional;
+		private E proximo;
+		private boolean temProximo;
+
+		Filtrado(Iterator<E> origem, Predicate<? super E> condicional) {
+			this.origem = origem;
+			this.condicional = condicional;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (!temProximo && origem.hasNext()) {
+				E item = origem.next();
+				if (condicional.test(item)) {
+					proximo = item;
+					temProximo = true;
+				}
+			}
+			return temProximo;
+		}
+
+		@Override
+		public E next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			E item = proximo;
+			proximo = null;
+			temProximo = false;
+			return item;
+		}
+	}
+
+	private static final class Limitado<E> implements Iterator<E> {
+
+		private final Iterator<E> origem;
+		private int restantes;
+
+		Limitado(Iterator<E> origem, int quantidade) {
+			this.origem = origem;
+			this.restantes = quantidade;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return restantes > 0 && origem.hasNext();
+		}
+
+		@Override
+		public E next() {
+			if (restantes <= 0) {
+				throw new NoSuchElementException();
+			}
+			E item = origem.next();
+			restantes--;
+			return item;
+		}
+	}
+}